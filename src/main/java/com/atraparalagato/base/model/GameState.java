@@ -27,6 +27,7 @@ public abstract class GameState<T extends Position> {
     protected final LocalDateTime createdAt;
     protected GameStatus status;
     protected int moveCount;
+    protected long version;
     
     // Functional Programming: Callbacks para eventos
     protected Consumer<GameState<T>> onStateChanged;
@@ -37,6 +38,21 @@ public abstract class GameState<T extends Position> {
         this.createdAt = LocalDateTime.now();
         this.status = GameStatus.IN_PROGRESS;
         this.moveCount = 0;
+        this.version = 0;
+    }
+    
+    /**
+     * Constructor de copia para actualizaciones copy-on-write.
+     * Conserva identidad, fecha de creación, versión y callbacks.
+     */
+    protected GameState(GameState<T> other) {
+        this.gameId = other.gameId;
+        this.createdAt = other.createdAt;
+        this.status = other.status;
+        this.moveCount = other.moveCount;
+        this.version = other.version;
+        this.onStateChanged = other.onStateChanged;
+        this.onGameEnded = other.onGameEnded;
     }
     
     /**
@@ -121,6 +137,16 @@ public abstract class GameState<T extends Position> {
      */
     public abstract void restoreFromSerializable(Object serializedState);
     
+    /**
+     * Devuelve el estado sobre el que aplicar una actualización.
+     * Por defecto es el propio objeto; las implementaciones que quieran
+     * lectores sin bloqueo devuelven una copia profunda, de modo que un
+     * estado ya guardado no vuelve a modificarse.
+     */
+    public GameState<T> copyForUpdate() {
+        return this;
+    }
+    
     // Hook methods para extensibilidad
     protected void beforeMoveExecution(T position) {
         // Default: no operation
@@ -166,6 +192,21 @@ public abstract class GameState<T extends Position> {
         return moveCount;
     }
     
+    /**
+     * Versión del estado: crece en cada guardado confirmado. Sirve para
+     * detectar escrituras concurrentes y como marca de cambio barata.
+     */
+    public final long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Asigna la versión. Solo debe llamarlo el repositorio al guardar.
+     */
+    public final void setVersion(long version) {
+        this.version = version;
+    }
+    
     protected final void incrementMoveCount() {
         this.moveCount++;
     }
@@ -1,5 +1,7 @@
 package com.atraparalagato.base.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -30,12 +32,35 @@ public abstract class DataRepository<T, ID> {
      */
     public abstract T save(T entity);
     
+    /**
+     * Guarda la entidad solo si la versión almacenada sigue siendo
+     * {@code expectedVersion} (compare-and-set). Retorna false si otro
+     * escritor guardó antes; el llamador debe recargar y reintentar.
+     * Por defecto el repositorio no controla versiones y siempre guarda.
+     */
+    public boolean saveIfVersionMatches(T entity, long expectedVersion) {
+        save(entity);
+        return true;
+    }
+    
     /**
      * Busca una entidad por su identificador.
      * Retorna Optional para manejar casos donde no existe.
      */
     public abstract Optional<T> findById(ID id);
     
+    /**
+     * Busca varias entidades en una sola pasada; los identificadores que
+     * no existen se omiten y se conserva el orden de la petición.
+     */
+    public List<T> findAllById(Collection<ID> ids) {
+        List<T> found = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+    
     /**
      * Obtiene todas las entidades del repositorio.
      * Los estudiantes deben considerar paginación para grandes datasets.
@@ -7,6 +7,7 @@ import com.atraparalagato.base.repository.DataRepository;
 import com.atraparalagato.base.strategy.CatMovementStrategy;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -30,6 +31,9 @@ import java.util.function.Supplier;
  */
 public abstract class GameService<T extends Position> {
     
+    /** Reintentos de un movimiento ante escrituras concurrentes. */
+    protected static final int MAX_SAVE_ATTEMPTS = 8;
+    
     protected final GameBoard<T> gameBoard;
     protected final CatMovementStrategy<T> movementStrategy;
     protected final DataRepository<GameState<T>, String> gameRepository;
@@ -58,12 +62,22 @@ public abstract class GameService<T extends Position> {
      * Template Method que define el flujo de creación.
      */
     public final GameState<T> startNewGame(int boardSize) {
+        return startNewGame(boardSize, gameState -> { });
+    }
+    
+    /**
+     * Igual que {@link #startNewGame(int)}, pero aplica {@code setup} al
+     * estado ya inicializado antes del primer guardado: la primera versión
+     * guardada es la partida completa, nunca una a medio configurar.
+     */
+    public final GameState<T> startNewGame(int boardSize, Consumer<GameState<T>> setup) {
         String gameId = generateGameId();
         GameBoard<T> board = createGameBoard(boardSize);
         GameState<T> gameState = createGameState(gameId);
         
         initializeGame(gameState, board);
         configureGameCallbacks(gameState);
+        setup.accept(gameState);
         
         GameState<T> savedState = persistGameState(gameState);
         onGameStarted(savedState);
@@ -74,27 +88,34 @@ public abstract class GameService<T extends Position> {
     /**
      * Ejecuta un movimiento del jugador.
      * Coordina la actualización del tablero y el movimiento del gato.
+     * El movimiento se aplica sobre {@link GameState#copyForUpdate()} y se
+     * guarda con control optimista de versión: si otro escritor guardó
+     * antes, se recarga el estado y se reintenta.
      */
     public final Optional<GameState<T>> executePlayerMove(String gameId, T position) {
-        Optional<GameState<T>> gameStateOpt = loadGameState(gameId);
-        
-        if (gameStateOpt.isEmpty()) {
-            return Optional.empty();
-        }
-        
-        GameState<T> gameState = gameStateOpt.get();
-        
-        if (!gameState.executeMove(position)) {
-            return Optional.of(gameState);
+        for (int attempt = 0; attempt < MAX_SAVE_ATTEMPTS; attempt++) {
+            Optional<GameState<T>> gameStateOpt = loadGameState(gameId);
+            
+            if (gameStateOpt.isEmpty()) {
+                return Optional.empty();
+            }
+            
+            GameState<T> current = gameStateOpt.get();
+            GameState<T> gameState = current.copyForUpdate();
+            
+            if (!gameState.executeMove(position)) {
+                return Optional.of(current);
+            }
+            
+            // Mover el gato después del movimiento del jugador
+            executeCatMove(gameState);
+            
+            if (persistGameStateIfUnchanged(gameState, current.getVersion())) {
+                onMoveExecuted(gameState, position);
+                return Optional.of(gameState);
+            }
         }
-        
-        // Mover el gato después del movimiento del jugador
-        executeCatMove(gameState);
-        
-        GameState<T> updatedState = persistGameState(gameState);
-        onMoveExecuted(updatedState, position);
-        
-        return Optional.of(updatedState);
+        throw new IllegalStateException("Too many concurrent updates for game " + gameId);
     }
     
     /**
@@ -171,6 +192,13 @@ public abstract class GameService<T extends Position> {
         return gameRepository.save(gameState);
     }
     
+    /**
+     * Persiste el estado solo si nadie lo ha modificado desde que se leyó.
+     */
+    protected boolean persistGameStateIfUnchanged(GameState<T> gameState, long expectedVersion) {
+        return gameRepository.saveIfVersionMatches(gameState, expectedVersion);
+    }
+    
     /**
      * Obtiene estadísticas del juego.
      * Los estudiantes implementan métricas específicas.
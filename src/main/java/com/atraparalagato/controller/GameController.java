@@ -2,15 +2,34 @@ package com.atraparalagato.controller;
 
 import com.atraparalagato.base.model.GameState;
 import com.atraparalagato.example.service.ExampleGameService;
+import com.atraparalagato.impl.analysis.PlayerHint;
+import com.atraparalagato.impl.analysis.Puzzle;
 import com.atraparalagato.impl.model.HexPosition;
 import com.atraparalagato.impl.model.HexGameState;
+import com.atraparalagato.impl.model.HexGameSnapshot;
+import com.atraparalagato.impl.repository.GameJournal;
+import com.atraparalagato.impl.service.AdmissionControl;
+import com.atraparalagato.impl.service.DegradationPolicy;
+import com.atraparalagato.impl.service.GameReplay;
 import com.atraparalagato.impl.service.HexGameService;
+import com.atraparalagato.impl.service.MoveBatchResult;
+import com.atraparalagato.impl.service.RateLimiter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -27,8 +46,78 @@ public class GameController {
     @Value("${game.use-example-implementation:true}")
     private boolean useExampleImplementation;
 
+    @Value("${game.degradation.enabled:true}")
+    private boolean degradationEnabled;
+
+    @Value("${game.degradation.queue-high:64}")
+    private int degradationQueueHigh;
+
+    @Value("${game.degradation.queue-low:8}")
+    private int degradationQueueLow;
+
+    @Value("${game.degradation.p99-high-millis:150}")
+    private double degradationP99HighMillis;
+
+    @Value("${game.degradation.p99-low-millis:50}")
+    private double degradationP99LowMillis;
+
+    @Value("${game.degradation.min-dwell-millis:5000}")
+    private long degradationMinDwellMillis;
+
+    @Value("${game.admission.max-board-size:30}")
+    private int admissionMaxBoardSize;
+
+    @Value("${game.admission.max-live-games:10000}")
+    private int admissionMaxLiveGames;
+
+    @Value("${game.admission.max-live-cells:5000000}")
+    private long admissionMaxLiveCells;
+
+    @Value("${game.admission.idle-timeout-seconds:1800}")
+    private long admissionIdleTimeoutSeconds;
+
+    @Value("${game.rate-limit.default.per-second:20}")
+    private double rateDefaultPerSecond;
+
+    @Value("${game.rate-limit.default.burst:40}")
+    private int rateDefaultBurst;
+
+    @Value("${game.rate-limit.start.per-second:1}")
+    private double rateStartPerSecond;
+
+    @Value("${game.rate-limit.start.burst:5}")
+    private int rateStartBurst;
+
+    @Value("${game.rate-limit.block.per-second:10}")
+    private double rateBlockPerSecond;
+
+    @Value("${game.rate-limit.block.burst:20}")
+    private int rateBlockBurst;
+
+    @Value("${game.rate-limit.analysis.per-second:0.5}")
+    private double rateAnalysisPerSecond;
+
+    @Value("${game.rate-limit.analysis.burst:3}")
+    private int rateAnalysisBurst;
+
+    @Value("${game.journal.enabled:false}")
+    private boolean journalEnabled;
+
+    @Value("${game.journal.directory:data/journal}")
+    private String journalDirectory;
+
+    @Value("${game.journal.segment-megabytes:64}")
+    private int journalSegmentMegabytes;
+
+    @Value("${game.journal.checkpoint-interval-seconds:60}")
+    private int journalCheckpointIntervalSeconds;
+
+    @Value("${game.journal.lazy-recovery:false}")
+    private boolean journalLazyRecovery;
+
     private final ExampleGameService exampleGameService;
     private final HexGameService hexGameService;
+    private final RateLimiter rateLimiter = new RateLimiter(new RateLimiter.Limit(20, 40));
 
     /** Lista en memoria de todas las puntuaciones guardadas */
     private final List<ScoreEntry> savedScores = new ArrayList<>();
@@ -43,69 +132,283 @@ public class GameController {
         boolean playerWon
     ) {}
 
+    /** Un bloqueo dentro de una petición por lotes */
+    public record BlockRequest(int q, int r) {}
+
+    /** Máximo de bloqueos aceptados en una sola petición por lotes */
+    private static final int MAX_BATCH_MOVES = 500;
+
+    /** Máximo de partidas devueltas por la consulta de varios estados */
+    private static final int MAX_BULK_STATES = 1000;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
     public GameController() {
         this.exampleGameService = new ExampleGameService();
         this.hexGameService     = new HexGameService();
     }
 
+    /** Aplica al servicio la configuración leída de application.properties */
+    @PostConstruct
+    void configureService() {
+        hexGameService.configureDegradation(new DegradationPolicy.Settings(
+            degradationEnabled,
+            degradationQueueHigh,
+            degradationQueueLow,
+            degradationP99HighMillis,
+            degradationP99LowMillis,
+            degradationMinDwellMillis
+        ));
+        hexGameService.configureAdmission(new AdmissionControl.Settings(
+            AdmissionControl.Settings.defaults().minBoardSize(),
+            admissionMaxBoardSize,
+            admissionMaxLiveGames,
+            admissionMaxLiveCells,
+            admissionIdleTimeoutSeconds
+        ));
+        hexGameService.configureJournal(new GameJournal.Settings(
+            journalEnabled,
+            journalDirectory,
+            journalSegmentMegabytes << 20,
+            journalCheckpointIntervalSeconds,
+            journalLazyRecovery
+        ));
+        rateLimiter.setDefaultLimit(new RateLimiter.Limit(rateDefaultPerSecond, rateDefaultBurst));
+        rateLimiter.setLimit("start", new RateLimiter.Limit(rateStartPerSecond, rateStartBurst));
+        rateLimiter.setLimit("block", new RateLimiter.Limit(rateBlockPerSecond, rateBlockBurst));
+        rateLimiter.setLimit("analysis", new RateLimiter.Limit(rateAnalysisPerSecond, rateAnalysisBurst));
+        rateLimiter.setLimit("puzzles", new RateLimiter.Limit(rateAnalysisPerSecond, rateAnalysisBurst));
+        // Guardar puntuación escribe: mismo ritmo que crear partidas
+        rateLimiter.setLimit("save-score", new RateLimiter.Limit(rateStartPerSecond, rateStartBurst));
+    }
+
     /** +++++++++++++++ Iniciar juego +++++++++++++++ */
     @GetMapping("/start")
     public ResponseEntity<Map<String,Object>> startGame(
             @RequestParam(defaultValue="5") int boardSize,
-            @RequestParam(defaultValue="5") int difficulty
+            @RequestParam(defaultValue="5") int difficulty,
+            @RequestParam(required=false) Long seed,
+            @RequestParam(required=false) Long moveTimeoutMillis,
+            @RequestParam(defaultValue="cat") String timeoutAction,
+            @RequestParam(defaultValue="false") boolean randomBlocks,
+            HttpServletRequest request
     ) {
-        HexGameState gs = hexGameService.createGame(boardSize, difficulty, Map.of());
+        var throttled = throttle("start", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
+        HexGameState gs;
+        try {
+            Map<String, Object> options = new HashMap<>();
+            options.put("randomBlocks", randomBlocks);
+            if (seed != null) {
+                options.put("seed", seed);
+            }
+            if (moveTimeoutMillis != null) {
+                options.put("moveTimeoutMillis", moveTimeoutMillis);
+                options.put("timeoutAction", timeoutAction);
+            }
+            gs = hexGameService.createGame(boardSize, difficulty, options);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return serverBusy(e.getMessage());
+        }
         Map<String,Object> out = new HashMap<>();
         out.put("gameId",      gs.getGameId());
         out.put("catPosition", Map.of("q", gs.getCatPosition().getQ(),
                                       "r", gs.getCatPosition().getR()));
         out.put("blockedCells", gs.getGameBoard().getBlockedPositions());
         out.put("movesCount",   gs.getMoveCount());
+        out.put("seed",         gs.getSeed());
+        out.put("moveTimeoutMillis", gs.getMoveTimeoutMillis());
         return ResponseEntity.ok(out);
     }
 
     /** +++++++++++++++ Bloquear celda +++++++++++++++ */
     @PostMapping("/block")
-    public ResponseEntity<Map<String, Object>> blockPosition(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> blockPosition(
             @RequestParam String gameId,
             @RequestParam int q,
-            @RequestParam int r) {
+            @RequestParam int r,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletRequest request) {
+        var throttled = throttle("block", request);
+        if (throttled.isPresent()) {
+            return CompletableFuture.completedFuture(throttled.get());
+        }
         try {
             HexPosition pos = new HexPosition(q, r);
             if (useExampleImplementation) {
-                return blockPositionWithExample(gameId, pos);
+                return CompletableFuture.completedFuture(blockPositionWithExample(gameId, pos));
             } else {
-                return blockPositionWithStudentImplementation(gameId, pos);
+                return blockPositionWithStudentImplementation(gameId, pos, idempotencyKey)
+                        .exceptionally(e -> errorResponse("Error al ejecutar movimiento", e));
             }
         } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Error al ejecutar movimiento: " + e.getMessage()));
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Error al ejecutar movimiento: " + e.getMessage())));
+        }
+    }
+
+    /** +++++++++++++++ Bloquear varias celdas +++++++++++++++ */
+    @PostMapping("/{gameId}/moves")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> applyMoves(
+            @PathVariable String gameId,
+            @RequestBody List<BlockRequest> moves,
+            HttpServletRequest request) {
+        var throttled = throttle("moves", request);
+        if (throttled.isPresent()) {
+            return CompletableFuture.completedFuture(throttled.get());
+        }
+        if (moves == null || moves.isEmpty() || moves.size() > MAX_BATCH_MOVES) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Se esperan entre 1 y " + MAX_BATCH_MOVES + " movimientos")));
+        }
+        List<HexPosition> positions = moves.stream()
+                .map(m -> new HexPosition(m.q(), m.r()))
+                .toList();
+        return hexGameService.executePlayerMovesAsync(gameId, positions).thenApply(resultOpt -> {
+            if (resultOpt.isEmpty()) {
+                return ResponseEntity.notFound().<Map<String, Object>>build();
+            }
+            var result = resultOpt.get();
+            HexGameState gs = result.state();
+            Map<String, Object> response = new HashMap<>();
+            response.put("gameId",      gs.getGameId());
+            response.put("status",      gs.getStatus().toString());
+            response.put("catPosition", Map.of("q", gs.getCatPosition().getQ(), "r", gs.getCatPosition().getR()));
+            response.put("movesCount",  gs.getMoveCount());
+            response.put("version",     gs.getVersion());
+            response.put("stepFields",  MoveBatchResult.FIELDS);
+            response.put("steps",       result.steps());
+            return ResponseEntity.ok(response);
+        }).exceptionally(e -> errorResponse("Error al ejecutar movimientos", e));
+    }
+
+    /** +++++++++++++++ Deshacer / rehacer +++++++++++++++ */
+    @PostMapping("/{gameId}/undo")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> undoMove(@PathVariable String gameId,
+                                                                       HttpServletRequest request) {
+        var throttled = throttle("block", request);
+        if (throttled.isPresent()) {
+            return CompletableFuture.completedFuture(throttled.get());
         }
+        return hexGameService.undoLastMoveAsync(gameId)
+                .thenApply(this::turnResponse)
+                .exceptionally(e -> errorResponse("Error al deshacer movimiento", e));
+    }
+
+    @PostMapping("/{gameId}/redo")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> redoMove(@PathVariable String gameId,
+                                                                       HttpServletRequest request) {
+        var throttled = throttle("block", request);
+        if (throttled.isPresent()) {
+            return CompletableFuture.completedFuture(throttled.get());
+        }
+        return hexGameService.redoMoveAsync(gameId)
+                .thenApply(this::turnResponse)
+                .exceptionally(e -> errorResponse("Error al rehacer movimiento", e));
+    }
+
+    /** +++++++++++++++ Repetición de partida +++++++++++++++ */
+    @GetMapping("/{gameId}/replay")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> replayGame(@PathVariable String gameId,
+                                                                         HttpServletRequest request) {
+        var throttled = throttle("analysis", request);
+        if (throttled.isPresent()) {
+            return CompletableFuture.completedFuture(throttled.get());
+        }
+        return hexGameService.replayGameAsync(gameId).thenApply(replayOpt -> {
+            if (replayOpt.isEmpty()) {
+                return ResponseEntity.notFound().<Map<String, Object>>build();
+            }
+            GameReplay replay = replayOpt.get();
+            Map<String, Object> response = new HashMap<>();
+            response.put("gameId",          replay.gameId());
+            response.put("boardSize",       replay.boardSize());
+            response.put("difficulty",      replay.difficulty());
+            response.put("seed",            replay.seed());
+            response.put("exact",           replay.isExact());
+            response.put("firstDivergence", replay.firstDivergence());
+            response.put("levels",          Arrays.stream(DegradationPolicy.Level.values()).map(Enum::name).toList());
+            response.put("stepFields",      GameReplay.FIELDS);
+            response.put("steps",           replay.steps());
+            return ResponseEntity.ok(response);
+        }).exceptionally(e -> errorResponse("Error al repetir la partida", e));
     }
 
     /** +++++++++++++++ Estado actual +++++++++++++++ */
     @GetMapping("/state/{gameId}")
-    public ResponseEntity<Map<String, Object>> getGameState(@PathVariable String gameId) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getGameState(@PathVariable String gameId,
+                                                                           HttpServletRequest request) {
+        var throttled = throttle("state", request);
+        if (throttled.isPresent()) {
+            return CompletableFuture.completedFuture(throttled.get());
+        }
         try {
             if (useExampleImplementation) {
-                return getGameStateWithExample(gameId);
+                return CompletableFuture.completedFuture(getGameStateWithExample(gameId));
             } else {
-                return getGameStateWithStudentImplementation(gameId);
+                return getGameStateWithStudentImplementation(gameId)
+                        .exceptionally(e -> errorResponse("Error al obtener estado del juego", e));
             }
         } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Error al obtener estado del juego: " + e.getMessage()));
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Error al obtener estado del juego: " + e.getMessage())));
         }
     }
 
+    /** +++++++++++++++ Estado de varias partidas +++++++++++++++ */
+    @GetMapping("/states")
+    public ResponseEntity<?> getGameStates(
+            @RequestParam(required=false) List<String> ids,
+            @RequestParam(required=false) String status,
+            @RequestParam(defaultValue="500") int limit,
+            HttpServletRequest request) {
+        var throttled = throttle("states", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
+        if ((ids != null && ids.size() > MAX_BULK_STATES) || limit < 1 || limit > MAX_BULK_STATES) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Se admiten como mucho " + MAX_BULK_STATES + " partidas por petición"));
+        }
+        GameState.GameStatus statusFilter;
+        try {
+            statusFilter = status == null ? null : GameState.GameStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Estado desconocido: " + status));
+        }
+        // Se escribe cada partida según se lee del repositorio, sin montar la respuesta completa
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = jsonMapper.getFactory().createGenerator(out);
+                 var states = hexGameService.streamCompactGameStates(ids, statusFilter, limit)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("games");
+                for (var it = states.iterator(); it.hasNext(); ) {
+                    json.writeObject(it.next());
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     /** +++++++++++++++ Estadísticas de partida +++++++++++++++ */
     @GetMapping("/statistics/{gameId}")
-    public ResponseEntity<Map<String, Object>> getGameStatistics(@PathVariable String gameId) {
+    public ResponseEntity<Map<String, Object>> getGameStatistics(@PathVariable String gameId,
+                                                                 HttpServletRequest request) {
+        var throttled = throttle("statistics", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
         try {
             if (useExampleImplementation) {
                 return ResponseEntity.ok(exampleGameService.getGameStatistics(gameId));
             } else {
-                return ResponseEntity.ok(Map.of("error", "Student implementation not available yet"));
+                return ResponseEntity.ok(hexGameService.getGameStatistics(gameId));
             }
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -115,26 +418,152 @@ public class GameController {
 
     /** +++++++++++++++ Sugerencia de movimiento +++++++++++++++ */
     @GetMapping("/suggestion/{gameId}")
-    public ResponseEntity<Map<String, Object>> getSuggestion(@PathVariable String gameId) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getSuggestion(@PathVariable String gameId,
+                                                                            HttpServletRequest request) {
+        var throttled = throttle("suggestion", request);
+        if (throttled.isPresent()) {
+            return CompletableFuture.completedFuture(throttled.get());
+        }
         try {
             if (useExampleImplementation) {
                 Optional<HexPosition> suggestion = exampleGameService.getSuggestedMove(gameId);
                 if (suggestion.isPresent()) {
                     HexPosition p = suggestion.get();
-                    return ResponseEntity.ok(Map.of(
+                    return CompletableFuture.completedFuture(ResponseEntity.ok(Map.of(
                         "suggestion", Map.of("q", p.getQ(), "r", p.getR()),
                         "message", "Sugerencia: bloquear posición adyacente al gato"
-                    ));
+                    )));
                 } else {
-                    return ResponseEntity.ok(Map.of("message", "No hay sugerencias disponibles"));
+                    return CompletableFuture.completedFuture(
+                        ResponseEntity.ok(Map.of("message", "No hay sugerencias disponibles")));
                 }
             } else {
-                return ResponseEntity.ok(Map.of("error", "Student implementation not available yet"));
+                return getSuggestionWithStudentImplementation(gameId)
+                        .exceptionally(e -> errorResponse("Error al obtener sugerencia", e));
             }
         } catch (Exception e) {
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Error al obtener sugerencia: " + e.getMessage()));
+            return CompletableFuture.completedFuture(errorResponse("Error al obtener sugerencia", e));
+        }
+    }
+
+    /** +++++++++++++++ Análisis de partida +++++++++++++++ */
+    @GetMapping("/analysis/{gameId}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getAnalysis(@PathVariable String gameId,
+                                                                          HttpServletRequest request) {
+        var throttled = throttle("analysis", request);
+        if (throttled.isPresent()) {
+            return CompletableFuture.completedFuture(throttled.get());
+        }
+        if (useExampleImplementation) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.ok(Map.of("error", "Analysis not available for example implementation")));
+        }
+        return hexGameService.analyzeGameAsync(gameId)
+                .thenApply(analysis -> analysis.containsKey("error")
+                        ? ResponseEntity.notFound().<Map<String, Object>>build()
+                        : ResponseEntity.ok(analysis))
+                .exceptionally(e -> errorResponse("Error al analizar la partida", e));
+    }
+
+    /** +++++++++++++++ Métricas del servicio +++++++++++++++ */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics(HttpServletRequest request) {
+        var throttled = throttle("metrics", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
+        Map<String, Object> metrics = new HashMap<>(hexGameService.getServiceMetrics());
+        metrics.put("rateLimiter", rateLimiter.getStatistics());
+        return ResponseEntity.ok(metrics);
+    }
+
+    /**
+     * +++++++++++++++ Disponibilidad (503 si el diario no escribe) +++++++++++++++
+     * Con partidas aún dormidas se responde 200: se despiertan al pedirlas,
+     * pero /states y la clasificación las omiten hasta entonces. Sin límite
+     * de tasa: lo consultan las sondas del balanceador.
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        if (useExampleImplementation) {
+            return ResponseEntity.ok(Map.of("ready", true));
+        }
+        if (hexGameService.isReady()) {
+            return ResponseEntity.ok(Map.of("ready", true, "dormantGames", hexGameService.dormantGames()));
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("ready", false, "error", "Diario de partidas no disponible"));
+    }
+
+    /** +++++++++++++++ Generar puzles +++++++++++++++ */
+    @PostMapping("/puzzles/generate")
+    public ResponseEntity<Map<String, Object>> generatePuzzles(
+            @RequestParam(defaultValue="7") int boardSize,
+            @RequestParam(defaultValue="2") int moves,
+            @RequestParam(defaultValue="100") int count,
+            HttpServletRequest request) {
+        var throttled = throttle("puzzles", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
+        if (boardSize < 3 || moves < 1 || moves > 4 || count < 1) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Parámetros de puzle no válidos"));
+        }
+        hexGameService.generatePuzzlesAsync(boardSize, moves, count);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+            "boardSize", boardSize,
+            "moves",     moves,
+            "requested", count,
+            "available", hexGameService.countPuzzles(boardSize, moves)
+        ));
+    }
+
+    /** +++++++++++++++ Listar puzles +++++++++++++++ */
+    @GetMapping("/puzzles")
+    public ResponseEntity<?> listPuzzles(
+            @RequestParam(defaultValue="7") int boardSize,
+            @RequestParam(defaultValue="2") int moves,
+            @RequestParam(defaultValue="20") int limit,
+            HttpServletRequest request) {
+        var throttled = throttle("puzzle-list", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
+        var list = hexGameService.getPuzzles(boardSize, moves, limit).stream()
+            .map(this::toMap)
+            .toList();
+        return ResponseEntity.ok(list);
+    }
+
+    /** +++++++++++++++ Jugar un puzle +++++++++++++++ */
+    @PostMapping("/puzzles/{puzzleId}/start")
+    public ResponseEntity<Map<String, Object>> startPuzzle(@PathVariable String puzzleId,
+                                                           HttpServletRequest request) {
+        var throttled = throttle("start", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
+        Optional<HexGameState> gameOpt;
+        try {
+            gameOpt = hexGameService.startPuzzleGame(puzzleId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return serverBusy(e.getMessage());
+        }
+        if (gameOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        HexGameState gs = gameOpt.get();
+        Map<String, Object> out = new HashMap<>();
+        out.put("gameId",       gs.getGameId());
+        out.put("puzzleId",     puzzleId);
+        out.put("catPosition",  Map.of("q", gs.getCatPosition().getQ(),
+                                       "r", gs.getCatPosition().getR()));
+        out.put("blockedCells", gs.getGameBoard().getBlockedPositions());
+        out.put("movesCount",   gs.getMoveCount());
+        return ResponseEntity.ok(out);
     }
 
     /** +++++++++++++++ Información de implementación +++++++++++++++ */
@@ -155,7 +584,12 @@ public class GameController {
     @PostMapping("/save-score")
     public ResponseEntity<Map<String,Object>> saveScore(
             @RequestParam String gameId,
-            @RequestParam String playerName) {
+            @RequestParam String playerName,
+            HttpServletRequest request) {
+        var throttled = throttle("save-score", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
 
         Optional<GameState<HexPosition>> opt = hexGameService.loadGameState(gameId);
         if (opt.isEmpty()) {
@@ -182,8 +616,13 @@ public class GameController {
 
     /** +++++++++++++++ Top N por menos movimientos +++++++++++++++ */
     @GetMapping("/high-scores")
-    public ResponseEntity<List<Map<String,Object>>> highScores(
-            @RequestParam(defaultValue="10") int limit) {
+    public ResponseEntity<?> highScores(
+            @RequestParam(defaultValue="10") int limit,
+            HttpServletRequest request) {
+        var throttled = throttle("scores", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
         var list = savedScores.stream()
             .sorted(Comparator.comparingInt(ScoreEntry::movesCount))
             .limit(limit)
@@ -194,8 +633,13 @@ public class GameController {
 
     /** +++++++++++++++ Top N de victorias (solo ganadas) +++++++++++++++ */
     @GetMapping("/winning-scores")
-    public ResponseEntity<List<Map<String,Object>>> winningScores(
-            @RequestParam(defaultValue="10") int limit) {
+    public ResponseEntity<?> winningScores(
+            @RequestParam(defaultValue="10") int limit,
+            HttpServletRequest request) {
+        var throttled = throttle("scores", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
         var list = savedScores.stream()
             .filter(ScoreEntry::playerWon)
             .sorted(Comparator.comparingInt(ScoreEntry::movesCount))
@@ -207,8 +651,13 @@ public class GameController {
 
     /** +++++++++++++++ N más recientes por fecha +++++++++++++++ */
     @GetMapping("/recent-scores")
-    public ResponseEntity<List<Map<String,Object>>> recentScores(
-            @RequestParam(defaultValue="10") int limit) {
+    public ResponseEntity<?> recentScores(
+            @RequestParam(defaultValue="10") int limit,
+            HttpServletRequest request) {
+        var throttled = throttle("scores", request);
+        if (throttled.isPresent()) {
+            return throttled.get();
+        }
         var list = savedScores.stream()
             .sorted(Comparator.comparing(ScoreEntry::timestamp).reversed())
             .limit(limit)
@@ -229,6 +678,17 @@ public class GameController {
         return m;
     }
 
+    /** Helper para convertir un puzle a JSON (sin la solución) */
+    private Map<String,Object> toMap(Puzzle p) {
+        Map<String,Object> m = new HashMap<>();
+        m.put("puzzleId",     p.puzzleId());
+        m.put("boardSize",    p.boardSize());
+        m.put("moves",        p.moves());
+        m.put("catPosition",  Map.of("q", p.catPosition().getQ(), "r", p.catPosition().getR()));
+        m.put("blockedCells", p.blockedCells());
+        return m;
+    }
+
     // … Métodos privados de ejemplo y estudiante que ya tenías …
     // blockPositionWithExample, blockPositionWithStudentImplementation, etc.
     // … después de todos tus endpoints de ranking …
@@ -267,32 +727,112 @@ public class GameController {
     }
 
     // Métodos privados para implementación de estudiantes
-    private ResponseEntity<Map<String, Object>> blockPositionWithStudentImplementation(String gameId, HexPosition position) {
-        var gameStateOpt = hexGameService.executePlayerMove(gameId, position);
+    private CompletableFuture<ResponseEntity<Map<String, Object>>> blockPositionWithStudentImplementation(
+            String gameId, HexPosition position, String idempotencyKey) {
+        return hexGameService.executePlayerMoveAsync(gameId, position, null, idempotencyKey).thenApply(gameStateOpt -> {
+            if (gameStateOpt.isEmpty()) {
+                return ResponseEntity.notFound().<Map<String, Object>>build();
+            }
+            HexGameSnapshot gs = gameStateOpt.get();
+            Map<String, Object> response = new HashMap<>();
+            response.put("gameId",       gs.gameId());
+            response.put("status",       gs.status().toString());
+            response.put("catPosition",  Map.of("q", gs.catPosition().getQ(), "r", gs.catPosition().getR()));
+            response.put("blockedCells", gs.blockedCells());
+            response.put("movesCount",   gs.moveCount());
+            response.put("implementation", "impl");
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    private ResponseEntity<Map<String, Object>> turnResponse(Optional<HexGameState> gameStateOpt) {
         if (gameStateOpt.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        HexGameState gs = (HexGameState) gameStateOpt.get();
+        HexGameState gs = gameStateOpt.get();
         Map<String, Object> response = new HashMap<>();
         response.put("gameId",       gs.getGameId());
         response.put("status",       gs.getStatus().toString());
         response.put("catPosition",  Map.of("q", gs.getCatPosition().getQ(), "r", gs.getCatPosition().getR()));
         response.put("blockedCells", gs.getGameBoard().getBlockedPositions());
         response.put("movesCount",   gs.getMoveCount());
-        response.put("implementation", "impl");
+        response.put("version",      gs.getVersion());
+        response.put("canUndo",      gs.getMoveLog().canUndo());
+        response.put("canRedo",      gs.getMoveLog().canRedo());
         return ResponseEntity.ok(response);
     }
 
-    private ResponseEntity<Map<String, Object>> getGameStateWithStudentImplementation(String gameId) {
-        var gameStateOpt = hexGameService.getEnrichedGameState(gameId);
-        if (gameStateOpt.isEmpty()) {
-            return ResponseEntity.notFound().build();
+    private CompletableFuture<ResponseEntity<Map<String, Object>>> getSuggestionWithStudentImplementation(String gameId) {
+        return hexGameService.getPlayerHintAsync(gameId).thenApply(hintOpt -> {
+            if (hintOpt.isEmpty()) {
+                return ResponseEntity.notFound().<Map<String, Object>>build();
+            }
+            PlayerHint hint = hintOpt.get();
+            Map<String, Object> response = new HashMap<>();
+            response.put("blocksNeeded", hint.blocksNeeded());
+            response.put("cut", hint.cut().stream()
+                .map(p -> Map.of("q", p.getQ(), "r", p.getR()))
+                .toList());
+            hint.suggestion().ifPresent(p -> response.put("suggestion", Map.of("q", p.getQ(), "r", p.getR())));
+            if (hint.isEscapeImminent()) {
+                response.put("message", "El gato escapará en su próximo movimiento");
+            } else if (hint.isCatEnclosed()) {
+                response.put("message", "El gato ya está encerrado: sigue cerrando su región");
+            } else {
+                response.put("message", "Sugerencia: faltan al menos " + hint.blocksNeeded() + " bloqueos para atrapar al gato");
+            }
+            response.put("implementation", "impl");
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    /**
+     * Aplica el límite de tasa del endpoint al cliente (por dirección remota).
+     * Si se supera, devuelve la respuesta 429 con Retry-After.
+     */
+    private Optional<ResponseEntity<Map<String, Object>>> throttle(String endpoint, HttpServletRequest request) {
+        long waitMillis = rateLimiter.tryAcquire(request.getRemoteAddr(), endpoint);
+        if (waitMillis == 0) {
+            return Optional.empty();
         }
-        Map<String, Object> response = gameStateOpt.get();
-        response.put("implementation", "impl");
-        return ResponseEntity.ok(response);
+        return Optional.of(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf((waitMillis + 999) / 1000))
+                .body(Map.of("error", "Demasiadas peticiones, reintenta más tarde")));
     }
-}
 
+    private ResponseEntity<Map<String, Object>> serverBusy(String message) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(Map.of("error", message));
+    }
 
+    /**
+     * Respuesta de error para trabajos asíncronos: 400 si la petición no es
+     * válida, 503 con Retry-After si el pool de IA rechazó la tarea por
+     * saturación, y 500 en cualquier otro caso.
+     */
+    private ResponseEntity<Map<String, Object>> errorResponse(String message, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().body(Map.of("error", cause.getMessage()));
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", "Servidor ocupado, reintenta en unos segundos"));
+        }
+        return ResponseEntity.internalServerError()
+                .body(Map.of("error", message + ": " + cause.getMessage()));
+    }
 
+    private CompletableFuture<ResponseEntity<Map<String, Object>>> getGameStateWithStudentImplementation(String gameId) {
+        return hexGameService.getEnrichedGameStateAsync(gameId).thenApply(gameStateOpt -> {
+            if (gameStateOpt.isEmpty()) {
+                return ResponseEntity.notFound().<Map<String, Object>>build();
+            }
+            Map<String, Object> response = gameStateOpt.get();
+            response.put("implementation", "impl");
+            return ResponseEntity.ok(response);
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGrid;
+
+/**
+ * Búsqueda minimax con poda alfa-beta para el movimiento del gato.
+ *
+ * Trabaja sobre un arreglo de bloqueos que modifica y restaura en cada
+ * nodo, sin copiar el tablero. Para que la profundidad sea manejable, los
+ * bloqueos del jugador se limitan a las celdas a cierta distancia del gato,
+ * que son las que deciden la partida en las primeras jugadas. Está pensada
+ * para uso fuera de línea (libro de aperturas), no para cada petición.
+ */
+public class DeepCatSearch {
+
+    static final int WIN = 100_000;
+
+    private final HexGrid grid;
+    private final int depthPlies;
+    private final int playerRadius;
+
+    public DeepCatSearch(HexGrid grid, int depthPlies, int playerRadius) {
+        this.grid = grid;
+        this.depthPlies = depthPlies;
+        this.playerRadius = playerRadius;
+    }
+
+    /**
+     * Mejor casilla para el gato (índice de HexGrid), o -1 si no puede moverse.
+     * El arreglo se restaura antes de volver.
+     */
+    public int bestCatMove(boolean[] blocked, int cat) {
+        int bestMove = -1;
+        int best = Integer.MIN_VALUE;
+        int alpha = -WIN - 1;
+        for (int n : grid.neighborsOf(cat)) {
+            if (blocked[n]) {
+                continue;
+            }
+            int score = grid.isBorder(n) ? WIN - 1 : playerNode(blocked, n, depthPlies - 1, alpha, WIN + 1, 1);
+            if (score > best) {
+                best = score;
+                bestMove = n;
+            }
+            alpha = Math.max(alpha, score);
+        }
+        return bestMove;
+    }
+
+    private int catNode(boolean[] blocked, int cat, int depth, int alpha, int beta, int ply) {
+        boolean hasMove = false;
+        for (int n : grid.neighborsOf(cat)) {
+            if (!blocked[n]) {
+                hasMove = true;
+                if (grid.isBorder(n)) {
+                    return WIN - ply - 1;
+                }
+            }
+        }
+        if (!hasMove) {
+            return -WIN + ply;
+        }
+        if (depth <= 0) {
+            return evaluate(blocked, cat);
+        }
+
+        int best = Integer.MIN_VALUE;
+        for (int n : grid.neighborsOf(cat)) {
+            if (blocked[n]) {
+                continue;
+            }
+            best = Math.max(best, playerNode(blocked, n, depth - 1, alpha, beta, ply + 1));
+            alpha = Math.max(alpha, best);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    private int playerNode(boolean[] blocked, int cat, int depth, int alpha, int beta, int ply) {
+        if (depth <= 0) {
+            return evaluate(blocked, cat);
+        }
+
+        int best = Integer.MAX_VALUE;
+        for (int b = 0; b < grid.cellCount(); b++) {
+            if (blocked[b] || b == cat || grid.isBorder(b) || grid.distance(cat, b) > playerRadius) {
+                continue;
+            }
+            blocked[b] = true;
+            int score = EscapeDistance.isTrapped(grid, blocked, cat)
+                    ? -WIN + ply + 1
+                    : catNode(blocked, cat, depth - 1, alpha, beta, ply + 1);
+            blocked[b] = false;
+
+            best = Math.min(best, score);
+            beta = Math.min(beta, best);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return best == Integer.MAX_VALUE ? evaluate(blocked, cat) : best;
+    }
+
+    /**
+     * Valoración estática desde el punto de vista del gato: cerca del borde
+     * y con muchas salidas es mejor; encerrado es casi una derrota.
+     */
+    private int evaluate(boolean[] blocked, int cat) {
+        int distance = EscapeDistance.fromCell(grid, blocked, cat);
+        if (distance == EscapeDistance.UNREACHABLE) {
+            return -WIN / 2;
+        }
+        int exits = 0;
+        for (int n : grid.neighborsOf(cat)) {
+            if (!blocked[n]) {
+                exits++;
+            }
+        }
+        return 1000 - 100 * distance + 10 * exits;
+    }
+}
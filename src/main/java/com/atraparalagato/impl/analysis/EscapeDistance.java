@@ -0,0 +1,91 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGrid;
+
+import java.util.Arrays;
+
+/**
+ * Distancias de escape sobre la topología indexada de HexGrid.
+ *
+ * Todas las funciones trabajan sobre un arreglo de bloqueos propiedad del
+ * llamador y no asignan estructuras por celda visitada.
+ */
+public final class EscapeDistance {
+
+    /** Valor usado cuando el gato no tiene camino al borde. */
+    public static final int UNREACHABLE = -1;
+
+    private EscapeDistance() {
+    }
+
+    /**
+     * Movimientos mínimos del gato desde {@code from} hasta cualquier celda
+     * de borde libre, o {@link #UNREACHABLE}.
+     */
+    public static int fromCell(HexGrid grid, boolean[] blocked, int from) {
+        if (grid.isBorder(from)) {
+            return 0;
+        }
+        int[] distance = new int[grid.cellCount()];
+        Arrays.fill(distance, UNREACHABLE);
+        int[] queue = new int[grid.cellCount()];
+        int read = 0;
+        int write = 0;
+        queue[write++] = from;
+        distance[from] = 0;
+        while (read < write) {
+            int cell = queue[read++];
+            for (int n : grid.neighborsOf(cell)) {
+                if (blocked[n] || distance[n] != UNREACHABLE) {
+                    continue;
+                }
+                distance[n] = distance[cell] + 1;
+                if (grid.isBorder(n)) {
+                    return distance[n];
+                }
+                queue[write++] = n;
+            }
+        }
+        return UNREACHABLE;
+    }
+
+    /**
+     * Campo de distancias hacia el borde para todas las celdas libres,
+     * calculado con un único BFS multi-origen desde el borde.
+     */
+    public static int[] field(HexGrid grid, boolean[] blocked) {
+        int[] distance = new int[grid.cellCount()];
+        Arrays.fill(distance, UNREACHABLE);
+        int[] queue = new int[grid.cellCount()];
+        int read = 0;
+        int write = 0;
+        for (int i = 0; i < grid.cellCount(); i++) {
+            if (grid.isBorder(i) && !blocked[i]) {
+                distance[i] = 0;
+                queue[write++] = i;
+            }
+        }
+        while (read < write) {
+            int cell = queue[read++];
+            for (int n : grid.neighborsOf(cell)) {
+                if (!blocked[n] && distance[n] == UNREACHABLE) {
+                    distance[n] = distance[cell] + 1;
+                    queue[write++] = n;
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Indica si el gato no tiene ninguna celda libre a la que moverse.
+     */
+    public static boolean isTrapped(HexGrid grid, boolean[] blocked, int cat) {
+        for (int n : grid.neighborsOf(cat)) {
+            if (!blocked[n]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,145 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGrid;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tabla de finales resuelta por análisis retrógrado, leída desde un fichero
+ * mapeado en memoria.
+ *
+ * Cada entrada es un byte para (turno, clase del gato, máscara de bloqueos):
+ * el bit alto indica que gana el gato y los 7 bits bajos la distancia en
+ * medios movimientos hasta el final con juego perfecto. La consulta es un
+ * acceso directo al fichero, sin búsqueda.
+ *
+ * Solo es viable para tableros pequeños: el número de máscaras crece como
+ * 2^(celdas interiores), así que se limita a {@link #MAX_INTERIOR_CELLS}
+ * celdas (tableros de tamaño 3 o menor).
+ */
+public final class HexTablebase {
+
+    public static final int MAX_INTERIOR_CELLS = 19;
+    public static final byte INVALID = 0x7F;
+
+    static final int MAGIC = 0x48585442; // "HXTB"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+    private final TablebaseLayout layout;
+    private final ByteBuffer data;
+
+    private HexTablebase(TablebaseLayout layout, ByteBuffer data) {
+        this.layout = layout;
+        this.data = data;
+    }
+
+    /**
+     * Indica si el tamaño de tablero cabe en una tabla de finales.
+     */
+    public static boolean isSupported(int boardSize) {
+        int interior = 3 * (boardSize - 1) * boardSize + 1;
+        return boardSize >= 2 && interior <= MAX_INTERIOR_CELLS;
+    }
+
+    public static Path fileFor(Path directory, int boardSize) {
+        return directory.resolve("hex-" + boardSize + ".tb");
+    }
+
+    /**
+     * Carga todas las tablas disponibles en el directorio, por tamaño.
+     */
+    public static Map<Integer, HexTablebase> loadAll(Path directory) {
+        Map<Integer, HexTablebase> result = new HashMap<>();
+        for (int size = 2; isSupported(size); size++) {
+            Path file = fileFor(directory, size);
+            if (Files.isRegularFile(file)) {
+                try {
+                    result.put(size, load(file));
+                } catch (UncheckedIOException | IllegalStateException e) {
+                    System.err.println("Tabla de finales ignorada (" + file + "): " + e.getMessage());
+                }
+            }
+        }
+        return result;
+    }
+
+    public static HexTablebase load(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IllegalStateException("Not a tablebase file");
+            }
+            int boardSize = header.getInt();
+            TablebaseLayout layout = new TablebaseLayout(boardSize);
+            if (header.getInt() != layout.cells() || header.getInt() != layout.classCount()) {
+                throw new IllegalStateException("Tablebase layout mismatch for size " + boardSize);
+            }
+            if (channel.size() != HEADER_BYTES + layout.tableLength()) {
+                throw new IllegalStateException("Truncated tablebase file");
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, layout.tableLength());
+            return new HexTablebase(layout, data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int getBoardSize() {
+        return layout.boardSize();
+    }
+
+    public HexGrid getGrid() {
+        return layout.grid();
+    }
+
+    /**
+     * Valor de la posición con el jugador por mover y el gato en la celda
+     * indicada (índice de HexGrid, no de borde).
+     */
+    public byte playerToMove(boolean[] blocked, int catCell) {
+        return lookup(TablebaseLayout.PLAYER_TO_MOVE, blocked, catCell);
+    }
+
+    public byte catToMove(boolean[] blocked, int catCell) {
+        return lookup(TablebaseLayout.CAT_TO_MOVE, blocked, catCell);
+    }
+
+    public static boolean catWins(byte value) {
+        return (value & 0x80) != 0;
+    }
+
+    public static int distance(byte value) {
+        return value & 0x7F;
+    }
+
+    /**
+     * Puntuación desde el punto de vista del gato: ganar antes es mejor y
+     * perder más tarde es mejor.
+     */
+    public static int catScore(byte value) {
+        return catWins(value) ? 1000 - distance(value) : -1000 + distance(value);
+    }
+
+    static byte encode(boolean catWins, int distance) {
+        return (byte) ((catWins ? 0x80 : 0) | Math.min(distance, 126));
+    }
+
+    private byte lookup(int side, boolean[] blocked, int catCell) {
+        int cat = layout.interiorIndex(catCell);
+        if (cat < 0) {
+            return INVALID;
+        }
+        long offset = layout.canonicalOffset(side, cat, layout.maskOf(blocked));
+        return data.get((int) offset);
+    }
+}
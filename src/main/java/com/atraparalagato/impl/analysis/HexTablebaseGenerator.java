@@ -0,0 +1,170 @@
+package com.atraparalagato.impl.analysis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Generador fuera de línea de tablas de finales.
+ *
+ * Resuelve todas las posiciones por análisis retrógrado: cada bloqueo añade
+ * una celda a la máscara, así que las posiciones se procesan por capas de
+ * número de bloqueos decreciente. Dentro de una capa se calculan primero
+ * todos los turnos del jugador (dependen solo de la capa siguiente) y
+ * después los del gato (dependen de turnos del jugador de la misma capa).
+ * Las máscaras de una capa son independientes y se reparten entre núcleos.
+ *
+ * Uso: {@code java -cp target/classes com.atraparalagato.impl.analysis.HexTablebaseGenerator [dir] [tamaños...]}
+ */
+public final class HexTablebaseGenerator {
+
+    private HexTablebaseGenerator() {
+    }
+
+    public static void main(String[] args) {
+        Path directory = Path.of(args.length > 0 ? args[0] : "data/tablebase");
+        int[] sizes = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[] {2, 3};
+        for (int size : sizes) {
+            long start = System.nanoTime();
+            Path file = generate(directory, size);
+            System.out.printf("Tabla de tamaño %d escrita en %s (%d ms)%n",
+                    size, file, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    public static Path generate(Path directory, int boardSize) {
+        TablebaseLayout layout = new TablebaseLayout(boardSize);
+        byte[] table = solve(layout);
+        Path file = HexTablebase.fileFor(directory, boardSize);
+        write(file, layout, table);
+        return file;
+    }
+
+    static byte[] solve(TablebaseLayout layout) {
+        int cells = layout.cells();
+        byte[] table = new byte[(int) layout.tableLength()];
+        Arrays.fill(table, HexTablebase.INVALID);
+
+        int[][] layers = masksByPopCount(cells);
+        for (int blocks = cells; blocks >= 0; blocks--) {
+            int[] layer = layers[blocks];
+            IntStream.range(0, layer.length).parallel().forEach(i -> solvePlayerTurn(layout, table, layer[i]));
+            IntStream.range(0, layer.length).parallel().forEach(i -> solveCatTurn(layout, table, layer[i]));
+        }
+        return table;
+    }
+
+    private static void solvePlayerTurn(TablebaseLayout layout, byte[] table, int mask) {
+        for (int k = 0; k < layout.classCount(); k++) {
+            int cat = layout.representative(k);
+            if ((mask & (1 << cat)) != 0) {
+                continue;
+            }
+            int best = Integer.MAX_VALUE;
+            byte bestValue = HexTablebase.INVALID;
+            for (int b = 0; b < layout.cells(); b++) {
+                int bit = 1 << b;
+                if ((mask & bit) != 0 || b == cat) {
+                    continue;
+                }
+                byte value;
+                if (layout.isTrapped(cat, mask | bit)) {
+                    value = HexTablebase.encode(false, 1);
+                } else {
+                    byte reply = table[(int) layout.offset(TablebaseLayout.CAT_TO_MOVE, k, mask | bit)];
+                    value = HexTablebase.encode(HexTablebase.catWins(reply), HexTablebase.distance(reply) + 1);
+                }
+                int score = HexTablebase.catScore(value);
+                if (score < best) {
+                    best = score;
+                    bestValue = value;
+                }
+            }
+            if (bestValue == HexTablebase.INVALID) {
+                // Sin bloqueos posibles: el gato ya no puede ser detenido
+                bestValue = HexTablebase.encode(true, 1);
+            }
+            table[(int) layout.offset(TablebaseLayout.PLAYER_TO_MOVE, k, mask)] = bestValue;
+        }
+    }
+
+    private static void solveCatTurn(TablebaseLayout layout, byte[] table, int mask) {
+        for (int k = 0; k < layout.classCount(); k++) {
+            int cat = layout.representative(k);
+            if ((mask & (1 << cat)) != 0) {
+                continue;
+            }
+            byte bestValue;
+            if (layout.isBorderAdjacent(cat)) {
+                bestValue = HexTablebase.encode(true, 1);
+            } else {
+                int best = Integer.MIN_VALUE;
+                // Sin salidas el jugador ya ganó con su último bloqueo
+                bestValue = HexTablebase.encode(false, 0);
+                for (int n : layout.interiorNeighbors(cat)) {
+                    if ((mask & (1 << n)) != 0) {
+                        continue;
+                    }
+                    byte reply = table[(int) layout.canonicalOffset(TablebaseLayout.PLAYER_TO_MOVE, n, mask)];
+                    byte value = HexTablebase.encode(HexTablebase.catWins(reply), HexTablebase.distance(reply) + 1);
+                    int score = HexTablebase.catScore(value);
+                    if (score > best) {
+                        best = score;
+                        bestValue = value;
+                    }
+                }
+            }
+            table[(int) layout.offset(TablebaseLayout.CAT_TO_MOVE, k, mask)] = bestValue;
+        }
+    }
+
+    private static int[][] masksByPopCount(int cells) {
+        int total = 1 << cells;
+        int[] counts = new int[cells + 1];
+        for (int mask = 0; mask < total; mask++) {
+            counts[Integer.bitCount(mask)]++;
+        }
+        int[][] layers = new int[cells + 1][];
+        for (int pc = 0; pc <= cells; pc++) {
+            layers[pc] = new int[counts[pc]];
+        }
+        int[] fill = new int[cells + 1];
+        for (int mask = 0; mask < total; mask++) {
+            int pc = Integer.bitCount(mask);
+            layers[pc][fill[pc]++] = mask;
+        }
+        return layers;
+    }
+
+    private static void write(Path file, TablebaseLayout layout, byte[] table) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HexTablebase.HEADER_BYTES);
+                header.putInt(HexTablebase.MAGIC)
+                      .putInt(HexTablebase.FORMAT_VERSION)
+                      .putInt(layout.boardSize())
+                      .putInt(layout.cells())
+                      .putInt(layout.classCount())
+                      .flip();
+                channel.write(header);
+                ByteBuffer body = ByteBuffer.wrap(table);
+                while (body.hasRemaining()) {
+                    channel.write(body);
+                }
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGrid;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Motor de pistas basado en corte mínimo de vértices.
+ *
+ * Modela el tablero como una red de flujo con nodos divididos: cada celda
+ * bloqueable libre se convierte en un par entrada→salida de capacidad 1 y
+ * las adyacencias, el gato y las celdas de borde (que nunca pueden
+ * bloquearse) tienen capacidad infinita. El flujo máximo desde el gato
+ * hasta un sumidero unido a todo el borde es el número mínimo de bloqueos
+ * que aíslan al gato, y el corte saturado más próximo a la fuente da las
+ * celdas que conviene bloquear.
+ *
+ * Como las únicas aristas finitas valen 1 y el gato tiene a lo sumo seis
+ * salidas, el flujo se construye con a lo sumo seis caminos aumentantes
+ * (Edmonds-Karp), cada uno en O(celdas).
+ */
+public class MinCutHintEngine {
+
+    private static final int INF = Integer.MAX_VALUE / 4;
+
+    /**
+     * Calcula la pista para el gato en la posición indicada.
+     */
+    public PlayerHint computeHint(HexGameBoard board, HexPosition catPosition) {
+        HexGrid grid = board.getGrid();
+        return computeHint(grid, board.toBlockedMask(), grid.indexOf(catPosition));
+    }
+
+    /**
+     * Variante sobre arreglos, para llamadores que ya tienen una copia del tablero.
+     */
+    public PlayerHint computeHint(HexGrid grid, boolean[] blocked, int cat) {
+        if (cat < 0 || grid.isBorder(cat)) {
+            return new PlayerHint(Optional.empty(), -1, List.of());
+        }
+
+        List<Integer> freeNeighbors = new ArrayList<>();
+        for (int n : grid.neighborsOf(cat)) {
+            if (blocked[n]) {
+                continue;
+            }
+            if (grid.isBorder(n)) {
+                // Un borde libre adyacente no puede bloquearse: el gato escapa
+                return new PlayerHint(Optional.empty(), -1, List.of());
+            }
+            freeNeighbors.add(n);
+        }
+        if (freeNeighbors.isEmpty()) {
+            return new PlayerHint(Optional.empty(), 0, List.of());
+        }
+
+        FlowNetwork network = new FlowNetwork(grid, blocked, cat);
+        int flow = network.maxFlow();
+        if (flow == 0) {
+            // Ya encerrado: basta con ir cerrando la región del gato
+            HexPosition next = grid.positionAt(freeNeighbors.get(0));
+            return new PlayerHint(Optional.of(next), 0, List.of());
+        }
+
+        // Más cerca del gato primero; a igual distancia, la más próxima al borde
+        List<HexPosition> cut = network.minCutCells().stream()
+                .sorted(Comparator.<Integer>comparingInt(i -> grid.distance(cat, i))
+                        .thenComparing(Comparator.<Integer>comparingInt(grid::ringOf).reversed()))
+                .map(grid::positionAt)
+                .toList();
+        return new PlayerHint(cut.stream().findFirst(), flow, cut);
+    }
+
+    /**
+     * Número de rutas de escape disjuntas en vértices (0 si está encerrado,
+     * -1 si el gato tiene un borde libre adyacente).
+     */
+    public int countDisjointEscapeRoutes(HexGrid grid, boolean[] blocked, int cat) {
+        return computeHint(grid, blocked, cat).blocksNeeded();
+    }
+
+    /**
+     * Red residual con listas de adyacencia en arreglos paralelos.
+     * Nodo 2i = entrada de la celda i, 2i+1 = salida, 2n = sumidero.
+     */
+    private static final class FlowNetwork {
+
+        private final HexGrid grid;
+        private final boolean[] blocked;
+        private final int source;
+        private final int sink;
+
+        private final int[] head;
+        private int[] next;
+        private int[] to;
+        private int[] capacity;
+        private int edgeCount;
+
+        FlowNetwork(HexGrid grid, boolean[] blocked, int cat) {
+            this.grid = grid;
+            this.blocked = blocked;
+            int cells = grid.cellCount();
+            this.source = 2 * cat + 1;
+            this.sink = 2 * cells;
+            this.head = new int[2 * cells + 1];
+            Arrays.fill(head, -1);
+
+            int estimatedEdges = cells * 16;
+            this.next = new int[estimatedEdges];
+            this.to = new int[estimatedEdges];
+            this.capacity = new int[estimatedEdges];
+
+            for (int i = 0; i < cells; i++) {
+                if (blocked[i] || i == cat) {
+                    continue;
+                }
+                addEdge(2 * i, 2 * i + 1, grid.isBorder(i) ? INF : 1);
+                if (grid.isBorder(i)) {
+                    addEdge(2 * i + 1, sink, INF);
+                }
+            }
+            for (int i = 0; i < cells; i++) {
+                if (blocked[i] || grid.isBorder(i)) {
+                    continue;
+                }
+                for (int n : grid.neighborsOf(i)) {
+                    if (!blocked[n] && n != cat) {
+                        addEdge(2 * i + 1, 2 * n, INF);
+                    }
+                }
+            }
+        }
+
+        int maxFlow() {
+            int flow = 0;
+            int[] parentEdge = new int[head.length];
+            while (augment(parentEdge)) {
+                flow++;
+            }
+            return flow;
+        }
+
+        /**
+         * Celdas cuya entrada es alcanzable en la red residual y su salida no:
+         * el corte mínimo más cercano al gato.
+         */
+        List<Integer> minCutCells() {
+            boolean[] reachable = residualReachable();
+            List<Integer> cut = new ArrayList<>();
+            for (int i = 0; i < grid.cellCount(); i++) {
+                if (!blocked[i] && reachable[2 * i] && !reachable[2 * i + 1]) {
+                    cut.add(i);
+                }
+            }
+            return cut;
+        }
+
+        private boolean augment(int[] parentEdge) {
+            Arrays.fill(parentEdge, -1);
+            int[] queue = new int[head.length];
+            int read = 0;
+            int write = 0;
+            queue[write++] = source;
+            parentEdge[source] = -2;
+
+            while (read < write && parentEdge[sink] == -1) {
+                int node = queue[read++];
+                for (int e = head[node]; e != -1; e = next[e]) {
+                    int target = to[e];
+                    if (capacity[e] > 0 && parentEdge[target] == -1) {
+                        parentEdge[target] = e;
+                        queue[write++] = target;
+                    }
+                }
+            }
+            if (parentEdge[sink] == -1) {
+                return false;
+            }
+            // Todos los caminos cruzan al menos una celda de capacidad 1
+            for (int node = sink; node != source; node = to[parentEdge[node] ^ 1]) {
+                int e = parentEdge[node];
+                capacity[e] -= 1;
+                capacity[e ^ 1] += 1;
+            }
+            return true;
+        }
+
+        private boolean[] residualReachable() {
+            boolean[] seen = new boolean[head.length];
+            int[] queue = new int[head.length];
+            int read = 0;
+            int write = 0;
+            queue[write++] = source;
+            seen[source] = true;
+            while (read < write) {
+                int node = queue[read++];
+                for (int e = head[node]; e != -1; e = next[e]) {
+                    if (capacity[e] > 0 && !seen[to[e]]) {
+                        seen[to[e]] = true;
+                        queue[write++] = to[e];
+                    }
+                }
+            }
+            return seen;
+        }
+
+        private void addEdge(int from, int target, int cap) {
+            ensureCapacity(edgeCount + 2);
+            to[edgeCount] = target;
+            capacity[edgeCount] = cap;
+            next[edgeCount] = head[from];
+            head[from] = edgeCount++;
+
+            to[edgeCount] = from;
+            capacity[edgeCount] = 0;
+            next[edgeCount] = head[target];
+            head[target] = edgeCount++;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= to.length) {
+                return;
+            }
+            int newLength = Math.max(required, to.length * 2);
+            next = Arrays.copyOf(next, newLength);
+            to = Arrays.copyOf(to, newLength);
+            capacity = Arrays.copyOf(capacity, newLength);
+        }
+    }
+}
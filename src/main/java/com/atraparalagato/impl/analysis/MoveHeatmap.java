@@ -0,0 +1,21 @@
+package com.atraparalagato.impl.analysis;
+
+import java.util.List;
+
+/**
+ * Mapa de calidad de cada bloqueo legal, en un arreglo plano compacto.
+ *
+ * Cada celda ocupa {@link #STRIDE} enteros consecutivos en el orden de
+ * {@link #FIELDS}: coordenadas, distancia de escape del gato tras el
+ * bloqueo (-1 si queda encerrado), rutas de escape disjuntas y 1 si el
+ * bloqueo gana la partida.
+ */
+public record MoveHeatmap(int boardSize, int[] cells) {
+
+    public static final List<String> FIELDS = List.of("q", "r", "escapeDistance", "escapeRoutes", "winning");
+    public static final int STRIDE = 5;
+
+    public int cellCount() {
+        return cells.length / STRIDE;
+    }
+}
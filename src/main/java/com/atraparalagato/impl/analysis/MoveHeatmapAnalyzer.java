@@ -0,0 +1,110 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGrid;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evalúa en paralelo todos los bloqueos legales de una partida.
+ *
+ * El trabajo se reparte en un ForkJoinPool propio: cada hoja trabaja sobre
+ * su propia copia del tablero (un arreglo de bloqueos), prueba cada celda
+ * bloqueándola y desbloqueándola, y escribe su tramo del resultado sin
+ * compartir estado mutable con otras hojas ni con la partida en curso.
+ */
+public class MoveHeatmapAnalyzer {
+
+    private static final int CELLS_PER_TASK = 16;
+
+    private final ForkJoinPool pool;
+    private final MinCutHintEngine minCut;
+
+    public MoveHeatmapAnalyzer() {
+        this(new ForkJoinPool(Runtime.getRuntime().availableProcessors()), new MinCutHintEngine());
+    }
+
+    public MoveHeatmapAnalyzer(ForkJoinPool pool, MinCutHintEngine minCut) {
+        this.pool = pool;
+        this.minCut = minCut;
+    }
+
+    /**
+     * Calcula el mapa sobre un tablero que el llamador no modificará durante
+     * el análisis (normalmente una copia obtenida con {@link HexGameBoard#fork()}).
+     */
+    public MoveHeatmap analyze(HexGameBoard board, HexPosition catPosition) {
+        HexGrid grid = board.getGrid();
+        boolean[] blocked = board.toBlockedMask();
+        int cat = grid.indexOf(catPosition);
+
+        int[] candidates = new int[grid.cellCount()];
+        int count = 0;
+        for (int i = 0; i < grid.cellCount(); i++) {
+            if (!blocked[i] && !grid.isBorder(i) && i != cat) {
+                candidates[count++] = i;
+            }
+        }
+        candidates = Arrays.copyOf(candidates, count);
+
+        int[] cells = new int[count * MoveHeatmap.STRIDE];
+        pool.invoke(new EvaluateRange(grid, blocked, cat, candidates, cells, 0, count));
+        return new MoveHeatmap(grid.getSize(), cells);
+    }
+
+    private final class EvaluateRange extends RecursiveAction {
+
+        private final HexGrid grid;
+        private final boolean[] blocked;
+        private final int cat;
+        private final int[] candidates;
+        private final int[] out;
+        private final int from;
+        private final int to;
+
+        EvaluateRange(HexGrid grid, boolean[] blocked, int cat, int[] candidates, int[] out, int from, int to) {
+            this.grid = grid;
+            this.blocked = blocked;
+            this.cat = cat;
+            this.candidates = candidates;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CELLS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                    new EvaluateRange(grid, blocked, cat, candidates, out, from, mid),
+                    new EvaluateRange(grid, blocked, cat, candidates, out, mid, to)
+                );
+                return;
+            }
+
+            boolean[] forked = blocked.clone();
+            for (int k = from; k < to; k++) {
+                int cell = candidates[k];
+                forked[cell] = true;
+
+                boolean wins = EscapeDistance.isTrapped(grid, forked, cat);
+                int distance = wins ? EscapeDistance.UNREACHABLE : EscapeDistance.fromCell(grid, forked, cat);
+                int routes = wins ? 0 : minCut.countDisjointEscapeRoutes(grid, forked, cat);
+
+                HexPosition pos = grid.positionAt(cell);
+                int base = k * MoveHeatmap.STRIDE;
+                out[base] = pos.getQ();
+                out[base + 1] = pos.getR();
+                out[base + 2] = distance;
+                out[base + 3] = routes;
+                out[base + 4] = wins ? 1 : 0;
+
+                forked[cell] = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGrid;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Libro de aperturas del gato para un tamaño de tablero.
+ *
+ * El fichero contiene claves de posición ordenadas (hash Zobrist de los
+ * bloqueos combinado con la celda del gato) seguidas de la respuesta del
+ * gato para cada una. Se mapea en memoria y se consulta con búsqueda
+ * binaria, así que cargarlo no copia el contenido al heap.
+ */
+public final class OpeningBook {
+
+    static final int MAGIC = 0x48584F42; // "HXOB"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    private final HexGrid grid;
+    private final ByteBuffer keys;
+    private final ByteBuffer moves;
+    private final int count;
+
+    private OpeningBook(HexGrid grid, ByteBuffer keys, ByteBuffer moves, int count) {
+        this.grid = grid;
+        this.keys = keys;
+        this.moves = moves;
+        this.count = count;
+    }
+
+    public static Path fileFor(Path directory, int boardSize) {
+        return directory.resolve("hex-" + boardSize + ".book");
+    }
+
+    /**
+     * Clave de posición: bloqueos y gato en una sola palabra de 64 bits.
+     */
+    public static long positionKey(HexGrid grid, long boardHash, int catCell) {
+        return boardHash ^ grid.catKey(catCell);
+    }
+
+    /**
+     * Carga todos los libros presentes en el directorio, por tamaño.
+     */
+    public static Map<Integer, OpeningBook> loadAll(Path directory) {
+        Map<Integer, OpeningBook> result = new HashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+        try (var files = Files.list(directory)) {
+            files.filter(f -> f.getFileName().toString().endsWith(".book")).forEach(file -> {
+                try {
+                    OpeningBook book = load(file);
+                    result.put(book.getBoardSize(), book);
+                } catch (UncheckedIOException | IllegalStateException e) {
+                    System.err.println("Libro de aperturas ignorado (" + file + "): " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("No se pudo leer el directorio de libros: " + e.getMessage());
+        }
+        return result;
+    }
+
+    public static OpeningBook load(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IllegalStateException("Not an opening book file");
+            }
+            int boardSize = header.getInt();
+            int count = header.getInt();
+            long keyBytes = (long) count * Long.BYTES;
+            long moveBytes = (long) count * Short.BYTES;
+            if (channel.size() != HEADER_BYTES + keyBytes + moveBytes) {
+                throw new IllegalStateException("Truncated opening book file");
+            }
+            ByteBuffer keys = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, keyBytes);
+            ByteBuffer moves = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + keyBytes, moveBytes);
+            return new OpeningBook(HexGrid.of(boardSize), keys, moves, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escribe un libro a partir de claves ya ordenadas y sus respuestas.
+     */
+    static void write(Path file, int boardSize, long[] sortedKeys, short[] replies) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES
+                        + sortedKeys.length * Long.BYTES + replies.length * Short.BYTES);
+                buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(boardSize).putInt(sortedKeys.length);
+                for (long key : sortedKeys) {
+                    buffer.putLong(key);
+                }
+                for (short reply : replies) {
+                    buffer.putShort(reply);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int getBoardSize() {
+        return grid.getSize();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Respuesta del libro para la posición actual, si existe y es legal.
+     */
+    public Optional<HexPosition> lookup(HexGameBoard board, HexPosition cat) {
+        if (board.getSize() != grid.getSize()) {
+            return Optional.empty();
+        }
+        int catCell = grid.indexOf(cat);
+        if (catCell < 0) {
+            return Optional.empty();
+        }
+        int slot = find(positionKey(grid, board.getZobristHash(), catCell));
+        if (slot < 0) {
+            return Optional.empty();
+        }
+        int reply = moves.getShort(slot * Short.BYTES);
+        if (reply < 0 || reply >= grid.cellCount()) {
+            return Optional.empty();
+        }
+        HexPosition move = grid.positionAt(reply);
+        // Protección ante colisiones de hash: la respuesta debe ser legal aquí
+        if (!move.isAdjacentTo(cat) || board.isBlocked(move)) {
+            return Optional.empty();
+        }
+        return Optional.of(move);
+    }
+
+    private int find(long key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = keys.getLong(mid * Long.BYTES);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,101 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGrid;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Constructor fuera de línea del libro de aperturas.
+ *
+ * Parte de la posición inicial (tablero vacío, gato en el centro) y
+ * recorre las aperturas habituales: en cada turno del jugador prueba los
+ * bloqueos cercanos al gato y, para cada posición resultante, calcula la
+ * respuesta del gato con {@link DeepCatSearch}. Las posiciones repetidas
+ * por transposición se resuelven una sola vez. Cada nivel se reparte
+ * entre núcleos.
+ *
+ * Uso: {@code java -cp target/classes com.atraparalagato.impl.analysis.OpeningBookBuilder [dir] [jugadas] [profundidad] [tamaños...]}
+ */
+public final class OpeningBookBuilder {
+
+    private static final int PLAYER_RADIUS = 2;
+
+    private record Node(boolean[] blocked, int cat, long hash) {}
+
+    private OpeningBookBuilder() {
+    }
+
+    public static void main(String[] args) {
+        Path directory = Path.of(args.length > 0 ? args[0] : "data/book");
+        int playerMoves = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int[] sizes = args.length > 3
+                ? Arrays.stream(args, 3, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[] {5, 7, 9};
+        for (int size : sizes) {
+            long start = System.nanoTime();
+            int entries = build(directory, size, playerMoves, depth);
+            System.out.printf("Libro de tamaño %d: %d posiciones (%d ms)%n",
+                    size, entries, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Construye y escribe el libro; devuelve el número de posiciones.
+     */
+    public static int build(Path directory, int boardSize, int playerMoves, int depthPlies) {
+        HexGrid grid = HexGrid.of(boardSize);
+        DeepCatSearch search = new DeepCatSearch(grid, depthPlies, PLAYER_RADIUS);
+        Map<Long, Short> replies = new ConcurrentHashMap<>();
+
+        List<Node> frontier = List.of(new Node(new boolean[grid.cellCount()], grid.indexOf(0, 0), 0L));
+        for (int move = 0; move < playerMoves && !frontier.isEmpty(); move++) {
+            ConcurrentLinkedQueue<Node> next = new ConcurrentLinkedQueue<>();
+            frontier.parallelStream().forEach(node -> expand(grid, search, node, replies, next));
+            frontier = new ArrayList<>(next);
+        }
+
+        long[] keys = replies.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        short[] moves = new short[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            moves[i] = replies.get(keys[i]);
+        }
+        OpeningBook.write(OpeningBook.fileFor(directory, boardSize), boardSize, keys, moves);
+        return keys.length;
+    }
+
+    private static void expand(HexGrid grid, DeepCatSearch search, Node node,
+                               Map<Long, Short> replies, ConcurrentLinkedQueue<Node> next) {
+        for (int b = 0; b < grid.cellCount(); b++) {
+            if (node.blocked[b] || b == node.cat || grid.isBorder(b) || grid.distance(node.cat, b) > PLAYER_RADIUS) {
+                continue;
+            }
+            boolean[] blocked = node.blocked.clone();
+            blocked[b] = true;
+            if (EscapeDistance.isTrapped(grid, blocked, node.cat)) {
+                continue;
+            }
+            long hash = node.hash ^ grid.blockKey(b);
+            long key = OpeningBook.positionKey(grid, hash, node.cat);
+            // Reserva la clave antes de buscar: las transposiciones se resuelven una vez
+            if (replies.putIfAbsent(key, (short) -1) != null) {
+                continue;
+            }
+            int reply = search.bestCatMove(blocked, node.cat);
+            if (reply < 0) {
+                replies.remove(key);
+                continue;
+            }
+            replies.put(key, (short) reply);
+            if (!grid.isBorder(reply)) {
+                next.add(new Node(blocked, reply, hash));
+            }
+        }
+    }
+}
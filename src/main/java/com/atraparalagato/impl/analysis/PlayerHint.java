@@ -0,0 +1,25 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resultado del motor de pistas para el jugador.
+ *
+ * @param suggestion    celda recomendada para bloquear (vacía si no hay jugada útil)
+ * @param blocksNeeded  bloqueos mínimos para separar al gato del borde;
+ *                      0 si ya está encerrado y -1 si escapará en su próximo turno
+ * @param cut           celdas del corte mínimo más cercano al gato
+ */
+public record PlayerHint(Optional<HexPosition> suggestion, int blocksNeeded, List<HexPosition> cut) {
+
+    public boolean isEscapeImminent() {
+        return blocksNeeded < 0;
+    }
+
+    public boolean isCatEnclosed() {
+        return blocksNeeded == 0;
+    }
+}
@@ -0,0 +1,18 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.List;
+
+/**
+ * Posición verificada de "atrapa al gato en N jugadas".
+ *
+ * @param solution único primer bloqueo ganador (no se envía al cliente)
+ */
+public record Puzzle(String puzzleId,
+                     int boardSize,
+                     int moves,
+                     HexPosition catPosition,
+                     List<HexPosition> blockedCells,
+                     HexPosition solution) {
+}
@@ -0,0 +1,162 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGrid;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Generador paralelo de puzles "atrapa al gato en N jugadas".
+ *
+ * Muestrea disposiciones aleatorias (gato lejos del borde, densidad de
+ * bloqueos entre 15 % y 45 %) y las verifica con {@link PuzzleSolver}. Los
+ * intentos se reparten en un ForkJoinPool propio; cada hoja tiene su propio
+ * generador aleatorio y su propio resolutor, y entrega los puzles aceptados
+ * al destino en cuanto los encuentra, sin esperar al final del lote.
+ */
+public class PuzzleGenerator {
+
+    private static final int ATTEMPTS_PER_TASK = 256;
+    private static final double MIN_DENSITY = 0.15;
+    private static final double MAX_DENSITY = 0.45;
+
+    private final ForkJoinPool pool;
+
+    public PuzzleGenerator() {
+        this(new ForkJoinPool(Runtime.getRuntime().availableProcessors()));
+    }
+
+    public PuzzleGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Genera puzles hasta aceptar {@code target} o agotar {@code maxAttempts}.
+     *
+     * @param sink recibe cada puzle verificado; devuelve false si lo descarta
+     *             (por ejemplo, por duplicado) y entonces no cuenta
+     * @return número de puzles aceptados
+     */
+    public int generate(int boardSize, int moves, int target, long maxAttempts, long seed,
+                        Predicate<Puzzle> sink) {
+        if (moves < 1 || boardSize < 3) {
+            throw new IllegalArgumentException("Puzzles need at least one move and board size 3");
+        }
+        Batch batch = new Batch(HexGrid.of(boardSize), moves, target, sink);
+        pool.invoke(new Attempts(batch, new SplittableRandom(seed), 0, maxAttempts));
+        return Math.min(batch.accepted.get(), target);
+    }
+
+    /**
+     * Construye el puzle a partir de una posición ya verificada.
+     */
+    public static Puzzle toPuzzle(PuzzleSolver solver, long[] blocked, int cat, int moves, int solution) {
+        HexGrid grid = solver.getGrid();
+        List<HexPosition> cells = new ArrayList<>();
+        for (int i = 0; i < grid.cellCount(); i++) {
+            if (PuzzleSolver.isSet(blocked, i)) {
+                cells.add(grid.positionAt(i));
+            }
+        }
+        long key = solver.hashOf(blocked) ^ grid.catKey(cat);
+        String id = "pz-" + grid.getSize() + "-" + moves + "-" + Long.toHexString(key);
+        return new Puzzle(id, grid.getSize(), moves, grid.positionAt(cat), List.copyOf(cells),
+                grid.positionAt(solution));
+    }
+
+    private static final class Batch {
+        final HexGrid grid;
+        final int moves;
+        final int target;
+        final Predicate<Puzzle> sink;
+        final AtomicInteger accepted = new AtomicInteger();
+        final int[] interior;
+        final int[] catCandidates;
+
+        Batch(HexGrid grid, int moves, int target, Predicate<Puzzle> sink) {
+            this.grid = grid;
+            this.moves = moves;
+            this.target = target;
+            this.sink = sink;
+            List<Integer> inner = new ArrayList<>();
+            List<Integer> cats = new ArrayList<>();
+            for (int i = 0; i < grid.cellCount(); i++) {
+                if (grid.isBorder(i)) {
+                    continue;
+                }
+                inner.add(i);
+                if (grid.ringOf(i) <= grid.getSize() - 2) {
+                    cats.add(i);
+                }
+            }
+            this.interior = inner.stream().mapToInt(Integer::intValue).toArray();
+            this.catCandidates = cats.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        boolean done() {
+            return accepted.get() >= target;
+        }
+    }
+
+    private static final class Attempts extends RecursiveAction {
+
+        private final Batch batch;
+        private final SplittableRandom random;
+        private final long from;
+        private final long to;
+
+        Attempts(Batch batch, SplittableRandom random, long from, long to) {
+            this.batch = batch;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (batch.done()) {
+                return;
+            }
+            if (to - from > ATTEMPTS_PER_TASK) {
+                long mid = (from + to) >>> 1;
+                invokeAll(
+                    new Attempts(batch, random.split(), from, mid),
+                    new Attempts(batch, random.split(), mid, to)
+                );
+                return;
+            }
+
+            PuzzleSolver solver = new PuzzleSolver(batch.grid);
+            for (long k = from; k < to && !batch.done(); k++) {
+                long[] blocked = solver.emptyBoard();
+                int cat = batch.catCandidates[random.nextInt(batch.catCandidates.length)];
+                double density = MIN_DENSITY + random.nextDouble() * (MAX_DENSITY - MIN_DENSITY);
+                for (int cell : batch.interior) {
+                    if (cell != cat && random.nextDouble() < density) {
+                        PuzzleSolver.set(blocked, cell);
+                    }
+                }
+                if (solver.isTrapped(blocked, cat)) {
+                    continue;
+                }
+                if (batch.moves > 1 && solver.hasForcedWin(blocked, cat, batch.moves - 1)) {
+                    continue;
+                }
+                List<Integer> winners = solver.winningFirstMoves(blocked, cat, batch.moves);
+                if (winners.size() != 1) {
+                    continue;
+                }
+                Puzzle puzzle = toPuzzle(solver, blocked, cat, batch.moves, winners.get(0));
+                if (batch.sink.test(puzzle)) {
+                    batch.accepted.incrementAndGet();
+                }
+            }
+        }
+    }
+}
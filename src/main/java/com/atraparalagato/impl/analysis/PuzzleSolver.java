@@ -0,0 +1,230 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGrid;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolutor exacto de "atrapa al gato en N jugadas".
+ *
+ * Los bloqueos se representan como bitboard (long[] indexado por HexGrid),
+ * de modo que comprobar si el gato está encerrado es un AND por palabra.
+ * La búsqueda es AND-OR: el jugador necesita un bloqueo que gane contra
+ * todas las respuestas del gato. Se podan ramas con dos argumentos de
+ * distancia de escape:
+ * - un gato junto al borde escapa en su turno, haga lo que haga el jugador;
+ * - un gato con dos salidas libres que ya están junto al borde no puede
+ *   ser detenido con un solo bloqueo.
+ * Además, con k jugadas restantes solo influyen las celdas a distancia k
+ * del gato, así que los bloqueos más lejanos no se exploran.
+ */
+public class PuzzleSolver {
+
+    private final HexGrid grid;
+    private final int words;
+    private final long[][] neighborBits;
+    private final boolean[] borderAdjacent;
+    /** Por celda: celdas interiores ordenadas por distancia, y fin de cada radio. */
+    private final int[][] cellsByDistance;
+    private final int[][] radiusEnd;
+
+    public PuzzleSolver(HexGrid grid) {
+        this.grid = grid;
+        int cells = grid.cellCount();
+        this.words = (cells + 63) >>> 6;
+        this.neighborBits = new long[cells][words];
+        this.borderAdjacent = new boolean[cells];
+        this.cellsByDistance = new int[cells][];
+        this.radiusEnd = new int[cells][];
+
+        List<Integer> interior = new ArrayList<>();
+        for (int i = 0; i < cells; i++) {
+            if (!grid.isBorder(i)) {
+                interior.add(i);
+            }
+            for (int n : grid.neighborsOf(i)) {
+                neighborBits[i][n >>> 6] |= 1L << n;
+                if (grid.isBorder(n)) {
+                    borderAdjacent[i] = true;
+                }
+            }
+        }
+        int maxDistance = 2 * grid.getSize();
+        for (int c = 0; c < cells; c++) {
+            final int from = c;
+            int[] sorted = interior.stream()
+                    .sorted(Comparator.comparingInt(i -> grid.distance(from, i)))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int[] ends = new int[maxDistance + 1];
+            int k = 0;
+            for (int d = 0; d <= maxDistance; d++) {
+                while (k < sorted.length && grid.distance(c, sorted[k]) <= d) {
+                    k++;
+                }
+                ends[d] = k;
+            }
+            cellsByDistance[c] = sorted;
+            radiusEnd[c] = ends;
+        }
+    }
+
+    public HexGrid getGrid() {
+        return grid;
+    }
+
+    /** Bitboard vacío del tamaño adecuado para este tablero. */
+    public long[] emptyBoard() {
+        return new long[words];
+    }
+
+    /**
+     * Indica si el jugador, con el turno, gana como mucho en {@code moves}
+     * bloqueos contra cualquier respuesta del gato.
+     */
+    public boolean hasForcedWin(long[] blocked, int cat, int moves) {
+        return forcedWin(blocked.clone(), hashOf(blocked), cat, moves, new HashMap<>());
+    }
+
+    /**
+     * Primeros bloqueos con los que el jugador fuerza la victoria en como
+     * mucho {@code moves} jugadas.
+     */
+    public List<Integer> winningFirstMoves(long[] blocked, int cat, int moves) {
+        long[] board = blocked.clone();
+        long hash = hashOf(board);
+        Map<Long, Boolean> memo = new HashMap<>();
+        List<Integer> winners = new ArrayList<>();
+        if (borderAdjacent[cat] || moves < 1) {
+            return winners;
+        }
+        int end = radiusEnd[cat][Math.min(moves, radiusEnd[cat].length - 1)];
+        for (int k = 0; k < end; k++) {
+            int b = cellsByDistance[cat][k];
+            if (b == cat || isSet(board, b)) {
+                continue;
+            }
+            set(board, b);
+            if (winsAfterBlock(board, hash ^ grid.blockKey(b), cat, moves, memo)) {
+                winners.add(b);
+            }
+            clear(board, b);
+        }
+        return winners;
+    }
+
+    /**
+     * Una posición es un puzle válido de N jugadas si se gana en N, no en
+     * menos, y con un único primer bloqueo.
+     */
+    public boolean isUniqueExactPuzzle(long[] blocked, int cat, int moves) {
+        if (moves > 1 && hasForcedWin(blocked, cat, moves - 1)) {
+            return false;
+        }
+        return winningFirstMoves(blocked, cat, moves).size() == 1;
+    }
+
+    private boolean forcedWin(long[] blocked, long hash, int cat, int moves, Map<Long, Boolean> memo) {
+        if (borderAdjacent[cat]) {
+            return false;
+        }
+        int free = 0;
+        int fastExits = 0;
+        for (int n : grid.neighborsOf(cat)) {
+            if (!isSet(blocked, n)) {
+                free++;
+                if (borderAdjacent[n]) {
+                    fastExits++;
+                }
+            }
+        }
+        if (free == 0) {
+            return true;
+        }
+        if (fastExits >= 2) {
+            return false;
+        }
+        if (moves == 1) {
+            return free == 1;
+        }
+
+        long key = hash ^ grid.catKey(cat) ^ (moves * 0x9E3779B97F4A7C15L);
+        Boolean cached = memo.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        boolean result = false;
+        int end = radiusEnd[cat][Math.min(moves, radiusEnd[cat].length - 1)];
+        for (int k = 0; k < end && !result; k++) {
+            int b = cellsByDistance[cat][k];
+            if (b == cat || isSet(blocked, b)) {
+                continue;
+            }
+            set(blocked, b);
+            result = winsAfterBlock(blocked, hash ^ grid.blockKey(b), cat, moves, memo);
+            clear(blocked, b);
+        }
+        memo.put(key, result);
+        return result;
+    }
+
+    /**
+     * Tras un bloqueo del jugador: gana si el gato queda encerrado o si
+     * todas sus respuestas dejan una victoria forzada en una jugada menos.
+     */
+    private boolean winsAfterBlock(long[] blocked, long hash, int cat, int moves, Map<Long, Boolean> memo) {
+        if (isTrapped(blocked, cat)) {
+            return true;
+        }
+        if (moves == 1) {
+            return false;
+        }
+        for (int n : grid.neighborsOf(cat)) {
+            if (isSet(blocked, n)) {
+                continue;
+            }
+            if (grid.isBorder(n) || !forcedWin(blocked, hash, n, moves - 1, memo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isTrapped(long[] blocked, int cat) {
+        long[] mask = neighborBits[cat];
+        for (int w = 0; w < words; w++) {
+            if ((mask[w] & ~blocked[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void clear(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    /** Hash Zobrist del bitboard, compatible con HexGameBoard. */
+    public long hashOf(long[] blocked) {
+        long hash = 0;
+        for (int w = 0; w < blocked.length; w++) {
+            for (long rest = blocked[w]; rest != 0; rest &= rest - 1) {
+                hash ^= grid.blockKey((w << 6) + Long.numberOfTrailingZeros(rest));
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,86 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGrid;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generador de posiciones iniciales con bloqueos aleatorios, como en la
+ * versión clásica del juego.
+ *
+ * El gato parte del centro, a distancia N del borde, así que una posición
+ * nunca empieza perdida para el jugador. Sí puede empezar ganada, y esas se
+ * descartan:
+ * - el gato ya está encerrado;
+ * - el corte mínimo entre el gato y el borde es menor que {@link #MIN_CUT};
+ * - en tableros pequeños, el jugador gana a la fuerza en
+ *   {@link #PRE_WON_MOVES} jugadas o menos ({@link PuzzleSolver}).
+ *
+ * Es seguro usarlo desde varios hilos si cada uno pasa su propio generador
+ * aleatorio.
+ */
+public class StartingLayoutGenerator {
+
+    public static final int MIN_CUT = 3;
+    public static final int PRE_WON_MOVES = 2;
+    /** Por encima de este tamaño el resolutor exacto es demasiado caro y basta el corte mínimo. */
+    public static final int SOLVER_MAX_SIZE = 9;
+
+    private final MinCutHintEngine minCut = new MinCutHintEngine();
+    private final Map<Integer, PuzzleSolver> solvers = new ConcurrentHashMap<>();
+
+    /**
+     * Una posición aleatoria con la densidad de bloqueos indicada, o vacío
+     * si la muestra no pasa la validación.
+     *
+     * @return celdas bloqueadas como índices de HexGrid
+     */
+    public Optional<int[]> generate(int boardSize, double density, SplittableRandom random) {
+        HexGrid grid = HexGrid.of(boardSize);
+        int cat = grid.indexOf(0, 0);
+        boolean[] blocked = new boolean[grid.cellCount()];
+        int count = 0;
+        for (int i = 0; i < blocked.length; i++) {
+            if (i != cat && !grid.isBorder(i) && random.nextDouble() < density) {
+                blocked[i] = true;
+                count++;
+            }
+        }
+        if (!isPlayable(grid, blocked, cat)) {
+            return Optional.empty();
+        }
+        int[] cells = new int[count];
+        for (int i = 0, k = 0; i < blocked.length; i++) {
+            if (blocked[i]) {
+                cells[k++] = i;
+            }
+        }
+        return Optional.of(cells);
+    }
+
+    /**
+     * Comprueba que la posición no esté ya ganada para el jugador.
+     */
+    public boolean isPlayable(HexGrid grid, boolean[] blocked, int cat) {
+        if (EscapeDistance.fromCell(grid, blocked, cat) == EscapeDistance.UNREACHABLE) {
+            return false;
+        }
+        if (minCut.countDisjointEscapeRoutes(grid, blocked, cat) < MIN_CUT) {
+            return false;
+        }
+        if (grid.getSize() > SOLVER_MAX_SIZE) {
+            return true;
+        }
+        PuzzleSolver solver = solvers.computeIfAbsent(grid.getSize(), size -> new PuzzleSolver(grid));
+        long[] bits = solver.emptyBoard();
+        for (int i = 0; i < blocked.length; i++) {
+            if (blocked[i]) {
+                PuzzleSolver.set(bits, i);
+            }
+        }
+        return !solver.hasForcedWin(bits, cat, PRE_WON_MOVES);
+    }
+}
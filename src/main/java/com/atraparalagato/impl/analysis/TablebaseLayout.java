@@ -0,0 +1,211 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGrid;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.Arrays;
+
+/**
+ * Indexación compartida por el generador y el lector de la tabla de finales.
+ *
+ * Las celdas interiores (las únicas bloqueables) se numeran de forma
+ * compacta para representar los bloqueos como máscara de bits. Las doce
+ * simetrías del hexágono se usan para llevar al gato a una celda
+ * representante de su órbita, de modo que la tabla solo guarda
+ * posiciones canónicas del gato.
+ */
+final class TablebaseLayout {
+
+    static final int PLAYER_TO_MOVE = 0;
+    static final int CAT_TO_MOVE = 1;
+
+    private final HexGrid grid;
+    private final int cells;
+    private final int[] gridIndex;
+    private final int[] interiorIndex;
+    private final int[] neighborMask;
+    private final int[][] interiorNeighbors;
+    private final boolean[] borderAdjacent;
+
+    private final int[][] symmetries;
+    private final int[] canonicalSymmetry;
+    private final int[] classOf;
+    private final int[] representatives;
+
+    TablebaseLayout(int boardSize) {
+        this.grid = HexGrid.of(boardSize);
+        this.interiorIndex = new int[grid.cellCount()];
+        Arrays.fill(interiorIndex, -1);
+
+        int[] buffer = new int[grid.cellCount()];
+        int count = 0;
+        for (int i = 0; i < grid.cellCount(); i++) {
+            if (!grid.isBorder(i)) {
+                interiorIndex[i] = count;
+                buffer[count++] = i;
+            }
+        }
+        if (count > HexTablebase.MAX_INTERIOR_CELLS) {
+            throw new IllegalArgumentException("Board size " + boardSize + " is too large for a tablebase");
+        }
+        this.cells = count;
+        this.gridIndex = Arrays.copyOf(buffer, count);
+
+        this.neighborMask = new int[cells];
+        this.interiorNeighbors = new int[cells][];
+        this.borderAdjacent = new boolean[cells];
+        for (int c = 0; c < cells; c++) {
+            int[] neighbors = new int[6];
+            int found = 0;
+            for (int n : grid.neighborsOf(gridIndex[c])) {
+                if (grid.isBorder(n)) {
+                    borderAdjacent[c] = true;
+                } else {
+                    neighborMask[c] |= 1 << interiorIndex[n];
+                    neighbors[found++] = interiorIndex[n];
+                }
+            }
+            interiorNeighbors[c] = Arrays.copyOf(neighbors, found);
+        }
+
+        this.symmetries = buildSymmetries();
+        this.canonicalSymmetry = new int[cells];
+        this.classOf = new int[cells];
+        int[] reps = new int[cells];
+        int classes = 0;
+        for (int c = 0; c < cells; c++) {
+            int best = 0;
+            for (int g = 1; g < symmetries.length; g++) {
+                if (symmetries[g][c] < symmetries[best][c]) {
+                    best = g;
+                }
+            }
+            canonicalSymmetry[c] = best;
+            int rep = symmetries[best][c];
+            if (rep == c) {
+                classOf[c] = classes;
+                reps[classes++] = c;
+            }
+        }
+        for (int c = 0; c < cells; c++) {
+            classOf[c] = classOf[symmetries[canonicalSymmetry[c]][c]];
+        }
+        this.representatives = Arrays.copyOf(reps, classes);
+    }
+
+    int boardSize() {
+        return grid.getSize();
+    }
+
+    HexGrid grid() {
+        return grid;
+    }
+
+    int cells() {
+        return cells;
+    }
+
+    int classCount() {
+        return representatives.length;
+    }
+
+    int representative(int catClass) {
+        return representatives[catClass];
+    }
+
+    int classOf(int cell) {
+        return classOf[cell];
+    }
+
+    int interiorIndex(int gridCell) {
+        return interiorIndex[gridCell];
+    }
+
+    int gridIndex(int cell) {
+        return gridIndex[cell];
+    }
+
+    int[] interiorNeighbors(int cell) {
+        return interiorNeighbors[cell];
+    }
+
+    boolean isBorderAdjacent(int cell) {
+        return borderAdjacent[cell];
+    }
+
+    boolean isTrapped(int cell, int mask) {
+        return !borderAdjacent[cell] && (neighborMask[cell] & ~mask) == 0;
+    }
+
+    /** Número total de entradas de la tabla (ambos turnos). */
+    long tableLength() {
+        return 2L * classCount() << cells;
+    }
+
+    /**
+     * Posición en la tabla para un gato ya canónico.
+     */
+    long offset(int side, int catClass, int mask) {
+        return (((long) side * classCount() + catClass) << cells) | (mask & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Posición en la tabla para cualquier gato, aplicando la simetría que lo
+     * lleva a su representante.
+     */
+    long canonicalOffset(int side, int cat, int mask) {
+        int g = canonicalSymmetry[cat];
+        return offset(side, classOf[cat], transform(mask, g));
+    }
+
+    /** Máscara interior a partir de un arreglo de bloqueos de HexGrid. */
+    int maskOf(boolean[] gridBlocked) {
+        int mask = 0;
+        for (int c = 0; c < cells; c++) {
+            if (gridBlocked[gridIndex[c]]) {
+                mask |= 1 << c;
+            }
+        }
+        return mask;
+    }
+
+    private int transform(int mask, int symmetry) {
+        if (symmetry == 0) {
+            return mask;
+        }
+        int[] perm = symmetries[symmetry];
+        int result = 0;
+        for (int rest = mask; rest != 0; rest &= rest - 1) {
+            result |= 1 << perm[Integer.numberOfTrailingZeros(rest)];
+        }
+        return result;
+    }
+
+    /**
+     * Permutaciones de las celdas interiores para las 6 rotaciones, con y
+     * sin reflexión. La simetría 0 es la identidad.
+     */
+    private int[][] buildSymmetries() {
+        int[][] result = new int[12][cells];
+        for (int g = 0; g < 12; g++) {
+            for (int c = 0; c < cells; c++) {
+                HexPosition pos = grid.positionAt(gridIndex[c]);
+                int q = pos.getQ();
+                int r = pos.getR();
+                if (g >= 6) {
+                    // Reflexión (q, r, s) -> (q, s, r)
+                    r = -q - r;
+                }
+                for (int k = 0; k < g % 6; k++) {
+                    // Rotación de 60°: (q, r, s) -> (-r, -s, -q)
+                    int nq = -r;
+                    int nr = q + r;
+                    q = nq;
+                    r = nr;
+                }
+                result[g][c] = interiorIndex[grid.indexOf(q, r)];
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,130 @@
+package com.atraparalagato.impl.model;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Identificadores de partida ordenados por tiempo, al estilo Snowflake.
+ *
+ * Cada id es un long de 64 bits:
+ * <pre>
+ *   | 42 bits milisegundos desde EPOCH | 6 bits nodo | 6 bits shard | 10 bits secuencia |
+ * </pre>
+ * y se escribe en base32 de Crockford con ancho fijo (13 caracteres). El
+ * alfabeto está en orden ASCII, así que el orden de las cadenas es el de
+ * creación: un mapa ordenado por id permite recorrer rangos de tiempo, y
+ * el shard se lee del propio id sin consultar nada.
+ *
+ * Generar no bloquea ni usa SecureRandom: si se agotan las 1024 secuencias
+ * de un milisegundo se toma prestado el siguiente.
+ */
+public final class GameIdGenerator implements Supplier<String> {
+
+    /** 2024-01-01T00:00:00Z */
+    public static final long EPOCH = 1_704_067_200_000L;
+
+    private static final int SEQUENCE_BITS = 10;
+    private static final int SHARD_BITS = 6;
+    private static final int NODE_BITS = 6;
+    private static final int TIME_SHIFT = SEQUENCE_BITS + SHARD_BITS + NODE_BITS;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    public static final int SHARDS = 1 << SHARD_BITS;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 13;
+    private static final int[] DECODE = new int[128];
+
+    static {
+        java.util.Arrays.fill(DECODE, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE[ALPHABET[i]] = i;
+        }
+    }
+
+    private final int node;
+    /** (milisegundo << SEQUENCE_BITS) | secuencia del último id emitido. */
+    private final AtomicLong lastStamp = new AtomicLong();
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public GameIdGenerator(int node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE);
+        }
+        this.node = node;
+    }
+
+    @Override
+    public String get() {
+        return encode(nextId());
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long stamp = lastStamp.updateAndGet(last -> Math.max(now, last + 1));
+        // Reparto circular: los shards quedan equilibrados sea cual sea el ritmo
+        long shard = nextShard.getAndIncrement() & (SHARDS - 1);
+        long millis = stamp >>> SEQUENCE_BITS;
+        long sequence = stamp & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << TIME_SHIFT)
+                | ((long) node << (SHARD_BITS + SEQUENCE_BITS))
+                | (shard << SEQUENCE_BITS)
+                | sequence;
+    }
+
+    /** Cadena de ancho fijo en base32 de Crockford. */
+    public static String encode(long id) {
+        char[] out = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(out);
+    }
+
+    /**
+     * Valor numérico del id, o -1 si la cadena no es un id de este
+     * generador (por ejemplo, un UUID antiguo).
+     */
+    public static long decode(String id) {
+        if (id == null || id.length() != LENGTH) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char c = id.charAt(i);
+            int digit = c < 128 ? DECODE[c] : -1;
+            if (digit < 0 || (i == 0 && digit > 15)) {
+                return -1;
+            }
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+
+    public static boolean isValid(String id) {
+        return decode(id) >= 0;
+    }
+
+    /** Shard del id (0..SHARDS-1), o -1 si no es un id de este generador. */
+    public static int shardOf(String id) {
+        long value = decode(id);
+        return value < 0 ? -1 : (int) ((value >>> SEQUENCE_BITS) & (SHARDS - 1));
+    }
+
+    /** Instante de creación codificado en el id, o null si no es válido. */
+    public static Instant createdAt(String id) {
+        long value = decode(id);
+        return value < 0 ? null : Instant.ofEpochMilli((value >>> TIME_SHIFT) + EPOCH);
+    }
+
+    /**
+     * Menor id posible creado en {@code instant}: todos los ids anteriores
+     * a ese instante ordenan por debajo de esta cadena.
+     */
+    public static String lowerBound(Instant instant) {
+        long millis = Math.max(0, instant.toEpochMilli() - EPOCH);
+        return encode(millis << TIME_SHIFT);
+    }
+}
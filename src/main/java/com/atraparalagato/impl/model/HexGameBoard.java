@@ -18,6 +18,9 @@ import java.util.function.Predicate;
  * - Programación Funcional: Uso de Predicate y streams
  */
 public class HexGameBoard extends GameBoard<HexPosition> {
+
+    // Hash Zobrist de las celdas bloqueadas, mantenido de forma incremental
+    private long zobristHash;
     
     public HexGameBoard(int size) {
         super(size);
@@ -53,7 +56,21 @@ public class HexGameBoard extends GameBoard<HexPosition> {
     
     @Override
     protected void executeMove(HexPosition position) {
-        blockedPositions.add(position);
+        if (blockedPositions.add(position)) {
+            zobristHash ^= getGrid().blockKey(getGrid().indexOf(position));
+        }
+    }
+    
+    /**
+     * Desbloquea una celda (para deshacer), devolviendo el hash Zobrist
+     * al valor previo al bloqueo.
+     */
+    public boolean unblock(HexPosition position) {
+        if (!blockedPositions.remove(position)) {
+            return false;
+        }
+        zobristHash ^= getGrid().blockKey(getGrid().indexOf(position));
+        return true;
     }
     
     @Override
@@ -115,4 +132,55 @@ public class HexGameBoard extends GameBoard<HexPosition> {
                 || Math.abs(position.getR()) == size
                 || Math.abs(position.getS()) == size;
     }
+
+    /**
+     * Copia independiente del tablero. Los cambios en la copia no afectan
+     * a la partida original; útil para análisis en segundo plano.
+     */
+    public HexGameBoard fork() {
+        HexGameBoard copy = new HexGameBoard(size);
+        copy.blockedPositions.addAll(blockedPositions);
+        copy.zobristHash = zobristHash;
+        return copy;
+    }
+
+    /**
+     * Hash Zobrist del conjunto de celdas bloqueadas. Dos tableros del mismo
+     * tamaño con los mismos bloqueos tienen el mismo hash.
+     */
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    /** Copia inmutable de las celdas bloqueadas, para publicar en una foto. */
+    public List<HexPosition> blockedList() {
+        return List.copyOf(blockedPositions);
+    }
+
+    public int getBlockedCount() {
+        return blockedPositions.size();
+    }
+
+    /**
+     * Topología indexada compartida para el tamaño de este tablero.
+     */
+    public HexGrid getGrid() {
+        return HexGrid.of(size);
+    }
+
+    /**
+     * Copia de las celdas bloqueadas como arreglo indexado por HexGrid.
+     * Pensado para algoritmos de análisis que no deben tocar el tablero vivo.
+     */
+    public boolean[] toBlockedMask() {
+        HexGrid grid = getGrid();
+        boolean[] mask = new boolean[grid.cellCount()];
+        for (HexPosition pos : blockedPositions) {
+            int index = grid.indexOf(pos);
+            if (index >= 0) {
+                mask[index] = true;
+            }
+        }
+        return mask;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.atraparalagato.impl.model;
+
+import com.atraparalagato.base.model.GameState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Foto inmutable de una partida tal como quedó en un guardado confirmado.
+ *
+ * El repositorio publica una por cada guardado; las lecturas (estado,
+ * estadísticas, clasificación, paneles) trabajan solo con fotos y nunca
+ * tocan el HexGameState vivo, así que no ven estados a medias ni
+ * necesitan copiar el tablero en cada consulta.
+ */
+public record HexGameSnapshot(
+        String gameId,
+        long version,
+        GameState.GameStatus status,
+        HexPosition catPosition,
+        List<HexPosition> blockedCells,
+        int boardSize,
+        int difficulty,
+        int moveCount,
+        int score,
+        LocalDateTime createdAt
+) {
+
+    public static HexGameSnapshot of(HexGameState state) {
+        return new HexGameSnapshot(
+            state.getGameId(),
+            state.getVersion(),
+            state.getStatus(),
+            state.getCatPosition(),
+            state.getGameBoard() == null ? List.of() : state.getGameBoard().blockedList(),
+            state.getBoardSize(),
+            state.getDifficulty(),
+            state.getMoveCount(),
+            state.calculateScore(),
+            state.getCreatedAt()
+        );
+    }
+
+    public boolean isFinished() {
+        return status != GameState.GameStatus.IN_PROGRESS;
+    }
+
+    public boolean hasPlayerWon() {
+        return status == GameState.GameStatus.PLAYER_WON;
+    }
+
+    /** Mismas claves que {@link HexGameState#getAdvancedStatistics()}. */
+    public Map<String, Object> statistics() {
+        return Map.of(
+            "boardSize", boardSize,
+            "moves", moveCount,
+            "status", status.toString(),
+            "blockedCells", blockedCells.size()
+        );
+    }
+}
@@ -29,6 +29,32 @@ public class HexGameState extends GameState<HexPosition> {
     private HexPosition catPosition;
     private HexGameBoard gameBoard;
     private int boardSize;
+    private HexPosition lastPlayerMove;
+    private MoveLog moveLog = new MoveLog();
+    /** El último bloqueo aún espera la respuesta del gato en el registro. */
+    private boolean catReplyPending;
+    /** Semilla de la aleatoriedad de la partida; con ella y el registro se reproduce. */
+    private long seed;
+    /** Tablero y gato de partida (índices de HexGrid); compartidos entre copias. */
+    private int[] startingBlocked = new int[0];
+    private int startingCat = -1;
+    /** Tiempo por jugada en milisegundos (0 = sin reloj) y qué pasa al agotarse. */
+    private long moveTimeoutMillis;
+    private boolean forfeitOnTimeout;
+    private boolean forfeited;
+
+    /**
+     * Estado completo como datos planos, con las celdas como índices de
+     * HexGrid y el registro de jugadas tal cual: {@link #restore(Image)}
+     * vuelve a crear la partida sin repetir sus turnos.
+     */
+    public record Image(String gameId, long version, GameStatus status, int moveCount,
+                        int boardSize, int difficulty, long seed,
+                        long moveTimeoutMillis, boolean forfeitOnTimeout, boolean forfeited,
+                        int cat, int lastPlayerMove, boolean catReplyPending,
+                        int[] blocked, int[] startingBlocked, int startingCat,
+                        int[] moveLog, int recordedTurns, int appliedTurns) {
+    }
 
     // Campos adicionales como tiempo de juego o dificultad pueden agregarse aquí
 
@@ -39,6 +65,32 @@ public class HexGameState extends GameState<HexPosition> {
         this.catPosition = new HexPosition(0, 0);
     }
 
+    private HexGameState(HexGameState other) {
+        super(other);
+        this.difficulty = other.difficulty;
+        this.catPosition = other.catPosition;
+        this.gameBoard = other.gameBoard == null ? null : other.gameBoard.fork();
+        this.boardSize = other.boardSize;
+        this.lastPlayerMove = other.lastPlayerMove;
+        this.moveLog = other.moveLog.copy();
+        this.catReplyPending = other.catReplyPending;
+        this.seed = other.seed;
+        this.startingBlocked = other.startingBlocked;
+        this.startingCat = other.startingCat;
+        this.moveTimeoutMillis = other.moveTimeoutMillis;
+        this.forfeitOnTimeout = other.forfeitOnTimeout;
+        this.forfeited = other.forfeited;
+    }
+
+    /**
+     * Copia profunda (el tablero se bifurca): el estado guardado no se toca
+     * y los lectores concurrentes siempre ven una versión completa.
+     */
+    @Override
+    public HexGameState copyForUpdate() {
+        return new HexGameState(this);
+    }
+
     @Override
     protected boolean canExecuteMove(HexPosition position) {
         if (isGameFinished()) {
@@ -55,9 +107,17 @@ public class HexGameState extends GameState<HexPosition> {
         return gameBoard.makeMove(position);
     }
 
+    @Override
+    protected void afterMoveExecution(HexPosition position) {
+        this.lastPlayerMove = position;
+        HexGrid grid = gameBoard.getGrid();
+        moveLog.append(grid.indexOf(position), grid.indexOf(catPosition));
+        catReplyPending = true;
+    }
+
     @Override
     protected void updateGameStatus() {
-        if (isCatAtBorder()) {
+        if (forfeited || isCatAtBorder()) {
             setStatus(GameStatus.PLAYER_LOST);
         } else if (isCatTrapped()) {
             setStatus(GameStatus.PLAYER_WON);
@@ -73,8 +133,218 @@ public class HexGameState extends GameState<HexPosition> {
 
     @Override
     public void setCatPosition(HexPosition position) {
+        setCatPosition(position, 0);
+    }
+
+    /**
+     * Mueve el gato anotando en el registro qué estrategia eligió el
+     * movimiento, para poder repetirlo exactamente.
+     */
+    public void setCatPosition(HexPosition position, int replyTag) {
         this.catPosition = position;
+        if (catReplyPending) {
+            moveLog.setCatTo(gameBoard.getGrid().indexOf(position), replyTag);
+            catReplyPending = false;
+        }
+        updateGameStatus();
+    }
+
+    /**
+     * Deshace el último turno: desbloquea la celda y devuelve el gato a su
+     * casilla anterior, sin reconstruir la partida.
+     */
+    public boolean undo() {
+        if (forfeited || !moveLog.canUndo()) {
+            return false;
+        }
+        HexGrid grid = gameBoard.getGrid();
+        int turn = moveLog.undo();
+        int block = moveLog.blockAt(turn);
+        if (block >= 0) {
+            gameBoard.unblock(grid.positionAt(block));
+            moveCount--;
+        }
+        catPosition = grid.positionAt(moveLog.catFromAt(turn));
+        int previous = turn > 0 ? moveLog.blockAt(turn - 1) : -1;
+        lastPlayerMove = previous >= 0 ? grid.positionAt(previous) : null;
+        catReplyPending = false;
         updateGameStatus();
+        notifyStateChanged();
+        return true;
+    }
+
+    /**
+     * Vuelve a aplicar el turno deshecho más reciente, incluida la
+     * respuesta del gato que se registró entonces. Una partida abandonada
+     * no se puede rehacer, igual que no se puede deshacer.
+     */
+    public boolean redo() {
+        if (forfeited || !moveLog.canRedo()) {
+            return false;
+        }
+        HexGrid grid = gameBoard.getGrid();
+        int turn = moveLog.redo();
+        int block = moveLog.blockAt(turn);
+        lastPlayerMove = null;
+        if (block >= 0) {
+            lastPlayerMove = grid.positionAt(block);
+            gameBoard.makeMove(lastPlayerMove);
+            moveCount++;
+        }
+        catPosition = grid.positionAt(moveLog.catToAt(turn));
+        catReplyPending = false;
+        updateGameStatus();
+        notifyStateChanged();
+        return true;
+    }
+
+    public MoveLog getMoveLog() {
+        return moveLog;
+    }
+
+    /**
+     * Turno perdido por tiempo: se registra sin bloqueo y queda a la espera
+     * de la respuesta del gato, que se mueve igualmente.
+     */
+    public void passTurn() {
+        moveLog.append(MoveLog.NO_BLOCK, gameBoard.getGrid().indexOf(catPosition));
+        catReplyPending = true;
+        lastPlayerMove = null;
+    }
+
+    /** Abandono por tiempo agotado; la partida queda perdida y no se puede deshacer. */
+    public void forfeit() {
+        forfeited = true;
+        catReplyPending = false;
+        updateGameStatus();
+        notifyStateChanged();
+    }
+
+    public long getMoveTimeoutMillis() {
+        return moveTimeoutMillis;
+    }
+
+    public boolean isForfeitOnTimeout() {
+        return forfeitOnTimeout;
+    }
+
+    /** La partida terminó por abandono al agotarse el tiempo. */
+    public boolean isForfeited() {
+        return forfeited;
+    }
+
+    public void setMoveTimeout(long millis, boolean forfeitOnTimeout) {
+        this.moveTimeoutMillis = Math.max(0, millis);
+        this.forfeitOnTimeout = forfeitOnTimeout;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Semilla del turno indicado. Se deriva solo de la semilla de la
+     * partida y del número de turno, así que no hay que guardar ni copiar
+     * ningún generador y al repetir la partida se obtienen los mismos
+     * valores. Se mezcla con mix64 en lugar de sumar un múltiplo fijo: con
+     * el paso de SplittableRandom como múltiplo, el turno n+1 arrancaría
+     * donde sigue el turno n.
+     */
+    public long seedForTurn(int turn) {
+        return mix64(seed ^ turn);
+    }
+
+    /** Finalizador de 64 bits (variante 13 de Stafford). */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Fija el tablero y el gato actuales como punto de partida de la
+     * partida (para partidas creadas desde una posición dada).
+     */
+    public void markStartingLayout() {
+        HexGrid grid = gameBoard.getGrid();
+        startingBlocked = gameBoard.getBlockedPositions().stream()
+                .mapToInt(grid::indexOf)
+                .sorted()
+                .toArray();
+        startingCat = grid.indexOf(catPosition);
+    }
+
+    /** Estado actual como {@link Image}; requiere tablero. */
+    public Image toImage() {
+        HexGrid grid = gameBoard.getGrid();
+        int[] blocked = gameBoard.getBlockedPositions().stream()
+                .mapToInt(grid::indexOf)
+                .sorted()
+                .toArray();
+        return new Image(getGameId(), getVersion(), getStatus(), getMoveCount(),
+            boardSize, difficulty, seed, moveTimeoutMillis, forfeitOnTimeout, forfeited,
+            grid.indexOf(catPosition), lastPlayerMove == null ? -1 : grid.indexOf(lastPlayerMove),
+            catReplyPending, blocked, startingBlocked.clone(), startingCat,
+            moveLog.toArray(), moveLog.recordedTurns(), moveLog.appliedTurns());
+    }
+
+    /**
+     * Partida con el estado de {@code image}, tal cual se guardó.
+     *
+     * @throws IllegalArgumentException si alguna celda o el registro no son válidos
+     */
+    public static HexGameState restore(Image image) {
+        HexGameState state = new HexGameState(image.gameId());
+        HexGameBoard board = new HexGameBoard(image.boardSize());
+        HexGrid grid = board.getGrid();
+        for (int cell : image.blocked()) {
+            if (!board.makeMove(cellAt(grid, cell))) {
+                throw new IllegalArgumentException("Invalid blocked cell " + cell);
+            }
+        }
+        state.setGameBoard(board);
+        state.difficulty = image.difficulty();
+        state.seed = image.seed();
+        state.moveTimeoutMillis = image.moveTimeoutMillis();
+        state.forfeitOnTimeout = image.forfeitOnTimeout();
+        state.forfeited = image.forfeited();
+        state.catPosition = cellAt(grid, image.cat());
+        state.lastPlayerMove = image.lastPlayerMove() < 0 ? null : cellAt(grid, image.lastPlayerMove());
+        state.catReplyPending = image.catReplyPending();
+        for (int cell : image.startingBlocked()) {
+            cellAt(grid, cell);
+        }
+        if (image.startingCat() >= 0) {
+            cellAt(grid, image.startingCat());
+        }
+        state.startingBlocked = image.startingBlocked().clone();
+        state.startingCat = image.startingCat();
+        state.moveLog = MoveLog.restore(image.moveLog(), image.recordedTurns(), image.appliedTurns());
+        state.moveCount = image.moveCount();
+        state.setStatus(image.status());
+        state.setVersion(image.version());
+        return state;
+    }
+
+    private static HexPosition cellAt(HexGrid grid, int index) {
+        if (index < 0 || index >= grid.cellCount()) {
+            throw new IllegalArgumentException("Invalid cell " + index);
+        }
+        return grid.positionAt(index);
+    }
+
+    /** Celdas bloqueadas al empezar, como índices de HexGrid. */
+    public int[] getStartingBlocked() {
+        return startingBlocked.clone();
+    }
+
+    /** Casilla inicial del gato; el centro si no se fijó otra. */
+    public HexPosition getStartingCatPosition() {
+        return startingCat < 0 ? new HexPosition(0, 0) : gameBoard.getGrid().positionAt(startingCat);
     }
 
     @Override
@@ -103,7 +373,8 @@ public class HexGameState extends GameState<HexPosition> {
             "blockedCells", gameBoard.getBlockedPositions(),
             "status", getStatus().toString(),
             "moveCount", getMoveCount(),
-            "boardSize", boardSize
+            "boardSize", boardSize,
+            "seed", seed
         );
     }
 
@@ -141,6 +412,11 @@ public class HexGameState extends GameState<HexPosition> {
             this.moveCount = n.intValue();
         }
 
+        var seedObj = map.get("seed");
+        if (seedObj instanceof Number seedNum) {
+            this.seed = seedNum.longValue();
+        }
+
         var sizeObj = map.get("boardSize");
         if (sizeObj instanceof Number sizeNum) {
             this.boardSize = sizeNum.intValue();
@@ -185,6 +461,11 @@ public class HexGameState extends GameState<HexPosition> {
         return boardSize;
     }
 
+    /** Último bloqueo del jugador, o null si aún no ha movido. */
+    public HexPosition getLastPlayerMove() {
+        return lastPlayerMove;
+    }
+
     // Métodos adicionales pueden agregarse según sea necesario,
     // por ejemplo getDifficulty(), getTimeElapsed(), etc.
 }
@@ -0,0 +1,159 @@
+package com.atraparalagato.impl.model;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Topología indexada de un tablero hexagonal de tamaño fijo.
+ *
+ * Asigna a cada celda dentro de los límites (incluido el borde) un índice
+ * entero compacto y precalcula vecinos y bordes, de modo que los algoritmos
+ * de análisis puedan trabajar con arreglos en lugar de conjuntos de
+ * HexPosition. Es inmutable y se comparte entre todas las partidas del
+ * mismo tamaño.
+ */
+public final class HexGrid {
+
+    /** Mismo orden de direcciones que HexGameBoard.getAdjacentPositions. */
+    private static final int[][] DIRECTIONS = {
+        {1, 0}, {1, -1}, {0, -1}, {-1, 0}, {-1, 1}, {0, 1}
+    };
+
+    private static final long ZOBRIST_SEED = 0x5EED_CA7L;
+
+    private static final Map<Integer, HexGrid> CACHE = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final int width;
+    private final HexPosition[] positions;
+    private final int[] lookup;
+    private final int[][] neighbors;
+    private final boolean[] border;
+    private final long[] blockKeys;
+    private final long[] catKeys;
+
+    private HexGrid(int size) {
+        this.size = size;
+        this.width = 2 * size + 1;
+        this.lookup = new int[width * width];
+        java.util.Arrays.fill(lookup, -1);
+
+        int count = 3 * size * (size + 1) + 1;
+        this.positions = new HexPosition[count];
+        this.border = new boolean[count];
+
+        int index = 0;
+        for (int q = -size; q <= size; q++) {
+            for (int r = -size; r <= size; r++) {
+                if (Math.abs(q + r) > size) {
+                    continue;
+                }
+                HexPosition pos = new HexPosition(q, r);
+                positions[index] = pos;
+                border[index] = ringOf(pos) == size;
+                lookup[slot(q, r)] = index;
+                index++;
+            }
+        }
+
+        this.neighbors = new int[count][];
+        for (int i = 0; i < count; i++) {
+            HexPosition pos = positions[i];
+            int[] buffer = new int[DIRECTIONS.length];
+            int found = 0;
+            for (int[] dir : DIRECTIONS) {
+                int n = indexOf(pos.getQ() + dir[0], pos.getR() + dir[1]);
+                if (n >= 0) {
+                    buffer[found++] = n;
+                }
+            }
+            neighbors[i] = java.util.Arrays.copyOf(buffer, found);
+        }
+
+        // Semilla fija por tamaño: los hashes deben ser estables entre
+        // reinicios porque se usan como clave en cachés y ficheros.
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED ^ size);
+        this.blockKeys = new long[count];
+        this.catKeys = new long[count];
+        for (int i = 0; i < count; i++) {
+            blockKeys[i] = random.nextLong();
+            catKeys[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Obtiene la topología compartida para un tamaño de tablero.
+     */
+    public static HexGrid of(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Board size must be positive: " + size);
+        }
+        return CACHE.computeIfAbsent(size, HexGrid::new);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int cellCount() {
+        return positions.length;
+    }
+
+    /**
+     * Índice compacto de la celda, o -1 si está fuera del tablero.
+     */
+    public int indexOf(int q, int r) {
+        if (Math.abs(q) > size || Math.abs(r) > size) {
+            return -1;
+        }
+        return lookup[slot(q, r)];
+    }
+
+    public int indexOf(HexPosition position) {
+        return indexOf(position.getQ(), position.getR());
+    }
+
+    public HexPosition positionAt(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Vecinos dentro de los límites, sin considerar bloqueos.
+     * El arreglo es compartido: no debe modificarse.
+     */
+    public int[] neighborsOf(int index) {
+        return neighbors[index];
+    }
+
+    public boolean isBorder(int index) {
+        return border[index];
+    }
+
+    /** Distancia hexagonal de la celda al centro del tablero. */
+    public int ringOf(int index) {
+        return ringOf(positions[index]);
+    }
+
+    public int distance(int from, int to) {
+        return (int) positions[from].distanceTo(positions[to]);
+    }
+
+    /** Clave Zobrist de la celda cuando está bloqueada. */
+    public long blockKey(int index) {
+        return blockKeys[index];
+    }
+
+    /** Clave Zobrist de la celda cuando el gato está en ella. */
+    public long catKey(int index) {
+        return catKeys[index];
+    }
+
+    private int slot(int q, int r) {
+        return (q + size) * width + (r + size);
+    }
+
+    private static int ringOf(HexPosition pos) {
+        return Math.max(Math.abs(pos.getQ()), Math.max(Math.abs(pos.getR()), Math.abs(pos.getS())));
+    }
+}
@@ -0,0 +1,187 @@
+package com.atraparalagato.impl.model;
+
+import java.util.Arrays;
+
+/**
+ * Registro de turnos de una partida: por cada turno, el bloqueo del
+ * jugador y el movimiento del gato, como índices de {@link HexGrid}, junto
+ * con una etiqueta de la estrategia que eligió la respuesta del gato.
+ *
+ * Deshacer y rehacer solo mueven el cursor, así que ambas operaciones son
+ * O(1). Un turno nuevo tras deshacer descarta los turnos pendientes de
+ * rehacer, como en cualquier editor.
+ *
+ * Las copias comparten el array de turnos, que solo crece por el final:
+ * cada copia tiene su propio tamaño y cursor, así que copiar es O(1). Una
+ * copia escribe en el array compartido solo si es la primera en ocupar el
+ * siguiente hueco; si otra copia ya lo ocupó, o si el turno nuevo descarta
+ * turnos deshechos que otras versiones aún pueden rehacer, primero se
+ * queda con su propio array.
+ */
+public final class MoveLog {
+
+    /** Enteros por turno: bloqueo, casilla del gato antes y después, etiqueta. */
+    private static final int STRIDE = 4;
+    private static final int INITIAL_TURNS = 16;
+    /** Bloqueo de un turno en el que el jugador no movió (tiempo agotado). */
+    public static final int NO_BLOCK = -1;
+
+    /**
+     * Array compartido entre copias. Los turnos por debajo de
+     * {@code claimed} ya tienen dueño y no se sobrescriben.
+     */
+    private static final class Store {
+        private volatile int[] entries;
+        private int claimed;
+
+        Store(int[] entries, int claimed) {
+            this.entries = entries;
+            this.claimed = claimed;
+        }
+    }
+
+    private Store store;
+    /** Turnos registrados. */
+    private int size;
+    /** Turnos aplicados actualmente (size - cursor se pueden rehacer). */
+    private int cursor;
+    /** Primer turno escrito por esta copia; solo esos se pueden completar. */
+    private int ownedFrom;
+
+    MoveLog() {
+        this.store = new Store(new int[INITIAL_TURNS * STRIDE], 0);
+    }
+
+    private MoveLog(MoveLog other) {
+        this.store = other.store;
+        this.size = other.size;
+        this.cursor = other.cursor;
+        this.ownedFrom = other.size;
+    }
+
+    MoveLog copy() {
+        return new MoveLog(this);
+    }
+
+    /**
+     * Registro con los turnos de {@link #toArray()}, en un array propio.
+     *
+     * @throws IllegalArgumentException si el tamaño o el cursor no cuadran
+     */
+    static MoveLog restore(int[] turns, int size, int cursor) {
+        if (size < 0 || cursor < 0 || cursor > size || turns.length != size * STRIDE) {
+            throw new IllegalArgumentException("Invalid move log");
+        }
+        MoveLog log = new MoveLog();
+        log.store = new Store(Arrays.copyOf(turns, Math.max(size * 2, INITIAL_TURNS) * STRIDE), size);
+        log.size = size;
+        log.cursor = cursor;
+        return log;
+    }
+
+    /** Copia de los turnos registrados, {@code STRIDE} enteros por turno. */
+    int[] toArray() {
+        return Arrays.copyOf(store.entries, size * STRIDE);
+    }
+
+    /** Registra un bloqueo; el gato queda donde estaba hasta {@link #setCatTo}. */
+    void append(int block, int catFrom) {
+        // Los turnos deshechos pueden seguir vivos en otras versiones
+        if (cursor < size) {
+            fork(cursor);
+        }
+        if (!claimNext()) {
+            fork(size);
+            claimNext();
+        }
+        int base = size * STRIDE;
+        int[] entries = store.entries;
+        entries[base] = block;
+        entries[base + 1] = catFrom;
+        entries[base + 2] = catFrom;
+        entries[base + 3] = 0;
+        size++;
+        cursor++;
+    }
+
+    /** Completa el último turno aplicado con la respuesta del gato. */
+    void setCatTo(int cat, int replyTag) {
+        int turn = cursor - 1;
+        if (turn < ownedFrom) {
+            fork(size);
+        }
+        int base = turn * STRIDE;
+        int[] entries = store.entries;
+        entries[base + 2] = cat;
+        entries[base + 3] = replyTag;
+    }
+
+    /**
+     * Ocupa el hueco {@code size} del array compartido si nadie lo ha
+     * ocupado antes, ampliando el array si hace falta.
+     */
+    private boolean claimNext() {
+        Store s = store;
+        synchronized (s) {
+            if (s.claimed != size) {
+                return false;
+            }
+            if ((size + 1) * STRIDE > s.entries.length) {
+                s.entries = Arrays.copyOf(s.entries, s.entries.length * 2);
+            }
+            s.claimed = size + 1;
+            return true;
+        }
+    }
+
+    /** Pasa a un array propio con los primeros {@code turns} turnos. */
+    private void fork(int turns) {
+        int[] entries = Arrays.copyOf(store.entries, Math.max(turns * 2, INITIAL_TURNS) * STRIDE);
+        store = new Store(entries, turns);
+        size = turns;
+        cursor = Math.min(cursor, turns);
+        ownedFrom = 0;
+    }
+
+    /** Retrocede un turno y devuelve su índice. */
+    int undo() {
+        return --cursor;
+    }
+
+    /** Avanza un turno y devuelve su índice. */
+    int redo() {
+        return cursor++;
+    }
+
+    public int blockAt(int turn) {
+        return store.entries[turn * STRIDE];
+    }
+
+    public int catFromAt(int turn) {
+        return store.entries[turn * STRIDE + 1];
+    }
+
+    public int catToAt(int turn) {
+        return store.entries[turn * STRIDE + 2];
+    }
+
+    public int replyTagAt(int turn) {
+        return store.entries[turn * STRIDE + 3];
+    }
+
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    public boolean canRedo() {
+        return cursor < size;
+    }
+
+    public int appliedTurns() {
+        return cursor;
+    }
+
+    public int recordedTurns() {
+        return size;
+    }
+}
@@ -0,0 +1,341 @@
+package com.atraparalagato.impl.repository;
+
+import com.atraparalagato.base.model.GameState;
+import com.atraparalagato.impl.model.GameIdGenerator;
+import com.atraparalagato.impl.model.HexGameState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Checkpoints periódicos de las partidas del repositorio junto al
+ * desplazamiento del diario en el que se tomaron.
+ *
+ * Formato: cabecera (magic, formato, desplazamiento, número de partidas) y,
+ * por partida, su longitud en bytes, el CRC32 y el estado completo
+ * ({@link HexGameState.Image}): configuración, gato, estado, celdas
+ * bloqueadas y el registro de jugadas tal cual. Al abrirlo se comprueban
+ * los CRC; cargar una partida es decodificarla, sin repetir sus turnos.
+ * Con las longitudes se localiza cada partida sin decodificar las demás,
+ * de modo que la carga se reparte entre hilos o se aplaza.
+ *
+ * Se escribe en un temporal, se sincroniza y se renombra de forma atómica;
+ * se conservan los dos más recientes por si el último no se puede leer.
+ */
+public class GameCheckpointStore {
+
+    private static final int MAGIC = 0x48584350;
+    private static final int FORMAT = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    /** Longitud y CRC de cada partida. */
+    private static final int GAME_HEADER_BYTES = 4 + 4;
+    /** Campos de tamaño fijo de una partida, contadores de los arrays incluidos. */
+    private static final int FIXED_GAME_BYTES = 8 + 8 + 1 + 4 + 4 + 4 + 8 + 8 + 1 + 4 + 4 + 4 + 4 + 4 + 4 + 4 + 4;
+    private static final int FORFEIT_ON_TIMEOUT = 1;
+    private static final int FORFEITED = 2;
+    private static final int CAT_REPLY_PENDING = 4;
+    private static final String SUFFIX = ".checkpoint";
+    private static final int RETAINED = 2;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /** Checkpoint mapeado en memoria; las partidas se decodifican bajo demanda. */
+    public static final class Checkpoint {
+        private final long journalOffset;
+        private final ByteBuffer data;
+        private final int[] starts;
+        private final int[] lengths;
+
+        private Checkpoint(long journalOffset, ByteBuffer data, int[] starts, int[] lengths) {
+            this.journalOffset = journalOffset;
+            this.data = data;
+            this.starts = starts;
+            this.lengths = lengths;
+        }
+
+        public long journalOffset() {
+            return journalOffset;
+        }
+
+        public int gameCount() {
+            return starts.length;
+        }
+
+        /** Id de la partida {@code index}. */
+        public String gameId(int index) {
+            return GameIdGenerator.encode(data.getLong(starts[index]));
+        }
+
+        /**
+         * Estado de la partida {@code index}. Solo hace lecturas absolutas,
+         * así que se puede llamar desde varios hilos a la vez.
+         *
+         * @throws IllegalStateException si la partida está dañada
+         */
+        public HexGameState state(int index) {
+            try {
+                return HexGameState.restore(decode(data.slice(starts[index], lengths[index])));
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Corrupt checkpoint game at " + starts[index], e);
+            }
+        }
+    }
+
+    private final Path directory;
+    private volatile long lastOffset = -1;
+    private volatile int lastGames;
+    private volatile long lastMillis;
+    private final LongAdder discarded = new LongAdder();
+    private volatile String lastError;
+
+    public GameCheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Escribe un checkpoint de {@code games} asociado a {@code journalOffset}
+     * y borra los que ya no se conservan. Devuelve las partidas escritas.
+     */
+    public synchronized int write(long journalOffset, Collection<HexGameState> games) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Path target = file(journalOffset);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        int count = 0;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC).putInt(FORMAT).putLong(journalOffset).putInt(0);
+            for (HexGameState game : games) {
+                long id = GameIdGenerator.decode(game.getGameId());
+                if (id < 0 || game.getGameBoard() == null) {
+                    continue;
+                }
+                HexGameState.Image image = game.toImage();
+                int size = GAME_HEADER_BYTES + encodedSize(image);
+                if (buffer.remaining() < size) {
+                    flush(out, buffer);
+                    if (buffer.capacity() < size) {
+                        buffer = ByteBuffer.allocate(size);
+                    }
+                }
+                int at = buffer.position();
+                buffer.position(at + GAME_HEADER_BYTES);
+                encode(buffer, id, image);
+                crc.reset();
+                crc.update(buffer.slice(at + GAME_HEADER_BYTES, size - GAME_HEADER_BYTES));
+                buffer.putInt(at, size - GAME_HEADER_BYTES);
+                buffer.putInt(at + 4, (int) crc.getValue());
+                count++;
+            }
+            flush(out, buffer);
+            out.write(ByteBuffer.allocate(4).putInt(0, count), HEADER_BYTES - 4);
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        prune();
+        lastOffset = journalOffset;
+        lastGames = count;
+        lastMillis = (System.nanoTime() - start) / 1_000_000;
+        return count;
+    }
+
+    /**
+     * Último checkpoint legible; si el más reciente está dañado (cabecera,
+     * longitudes o CRC de alguna partida), el anterior.
+     */
+    public Optional<Checkpoint> loadLatest() {
+        List<Long> offsets = offsets();
+        for (int i = offsets.size() - 1; i >= 0; i--) {
+            try {
+                return Optional.of(load(file(offsets.get(i))));
+            } catch (IOException | RuntimeException e) {
+                discarded.increment();
+                lastError = "Checkpoint " + offsets.get(i) + ": " + e.getMessage();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Desplazamiento del checkpoint más antiguo que se conserva: el diario
+     * anterior a él ya no hace falta. -1 si no hay ninguno.
+     */
+    public long oldestRetainedOffset() {
+        List<Long> offsets = offsets();
+        return offsets.isEmpty() ? -1 : offsets.get(0);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("retained", offsets().size());
+        stats.put("lastJournalOffset", lastOffset);
+        stats.put("lastGames", lastGames);
+        stats.put("lastMillis", lastMillis);
+        stats.put("discarded", discarded.sum());
+        if (lastError != null) {
+            stats.put("lastError", lastError);
+        }
+        return stats;
+    }
+
+    private Checkpoint load(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            if (data.limit() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != FORMAT) {
+                throw new IllegalStateException("Not a checkpoint file");
+            }
+            int count = data.getInt(16);
+            if (count < 0) {
+                throw new IllegalStateException("Truncated checkpoint");
+            }
+            int[] starts = new int[count];
+            int[] lengths = new int[count];
+            CRC32 crc = new CRC32();
+            int position = HEADER_BYTES;
+            for (int i = 0; i < count; i++) {
+                if (position + GAME_HEADER_BYTES > data.limit()) {
+                    throw new IllegalStateException("Truncated checkpoint");
+                }
+                lengths[i] = data.getInt(position);
+                starts[i] = position + GAME_HEADER_BYTES;
+                if (lengths[i] < FIXED_GAME_BYTES || lengths[i] > data.limit() - starts[i]) {
+                    throw new IllegalStateException("Truncated checkpoint");
+                }
+                crc.reset();
+                crc.update(data.slice(starts[i], lengths[i]));
+                if ((int) crc.getValue() != data.getInt(position + 4)) {
+                    throw new IllegalStateException("Corrupt checkpoint game at " + starts[i]);
+                }
+                position = starts[i] + lengths[i];
+            }
+            return new Checkpoint(data.getLong(8), data, starts, lengths);
+        }
+    }
+
+    private static int encodedSize(HexGameState.Image image) {
+        return FIXED_GAME_BYTES
+            + 4 * (image.blocked().length + image.startingBlocked().length + image.moveLog().length);
+    }
+
+    private static void encode(ByteBuffer buffer, long id, HexGameState.Image image) {
+        buffer.putLong(id);
+        buffer.putLong(image.version());
+        buffer.put((byte) image.status().ordinal());
+        buffer.putInt(image.moveCount());
+        buffer.putInt(image.boardSize());
+        buffer.putInt(image.difficulty());
+        buffer.putLong(image.seed());
+        buffer.putLong(image.moveTimeoutMillis());
+        buffer.put((byte) ((image.forfeitOnTimeout() ? FORFEIT_ON_TIMEOUT : 0)
+            | (image.forfeited() ? FORFEITED : 0)
+            | (image.catReplyPending() ? CAT_REPLY_PENDING : 0)));
+        buffer.putInt(image.cat());
+        buffer.putInt(image.lastPlayerMove());
+        buffer.putInt(image.startingCat());
+        buffer.putInt(image.recordedTurns());
+        buffer.putInt(image.appliedTurns());
+        putInts(buffer, image.blocked());
+        putInts(buffer, image.startingBlocked());
+        putInts(buffer, image.moveLog());
+    }
+
+    /**
+     * Lee una partida escrita por {@link #encode}.
+     *
+     * @throws RuntimeException si los datos no forman una partida
+     */
+    private static HexGameState.Image decode(ByteBuffer buffer) {
+        String gameId = GameIdGenerator.encode(buffer.getLong());
+        long version = buffer.getLong();
+        GameState.GameStatus status = GameState.GameStatus.values()[buffer.get()];
+        int moveCount = buffer.getInt();
+        int boardSize = buffer.getInt();
+        int difficulty = buffer.getInt();
+        long seed = buffer.getLong();
+        long moveTimeoutMillis = buffer.getLong();
+        int flags = buffer.get();
+        int cat = buffer.getInt();
+        int lastPlayerMove = buffer.getInt();
+        int startingCat = buffer.getInt();
+        int recordedTurns = buffer.getInt();
+        int appliedTurns = buffer.getInt();
+        int[] blocked = getInts(buffer);
+        int[] startingBlocked = getInts(buffer);
+        int[] moveLog = getInts(buffer);
+        if (buffer.hasRemaining()) {
+            throw new IllegalStateException("Trailing bytes in checkpoint game");
+        }
+        return new HexGameState.Image(gameId, version, status, moveCount, boardSize, difficulty, seed,
+            moveTimeoutMillis, (flags & FORFEIT_ON_TIMEOUT) != 0, (flags & FORFEITED) != 0,
+            cat, lastPlayerMove, (flags & CAT_REPLY_PENDING) != 0,
+            blocked, startingBlocked, startingCat, moveLog, recordedTurns, appliedTurns);
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.putInt(values.length);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+    }
+
+    private static int[] getInts(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / 4) {
+            throw new IllegalStateException("Truncated checkpoint game");
+        }
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * length);
+        return values;
+    }
+
+    private void prune() throws IOException {
+        List<Long> offsets = offsets();
+        for (int i = 0; i < offsets.size() - RETAINED; i++) {
+            Files.deleteIfExists(file(offsets.get(i)));
+        }
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private Path file(long journalOffset) {
+        return directory.resolve(String.format("%020d%s", journalOffset, SUFFIX));
+    }
+
+    /** Desplazamientos de los checkpoints del directorio, en orden. */
+    private List<Long> offsets() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                .filter(name -> name.matches("\\d{20}\\" + SUFFIX))
+                .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.atraparalagato.impl.repository;
+
+import com.atraparalagato.impl.model.GameIdGenerator;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de partidas de solo escritura al final, en segmentos mapeados en
+ * memoria.
+ *
+ * Cada registro es binario: longitud y CRC32 de la carga (4 + 4 bytes) y
+ * la carga: tipo, id de partida como long ({@link GameIdGenerator}),
+ * versión, turno, celda y nivel; la creación añade la configuración y los
+ * bloqueos iniciales. Un turno ocupa 34 bytes.
+ *
+ * Los segmentos tienen tamaño fijo y se nombran por su desplazamiento
+ * inicial; al llenarse uno se sincroniza y se abre el siguiente. Los
+ * anteriores se conservan hasta que un checkpoint los cubre (ver
+ * {@link #deleteSegmentsBefore(long)}). {@link #append(List)} escribe un lote completo
+ * y sincroniza una sola vez (commit en grupo): cuanto más tráfico, más
+ * registros por sincronización.
+ */
+public class GameJournal implements Closeable {
+
+    /**
+     * Fallo de escritura a mitad de un lote. Los primeros
+     * {@link #consumed()} registros del lote ya están escritos (aunque
+     * quizá no sincronizados): se reintenta con el resto.
+     */
+    public static final class AppendException extends IllegalStateException {
+        private final int consumed;
+
+        AppendException(int consumed, Throwable cause) {
+            super("Cannot append to game journal: " + cause.getMessage(), cause);
+            this.consumed = consumed;
+        }
+
+        public int consumed() {
+            return consumed;
+        }
+    }
+
+    /**
+     * Configuración (propiedades {@code game.journal.*}).
+     */
+    public record Settings(boolean enabled, String directory, int segmentBytes,
+                           int checkpointIntervalSeconds, boolean lazyRecovery) {
+
+        public static Settings defaults() {
+            return new Settings(false, "data/journal", 64 << 20, 60, false);
+        }
+    }
+
+    static final String SUFFIX = ".journal";
+    static final int HEADER_BYTES = 8;
+    /** Tipo, id, versión, turno, q, r y nivel. */
+    static final int FIXED_PAYLOAD = 1 + 8 + 8 + 4 + 2 + 2 + 1;
+    /** Tamaño, dificultad, semilla, tiempo por jugada, abandono y número de bloqueos. */
+    static final int SETUP_PAYLOAD = 2 + 1 + 8 + 8 + 1 + 2;
+    static final short NO_CELL = Short.MIN_VALUE;
+    private static final int MIN_SEGMENT_BYTES = 4096;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final CRC32 crc = new CRC32();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentBase;
+    private volatile long durableOffset;
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder deleteFailures = new LongAdder();
+    private volatile long lastSyncMicros;
+
+    /**
+     * Abre el diario en {@code directory}. Si ya hay segmentos, se sigue
+     * escribiendo tras el último registro válido del más reciente.
+     */
+    public GameJournal(Path directory, int segmentBytes) throws IOException {
+        if (segmentBytes < MIN_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Segment size must be at least " + MIN_SEGMENT_BYTES + " bytes");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        List<Long> bases = segmentBases(directory);
+        if (bases.isEmpty()) {
+            openSegment(0);
+        } else {
+            openSegment(bases.get(bases.size() - 1));
+            recoverEnd();
+        }
+        durableOffset = endOffset();
+    }
+
+    /**
+     * Escribe los registros y los sincroniza con una única llamada a
+     * force(). Los registros de partidas con id antiguo se omiten. Con un
+     * lote vacío solo se sincroniza lo que hubiera pendiente.
+     *
+     * @throws IllegalArgumentException si un registro no cabe en un segmento
+     * @throws AppendException si falla la escritura o la sincronización
+     */
+    public synchronized void append(List<JournalRecord> batch) {
+        for (JournalRecord record : batch) {
+            if (recordSize(record) > segment.capacity()) {
+                throw new IllegalArgumentException("Journal record larger than a segment");
+            }
+        }
+        int consumed = 0;
+        int written = 0;
+        try {
+            for (JournalRecord record : batch) {
+                long id = GameIdGenerator.decode(record.gameId());
+                if (id >= 0) {
+                    int size = recordSize(record);
+                    if (segment.remaining() < size) {
+                        roll();
+                    }
+                    write(segment, record, id, crc);
+                    bytes.add(size);
+                    written++;
+                } else {
+                    skipped.increment();
+                }
+                consumed++;
+            }
+            if (endOffset() > durableOffset) {
+                long start = System.nanoTime();
+                segment.force();
+                lastSyncMicros = (System.nanoTime() - start) / 1_000;
+                syncs.increment();
+                durableOffset = endOffset();
+            }
+            records.add(written);
+        } catch (RuntimeException e) {
+            failures.increment();
+            records.add(written);
+            throw new AppendException(consumed, e);
+        }
+    }
+
+    /** Desplazamiento tras el último registro escrito. */
+    public synchronized long endOffset() {
+        return segmentBase + segment.position();
+    }
+
+    /** Desplazamiento hasta el que todo está sincronizado en disco. */
+    public long durableOffset() {
+        return durableOffset;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Map<String, Object> getStatistics() {
+        long syncCount = syncs.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("directory", directory.toString());
+        stats.put("endOffset", endOffset());
+        stats.put("durableOffset", durableOffset);
+        stats.put("records", records.sum());
+        stats.put("bytes", bytes.sum());
+        stats.put("syncs", syncCount);
+        stats.put("recordsPerSync", syncCount == 0 ? 0.0 : (double) records.sum() / syncCount);
+        stats.put("lastSyncMicros", lastSyncMicros);
+        stats.put("skipped", skipped.sum());
+        stats.put("failures", failures.sum());
+        stats.put("deleteFailures", deleteFailures.sum());
+        return stats;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        segment.force();
+        channel.close();
+    }
+
+    /**
+     * Borra los segmentos que terminan antes de {@code offset}; el
+     * segmento abierto nunca se borra. Devuelve cuántos se borraron.
+     */
+    public synchronized int deleteSegmentsBefore(long offset) {
+        int deleted = 0;
+        try {
+            List<Long> bases = segmentBases(directory);
+            for (int i = 0; i + 1 < bases.size() && bases.get(i + 1) <= offset; i++) {
+                if (bases.get(i) != segmentBase && Files.deleteIfExists(segmentFile(directory, bases.get(i)))) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            // Se vuelve a intentar con el siguiente checkpoint
+            deleteFailures.increment();
+        }
+        return deleted;
+    }
+
+    /**
+     * Recorre en orden los registros del diario a partir de
+     * {@code fromOffset} y devuelve el desplazamiento tras el último.
+     */
+    public static long replay(Path directory, long fromOffset, Consumer<JournalRecord> consumer) throws IOException {
+        List<Long> bases = segmentBases(directory);
+        CRC32 crc = new CRC32();
+        long end = fromOffset;
+        for (int i = 0; i < bases.size(); i++) {
+            long base = bases.get(i);
+            if (i + 1 < bases.size() && bases.get(i + 1) <= fromOffset) {
+                continue;
+            }
+            try (FileChannel file = FileChannel.open(segmentFile(directory, base), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+                int position = (int) Math.max(0, fromOffset - base);
+                JournalRecord record;
+                while ((record = read(buffer, position, crc)) != null) {
+                    consumer.accept(record);
+                    position += HEADER_BYTES + buffer.getInt(position);
+                }
+                end = base + position;
+            }
+        }
+        return end;
+    }
+
+    /** Bytes que ocupa el registro, cabecera incluida. */
+    static int recordSize(JournalRecord record) {
+        JournalRecord.Setup setup = record.setup();
+        return HEADER_BYTES + FIXED_PAYLOAD
+            + (setup == null ? 0 : SETUP_PAYLOAD + 4 * setup.blockedCells().size());
+    }
+
+    /**
+     * Escribe el registro (cabecera y carga) en la posición actual del
+     * búfer y la avanza. {@code id} es el id de partida ya decodificado.
+     */
+    static void write(ByteBuffer buffer, JournalRecord record, long id, CRC32 crc) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_BYTES);
+        buffer.put((byte) record.type().ordinal());
+        buffer.putLong(id);
+        buffer.putLong(record.version());
+        buffer.putInt(record.turn());
+        putCell(buffer, record.position());
+        buffer.put((byte) record.level());
+        JournalRecord.Setup setup = record.setup();
+        if (setup != null) {
+            buffer.putShort((short) setup.boardSize());
+            buffer.put((byte) setup.difficulty());
+            buffer.putLong(setup.seed());
+            buffer.putLong(setup.moveTimeoutMillis());
+            buffer.put((byte) (setup.forfeitOnTimeout() ? 1 : 0));
+            buffer.putShort((short) setup.blockedCells().size());
+            setup.blockedCells().forEach(cell -> putCell(buffer, cell));
+        }
+        int payload = buffer.position() - start - HEADER_BYTES;
+        crc.reset();
+        crc.update(buffer.slice(start + HEADER_BYTES, payload));
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.putInt(start, payload);
+    }
+
+    /**
+     * Registro que empieza en {@code start} (lectura absoluta, no mueve
+     * el búfer), o null si no hay un registro completo con CRC válido.
+     */
+    static JournalRecord read(ByteBuffer buffer, int start, CRC32 crc) {
+        if (start < 0 || start + HEADER_BYTES > buffer.limit()) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length < FIXED_PAYLOAD || length > buffer.limit() - start - HEADER_BYTES) {
+            return null;
+        }
+        int p = start + HEADER_BYTES;
+        crc.reset();
+        crc.update(buffer.slice(p, length));
+        if ((int) crc.getValue() != buffer.getInt(start + 4)) {
+            return null;
+        }
+        JournalRecord.Type[] types = JournalRecord.Type.values();
+        int ordinal = buffer.get(p);
+        if (ordinal < 0 || ordinal >= types.length) {
+            return null;
+        }
+        JournalRecord.Type type = types[ordinal];
+        String gameId = GameIdGenerator.encode(buffer.getLong(p + 1));
+        long version = buffer.getLong(p + 9);
+        int turn = buffer.getInt(p + 17);
+        HexPosition cell = getCell(buffer, p + 21);
+        int level = buffer.get(p + 25);
+        if (type != JournalRecord.Type.CREATED) {
+            return JournalRecord.of(type, gameId, version, turn, cell, level);
+        }
+        int q = p + FIXED_PAYLOAD;
+        int count = buffer.getShort(q + 20);
+        List<HexPosition> blocked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            blocked.add(getCell(buffer, q + SETUP_PAYLOAD + 4 * i));
+        }
+        return JournalRecord.created(gameId, version, cell, new JournalRecord.Setup(
+            buffer.getShort(q), buffer.get(q + 2), buffer.getLong(q + 3), buffer.getLong(q + 11),
+            buffer.get(q + 19) != 0, blocked));
+    }
+
+    private static void putCell(ByteBuffer buffer, HexPosition position) {
+        buffer.putShort(position == null ? NO_CELL : (short) position.getQ());
+        buffer.putShort(position == null ? NO_CELL : (short) position.getR());
+    }
+
+    private static HexPosition getCell(ByteBuffer buffer, int position) {
+        short q = buffer.getShort(position);
+        short r = buffer.getShort(position + 2);
+        return q == NO_CELL ? null : new HexPosition(q, r);
+    }
+
+    /**
+     * Sincroniza el segmento lleno y abre el siguiente. Si falla, el
+     * segmento lleno sigue siendo el actual y se puede volver a intentar.
+     */
+    private void roll() {
+        segment.force();
+        try {
+            channel.close();
+            openSegment(endOffset());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot roll journal segment", e);
+        }
+    }
+
+    private void openSegment(long base) throws IOException {
+        Path file = segmentFile(directory, base);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(channel.size(), segmentBytes);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segmentBase = base;
+    }
+
+    /**
+     * Se sitúa tras el último registro con CRC válido y pone a cero el
+     * resto: tras una caída pueden quedar páginas posteriores escritas
+     * fuera de orden que no deben reaparecer detrás de registros nuevos.
+     */
+    private void recoverEnd() {
+        int position = 0;
+        while (read(segment, position, crc) != null) {
+            position += HEADER_BYTES + segment.getInt(position);
+        }
+        for (int i = position; i < segment.capacity(); i++) {
+            if (segment.get(i) != 0) {
+                segment.put(i, (byte) 0);
+            }
+        }
+        segment.position(position);
+    }
+
+    private static Path segmentFile(Path directory, long base) {
+        return directory.resolve(String.format("%020d%s", base, SUFFIX));
+    }
+
+    /** Desplazamientos iniciales de los segmentos del directorio, en orden. */
+    static List<Long> segmentBases(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                .filter(name -> name.matches("\\d{20}\\" + SUFFIX))
+                .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                .sorted()
+                .toList();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.atraparalagato.impl.repository;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGameState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recuperación de partidas tras un reinicio: el último checkpoint más la
+ * cola del diario escrita después.
+ *
+ * Cargar solo lee el índice del checkpoint y la cola del diario; cada
+ * partida se reconstruye por separado con {@link #rebuild(String)}, así
+ * que se puede hacer en paralelo o la primera vez que se pida.
+ *
+ * Las partidas del checkpoint se restauran tal cual y solo se repite su
+ * cola. Todos los registros de un mismo guardado llevan su versión. El
+ * checkpoint se toma con un desplazamiento anterior a la lectura de los
+ * estados, así que los registros de la cola con versión menor o igual a
+ * la del checkpoint ya están incluidos en él y se descartan. Las partidas
+ * que no están en el checkpoint se rehacen desde su creación en el diario.
+ */
+public final class GameRecovery {
+
+    private final GameCheckpointStore.Checkpoint checkpoint;
+    private final Map<String, Integer> checkpointIndex;
+    private final Map<String, List<JournalRecord>> tails;
+    private final long tailRecords;
+    private final LongAdder failed = new LongAdder();
+
+    private GameRecovery(GameCheckpointStore.Checkpoint checkpoint, Map<String, Integer> checkpointIndex,
+                         Map<String, List<JournalRecord>> tails, long tailRecords) {
+        this.checkpoint = checkpoint;
+        this.checkpointIndex = checkpointIndex;
+        this.tails = tails;
+        this.tailRecords = tailRecords;
+    }
+
+    /**
+     * Lee el checkpoint más reciente que sea válido y los registros del
+     * diario posteriores a él (todo el diario si no hay checkpoint).
+     */
+    public static GameRecovery load(GameCheckpointStore checkpoints, Path journalDirectory) throws IOException {
+        GameCheckpointStore.Checkpoint checkpoint = checkpoints.loadLatest().orElse(null);
+        Map<String, Integer> index = new HashMap<>();
+        if (checkpoint != null) {
+            for (int i = 0; i < checkpoint.gameCount(); i++) {
+                index.put(checkpoint.gameId(i), i);
+            }
+        }
+        Map<String, List<JournalRecord>> tails = new HashMap<>();
+        long[] count = {0};
+        GameJournal.replay(journalDirectory, checkpoint == null ? 0 : checkpoint.journalOffset(), record -> {
+            tails.computeIfAbsent(record.gameId(), id -> new ArrayList<>()).add(record);
+            count[0]++;
+        });
+        return new GameRecovery(checkpoint, index, tails, count[0]);
+    }
+
+    public Set<String> gameIds() {
+        Set<String> ids = new HashSet<>(checkpointIndex.keySet());
+        ids.addAll(tails.keySet());
+        return ids;
+    }
+
+    public int checkpointGames() {
+        return checkpointIndex.size();
+    }
+
+    public long tailRecords() {
+        return tailRecords;
+    }
+
+    /**
+     * Partidas que no se pudieron reconstruir: datos dañados, registros que
+     * no aplican o cola sin creación ni checkpoint.
+     */
+    public long failedGames() {
+        return failed.sum();
+    }
+
+    /**
+     * Reconstruye la partida. Vacío si la partida caducó, si no está en el
+     * checkpoint y su historia no empieza por la creación (segmentos ya
+     * borrados) o si no se puede aplicar; estos dos últimos casos se
+     * cuentan en {@link #failedGames()}.
+     */
+    public Optional<HexGameState> rebuild(String gameId) {
+        List<JournalRecord> tail = tails.getOrDefault(gameId, List.of());
+        if (tail.stream().anyMatch(record -> record.type() == JournalRecord.Type.EXPIRED)) {
+            return Optional.empty();
+        }
+        try {
+            Integer index = checkpointIndex.get(gameId);
+            if (index != null) {
+                HexGameState state = checkpoint.state(index);
+                long covered = state.getVersion();
+                for (JournalRecord record : tail) {
+                    if (record.version() > covered) {
+                        apply(state, record);
+                    }
+                }
+                return Optional.of(state);
+            }
+            if (tail.isEmpty()) {
+                return Optional.empty();
+            }
+            if (tail.get(0).type() != JournalRecord.Type.CREATED) {
+                // Cambios de una partida cuyo principio ya no está en ningún sitio
+                failed.increment();
+                return Optional.empty();
+            }
+            return Optional.of(rebuild(tail));
+        } catch (RuntimeException e) {
+            failed.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Vuelve a crear la partida a partir de su historia, que debe empezar
+     * por {@link JournalRecord.Type#CREATED}.
+     *
+     * @throws IllegalStateException si un registro no se puede aplicar
+     */
+    static HexGameState rebuild(List<JournalRecord> history) {
+        JournalRecord created = history.get(0);
+        JournalRecord.Setup setup = created.setup();
+        HexGameState state = new HexGameState(created.gameId());
+        HexGameBoard board = new HexGameBoard(setup.boardSize());
+        state.setGameBoard(board);
+        state.setDifficulty(setup.difficulty());
+        state.setSeed(setup.seed());
+        state.setMoveTimeout(setup.moveTimeoutMillis(), setup.forfeitOnTimeout());
+        setup.blockedCells().forEach(board::makeMove);
+        state.setCatPosition(created.position());
+        state.markStartingLayout();
+        state.setVersion(created.version());
+        for (int i = 1; i < history.size(); i++) {
+            apply(state, history.get(i));
+        }
+        return state;
+    }
+
+    private static void apply(HexGameState state, JournalRecord record) {
+        boolean applied = switch (record.type()) {
+            case BLOCK -> state.executeMove(record.position());
+            case CAT_MOVED -> {
+                state.setCatPosition(record.position(), record.level());
+                yield true;
+            }
+            case PASS -> {
+                state.passTurn();
+                yield true;
+            }
+            case UNDO -> state.undo();
+            case REDO -> state.redo();
+            case FORFEIT -> {
+                state.forfeit();
+                yield true;
+            }
+            case CREATED, EXPIRED -> false;
+        };
+        if (!applied) {
+            throw new IllegalStateException(record.type() + " at version " + record.version() + " does not apply");
+        }
+        state.setVersion(record.version());
+    }
+}
@@ -25,11 +25,38 @@ public class H2GameRepository extends DataRepository<HexGameState, String> {
     @Override
     public HexGameState save(HexGameState entity) {
         beforeSave(entity);
-        storage.put(entity.getGameId(), entity);
+        storage.compute(entity.getGameId(), (id, current) -> {
+            long currentVersion = current == null ? 0 : current.getVersion();
+            entity.setVersion(Math.max(currentVersion, entity.getVersion()) + 1);
+            return entity;
+        });
         afterSave(entity);
         return entity;
     }
 
+    /**
+     * Guardado condicional atómico: la comprobación de versión y el
+     * reemplazo ocurren dentro del mismo compute del mapa.
+     */
+    @Override
+    public boolean saveIfVersionMatches(HexGameState entity, long expectedVersion) {
+        beforeSave(entity);
+        boolean[] saved = {false};
+        storage.compute(entity.getGameId(), (id, current) -> {
+            long currentVersion = current == null ? 0 : current.getVersion();
+            if (currentVersion != expectedVersion) {
+                return current;
+            }
+            entity.setVersion(expectedVersion + 1);
+            saved[0] = true;
+            return entity;
+        });
+        if (saved[0]) {
+            afterSave(entity);
+        }
+        return saved[0];
+    }
+
     @Override
     public Optional<HexGameState> findById(String id) {
         return Optional.ofNullable(storage.get(id));
@@ -1,11 +1,17 @@
 package com.atraparalagato.impl.repository;
 
 import com.atraparalagato.base.repository.DataRepository;
+import com.atraparalagato.impl.model.GameIdGenerator;
+import com.atraparalagato.impl.model.HexGameSnapshot;
 import com.atraparalagato.impl.model.HexGameState;
 
+import java.time.Instant;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -15,10 +21,32 @@ import java.util.stream.Collectors;
  * Se inspira en la implementación de ejemplo pero adaptado para la versión
  * de estudiantes. No usa una base de datos real pero cumple con la interfaz
  * DataRepository.
+ *
+ * Las partidas se guardan en un mapa ordenado por id. Los ids de
+ * {@link GameIdGenerator} ordenan por fecha de creación, así que las
+ * consultas por rango de tiempo y la limpieza de partidas antiguas son
+ * recorridos de un subrango. Los ids de otro formato (UUID) se apuntan
+ * aparte y se revisan por {@code createdAt}.
+ *
+ * Cada guardado publica además una {@link HexGameSnapshot}; las consultas
+ * de solo lectura deben usar las fotos en lugar de los estados vivos.
+ *
+ * Tras un reinicio las partidas recuperadas pueden quedar dormidas: solo
+ * se conoce su id y se reconstruyen la primera vez que se piden por id,
+ * como estado o como foto (o al despertarlas todas con
+ * {@link #hydrateAll()}). Los recorridos completos ({@link #findAll()},
+ * {@link #allSnapshots()}) solo incluyen las ya despiertas, así que los
+ * listados son parciales mientras {@link #dormantCount()} sea mayor que 0.
  */
 public class InMemoryHexGameRepository extends DataRepository<HexGameState, String> {
 
-    private final Map<String, HexGameState> storage = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, HexGameState> storage = new ConcurrentSkipListMap<>();
+    private final Set<String> unorderedIds = ConcurrentHashMap.newKeySet();
+    private final Map<String, HexGameSnapshot> snapshots = new ConcurrentHashMap<>();
+    /** Ids de partidas recuperadas aún sin reconstruir. */
+    private final ConcurrentHashMap<String, Boolean> dormant = new ConcurrentHashMap<>();
+    private volatile Function<String, Optional<HexGameState>> hydrator = id -> Optional.empty();
+    private volatile Consumer<HexGameState> onHydrated = state -> { };
 
     @Override
     public HexGameState save(HexGameState entity) {
@@ -26,17 +54,57 @@ public class InMemoryHexGameRepository extends DataRepository<HexGameState, Stri
             throw new IllegalArgumentException("Entity cannot be null");
         }
         beforeSave(entity);
-        storage.put(entity.getGameId(), entity);
+        // compute del skip list puede reintentar la función: se parte siempre de la versión original
+        long baseVersion = entity.getVersion();
+        storage.compute(entity.getGameId(), (id, current) -> {
+            long currentVersion = current == null ? 0 : current.getVersion();
+            entity.setVersion(Math.max(currentVersion, baseVersion) + 1);
+            return entity;
+        });
+        if (!GameIdGenerator.isValid(entity.getGameId())) {
+            unorderedIds.add(entity.getGameId());
+        }
         afterSave(entity);
         return entity;
     }
 
+    /**
+     * Guardado condicional atómico: la comprobación de versión y el
+     * reemplazo ocurren dentro del mismo compute del mapa.
+     */
+    @Override
+    public boolean saveIfVersionMatches(HexGameState entity, long expectedVersion) {
+        beforeSave(entity);
+        boolean[] saved = {false};
+        storage.compute(entity.getGameId(), (id, current) -> {
+            long currentVersion = current == null ? 0 : current.getVersion();
+            saved[0] = false;
+            if (currentVersion != expectedVersion) {
+                return current;
+            }
+            entity.setVersion(expectedVersion + 1);
+            saved[0] = true;
+            return entity;
+        });
+        if (saved[0]) {
+            if (!GameIdGenerator.isValid(entity.getGameId())) {
+                unorderedIds.add(entity.getGameId());
+            }
+            afterSave(entity);
+        }
+        return saved[0];
+    }
+
     @Override
     public Optional<HexGameState> findById(String id) {
         if (id == null) {
             return Optional.empty();
         }
-        return Optional.ofNullable(storage.get(id));
+        HexGameState state = storage.get(id);
+        if (state == null && wake(id)) {
+            state = storage.get(id);
+        }
+        return Optional.ofNullable(state);
     }
 
     @Override
@@ -72,7 +140,10 @@ public class InMemoryHexGameRepository extends DataRepository<HexGameState, Stri
         if (id == null) {
             return false;
         }
-        return storage.remove(id) != null;
+        unorderedIds.remove(id);
+        snapshots.remove(id);
+        boolean wasDormant = dormant.remove(id) != null;
+        return storage.remove(id) != null || wasDormant;
     }
 
     @Override
@@ -84,6 +155,8 @@ public class InMemoryHexGameRepository extends DataRepository<HexGameState, Stri
 
         long deleted = 0;
         for (String gameId : toDelete) {
+            unorderedIds.remove(gameId);
+            snapshots.remove(gameId);
             if (storage.remove(gameId) != null) {
                 deleted++;
             }
@@ -93,7 +166,7 @@ public class InMemoryHexGameRepository extends DataRepository<HexGameState, Stri
 
     @Override
     public boolean existsById(String id) {
-        return id != null && storage.containsKey(id);
+        return id != null && (storage.containsKey(id) || dormant.containsKey(id));
     }
 
     @Override
@@ -159,6 +232,9 @@ public class InMemoryHexGameRepository extends DataRepository<HexGameState, Stri
     @Override
     protected void cleanup() {
         storage.clear();
+        unorderedIds.clear();
+        snapshots.clear();
+        dormant.clear();
     }
 
     @Override
@@ -173,18 +249,128 @@ public class InMemoryHexGameRepository extends DataRepository<HexGameState, Stri
         }
     }
 
+    /**
+     * Publica la foto del estado recién confirmado. Si dos guardados de la
+     * misma partida terminan desordenados, gana la versión más alta.
+     */
     @Override
     protected void afterSave(HexGameState entity) {
-        // no-op
+        snapshots.merge(entity.getGameId(), HexGameSnapshot.of(entity),
+                (published, fresh) -> fresh.version() >= published.version() ? fresh : published);
+    }
+
+    /**
+     * Coloca una partida recuperada tal cual, sin cambiar su versión. Si ya
+     * hay una versión igual o más reciente, se conserva esa.
+     */
+    public void restore(HexGameState state) {
+        beforeSave(state);
+        HexGameState stored = storage.merge(state.getGameId(), state,
+                (current, recovered) -> recovered.getVersion() > current.getVersion() ? recovered : current);
+        if (stored == state) {
+            afterSave(state);
+        }
+    }
+
+    /**
+     * Registra partidas recuperadas sin reconstruirlas. {@code hydrator}
+     * las reconstruye cuando se piden y {@code onHydrated} recibe cada una
+     * ya colocada en el repositorio.
+     */
+    public void registerDormant(Collection<String> ids, Function<String, Optional<HexGameState>> hydrator,
+                                Consumer<HexGameState> onHydrated) {
+        this.hydrator = hydrator;
+        this.onHydrated = onHydrated;
+        for (String id : ids) {
+            if (!storage.containsKey(id)) {
+                dormant.put(id, Boolean.TRUE);
+            }
+        }
+    }
+
+    /** Reconstruye en paralelo todas las partidas dormidas. */
+    public void hydrateAll() {
+        dormant.keySet().parallelStream().forEach(this::hydrate);
+    }
+
+    public int dormantCount() {
+        return dormant.size();
+    }
+
+    /**
+     * Reconstruye una partida dormida. El compute del mapa garantiza que
+     * solo un hilo la reconstruye; los demás esperan y la leen después.
+     */
+    private void hydrate(String id) {
+        dormant.computeIfPresent(id, (key, marker) -> {
+            hydrator.apply(key).ifPresent(state -> {
+                restore(state);
+                onHydrated.accept(state);
+            });
+            return null;
+        });
+    }
+
+    /** Despierta la partida si está dormida; false si no lo estaba. */
+    private boolean wake(String id) {
+        if (!dormant.containsKey(id)) {
+            return false;
+        }
+        hydrate(id);
+        return true;
+    }
+
+    /** Última foto publicada de la partida; una partida dormida se despierta. */
+    public Optional<HexGameSnapshot> findSnapshot(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        HexGameSnapshot snapshot = snapshots.get(id);
+        if (snapshot == null && wake(id)) {
+            snapshot = snapshots.get(id);
+        }
+        return Optional.ofNullable(snapshot);
+    }
+
+    /**
+     * Fotos de varias partidas, en el orden pedido y omitiendo las que no
+     * existen. Las dormidas se despiertan.
+     */
+    public List<HexGameSnapshot> findSnapshots(Collection<String> ids) {
+        List<HexGameSnapshot> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            HexGameSnapshot snapshot = snapshots.get(id);
+            if (snapshot == null && id != null && wake(id)) {
+                snapshot = snapshots.get(id);
+            }
+            if (snapshot != null) {
+                found.add(snapshot);
+            }
+        }
+        return found;
+    }
+
+    /** Vista de todas las fotos publicadas; recorrerla no bloquea a los escritores. */
+    public Collection<HexGameSnapshot> allSnapshots() {
+        return Collections.unmodifiableCollection(snapshots.values());
     }
 
     /**
      * Estadísticas básicas del repositorio.
      */
     public Map<String, Object> getRepositoryStatistics() {
-        long total = storage.size();
-        long finished = countWhere(HexGameState::isGameFinished);
-        long won = countWhere(HexGameState::hasPlayerWon);
+        long total = 0;
+        long finished = 0;
+        long won = 0;
+        for (HexGameSnapshot snapshot : snapshots.values()) {
+            total++;
+            if (snapshot.isFinished()) {
+                finished++;
+            }
+            if (snapshot.hasPlayerWon()) {
+                won++;
+            }
+        }
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalGames", total);
@@ -192,19 +378,60 @@ public class InMemoryHexGameRepository extends DataRepository<HexGameState, Stri
         stats.put("wonGames", won);
         stats.put("inProgressGames", total - finished);
         stats.put("winRate", total > 0 ? (double) won / total * 100 : 0);
+        stats.put("dormantGames", dormant.size());
         return stats;
     }
 
     /**
-     * Limpia juegos antiguos según antigüedad en milisegundos.
+     * Partidas creadas en [from, to), en orden de creación. Solo recorre el
+     * subrango del mapa; las de id sin orden se filtran por fecha.
+     */
+    public List<HexGameState> findCreatedBetween(Instant from, Instant to) {
+        List<HexGameState> found = new ArrayList<>(storage.subMap(
+                GameIdGenerator.lowerBound(from), GameIdGenerator.lowerBound(to)).values());
+        found.removeIf(game -> !GameIdGenerator.isValid(game.getGameId()));
+        for (String id : unorderedIds) {
+            HexGameState game = storage.get(id);
+            if (game != null) {
+                Instant created = createdAt(game);
+                if (!created.isBefore(from) && created.isBefore(to)) {
+                    found.add(game);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Limpia juegos antiguos según antigüedad en milisegundos. Con ids
+     * ordenados por tiempo basta con vaciar la cabeza del mapa.
      */
     public long cleanupOldGames(long maxAgeMillis) {
-        long now = System.currentTimeMillis();
-        return deleteWhere(game ->
-            game.getCreatedAt()
-                .atZone(ZoneId.systemDefault())
-                .toInstant()
-                .toEpochMilli() < now - maxAgeMillis
-        );
+        Instant cutoff = Instant.now().minusMillis(maxAgeMillis);
+        long deleted = 0;
+        var expired = storage.headMap(GameIdGenerator.lowerBound(cutoff));
+        for (var it = expired.keySet().iterator(); it.hasNext(); ) {
+            String id = it.next();
+            if (GameIdGenerator.isValid(id)) {
+                it.remove();
+                snapshots.remove(id);
+                deleted++;
+            }
+        }
+        for (String id : unorderedIds) {
+            HexGameState game = storage.get(id);
+            if (game == null || createdAt(game).isBefore(cutoff)) {
+                unorderedIds.remove(id);
+                snapshots.remove(id);
+                if (storage.remove(id) != null) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private static Instant createdAt(HexGameState game) {
+        return game.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant();
     }
 }
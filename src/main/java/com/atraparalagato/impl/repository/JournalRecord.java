@@ -0,0 +1,50 @@
+package com.atraparalagato.impl.repository;
+
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.List;
+
+/**
+ * Registro del diario de partidas: un cambio confirmado de una partida.
+ *
+ * @param version  versión del estado tras el cambio
+ * @param turn     turno del registro de jugadas, o -1
+ * @param position celda bloqueada o casilla del gato; null si no aplica
+ * @param level    nivel de degradación de la respuesta del gato
+ * @param setup    configuración inicial; solo en {@link Type#CREATED}
+ */
+public record JournalRecord(Type type, String gameId, long version, int turn,
+                            HexPosition position, int level, Setup setup) {
+
+    public enum Type {
+        CREATED,
+        BLOCK,
+        CAT_MOVED,
+        /** Turno perdido por tiempo; el gato responde en un CAT_MOVED. */
+        PASS,
+        UNDO,
+        REDO,
+        FORFEIT,
+        /** Partida descartada por inactividad; no se recupera. */
+        EXPIRED
+    }
+
+    /** Datos necesarios para volver a crear la partida. */
+    public record Setup(int boardSize, int difficulty, long seed,
+                        long moveTimeoutMillis, boolean forfeitOnTimeout,
+                        List<HexPosition> blockedCells) {
+
+        public Setup {
+            blockedCells = List.copyOf(blockedCells);
+        }
+    }
+
+    public static JournalRecord created(String gameId, long version, HexPosition cat, Setup setup) {
+        return new JournalRecord(Type.CREATED, gameId, version, -1, cat, 0, setup);
+    }
+
+    public static JournalRecord of(Type type, String gameId, long version, int turn,
+                                   HexPosition position, int level) {
+        return new JournalRecord(type, gameId, version, turn, position, level, null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.atraparalagato.impl.repository;
+
+import com.atraparalagato.impl.analysis.Puzzle;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Almacén en memoria de puzles generados, agrupados por (tamaño, jugadas).
+ *
+ * Admite inserciones concurrentes desde los hilos del generador. Cada
+ * grupo está acotado: al superar el límite se descartan los más antiguos.
+ */
+public class PuzzleStore {
+
+    public static final int DEFAULT_MAX_PER_GROUP = 5_000;
+
+    private record Group(int boardSize, int moves) {}
+
+    private final Map<String, Puzzle> byId = new ConcurrentHashMap<>();
+    private final Map<Group, ConcurrentLinkedDeque<Puzzle>> groups = new ConcurrentHashMap<>();
+    private final Map<Group, AtomicInteger> groupSizes = new ConcurrentHashMap<>();
+    private final int maxPerGroup;
+
+    public PuzzleStore() {
+        this(DEFAULT_MAX_PER_GROUP);
+    }
+
+    public PuzzleStore(int maxPerGroup) {
+        this.maxPerGroup = maxPerGroup;
+    }
+
+    /**
+     * Añade un puzle; devuelve false si ya existía uno con el mismo id.
+     */
+    public boolean add(Puzzle puzzle) {
+        if (byId.putIfAbsent(puzzle.puzzleId(), puzzle) != null) {
+            return false;
+        }
+        Group group = new Group(puzzle.boardSize(), puzzle.moves());
+        ConcurrentLinkedDeque<Puzzle> deque = groups.computeIfAbsent(group, g -> new ConcurrentLinkedDeque<>());
+        AtomicInteger size = groupSizes.computeIfAbsent(group, g -> new AtomicInteger());
+        deque.addLast(puzzle);
+        while (size.incrementAndGet() > maxPerGroup) {
+            Puzzle eldest = deque.pollFirst();
+            if (eldest == null) {
+                break;
+            }
+            byId.remove(eldest.puzzleId());
+            size.decrementAndGet();
+        }
+        return true;
+    }
+
+    public Optional<Puzzle> findById(String puzzleId) {
+        return Optional.ofNullable(byId.get(puzzleId));
+    }
+
+    public List<Puzzle> find(int boardSize, int moves, int limit) {
+        ConcurrentLinkedDeque<Puzzle> deque = groups.get(new Group(boardSize, moves));
+        if (deque == null) {
+            return List.of();
+        }
+        return deque.stream().limit(limit).toList();
+    }
+
+    public int count(int boardSize, int moves) {
+        AtomicInteger size = groupSizes.get(new Group(boardSize, moves));
+        return size == null ? 0 : size.get();
+    }
+
+    public int totalCount() {
+        return byId.size();
+    }
+}
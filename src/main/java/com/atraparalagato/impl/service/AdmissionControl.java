@@ -0,0 +1,114 @@
+package com.atraparalagato.impl.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Control de admisión de partidas según su coste estimado.
+ *
+ * El coste de una partida se estima por el número de celdas del tablero,
+ * 3N(N+1)+1 para tamaño N, que domina tanto la memoria (tablero, cachés)
+ * como la CPU de cada búsqueda del gato. Se limitan el tamaño máximo, el
+ * número de partidas vivas y la suma de celdas vivas; al terminar una
+ * partida, o al caducar por inactividad, su coste se libera.
+ */
+public class AdmissionControl {
+
+    /**
+     * Configuración (propiedades {@code game.admission.*}).
+     *
+     * @param idleTimeoutSeconds inactividad tras la que una partida se
+     *                           descarta y libera su plaza; 0 = nunca
+     */
+    public record Settings(int minBoardSize, int maxBoardSize, int maxLiveGames, long maxLiveCells,
+                           long idleTimeoutSeconds) {
+
+        public static Settings defaults() {
+            return new Settings(3, 30, 10_000, 5_000_000L, 1_800);
+        }
+    }
+
+    private volatile Settings settings;
+    private final AtomicInteger liveGames = new AtomicInteger();
+    private final AtomicLong liveCells = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdmissionControl(Settings settings) {
+        this.settings = settings;
+    }
+
+    public void configure(Settings settings) {
+        this.settings = settings;
+    }
+
+    /** Inactividad máxima en milisegundos; 0 si las partidas no caducan. */
+    public long idleTimeoutMillis() {
+        return settings.idleTimeoutSeconds() * 1_000;
+    }
+
+    public static long estimatedCells(int boardSize) {
+        return 3L * boardSize * (boardSize + 1) + 1;
+    }
+
+    /** Indica si el tamaño de tablero está dentro de los límites configurados. */
+    public boolean isBoardSizeAllowed(int boardSize) {
+        Settings s = settings;
+        return boardSize >= s.minBoardSize() && boardSize <= s.maxBoardSize();
+    }
+
+    /**
+     * Reserva capacidad para una partida nueva. Devuelve el motivo del
+     * rechazo si no hay capacidad; si la reserva tiene éxito, el llamador
+     * debe liberarla con {@link #release(int)} cuando la partida termine.
+     */
+    public Optional<String> tryAdmit(int boardSize) {
+        Settings s = settings;
+        if (!isBoardSizeAllowed(boardSize)) {
+            rejected.increment();
+            return Optional.of("boardSize debe estar entre " + s.minBoardSize() + " y " + s.maxBoardSize());
+        }
+        long cells = estimatedCells(boardSize);
+        if (liveGames.incrementAndGet() > s.maxLiveGames()) {
+            liveGames.decrementAndGet();
+            rejected.increment();
+            return Optional.of("Demasiadas partidas activas");
+        }
+        if (liveCells.addAndGet(cells) > s.maxLiveCells()) {
+            liveCells.addAndGet(-cells);
+            liveGames.decrementAndGet();
+            rejected.increment();
+            return Optional.of("Capacidad del servidor agotada");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Vuelve a contar una partida en juego recuperada tras un reinicio. Ya
+     * se admitió en su momento, así que no se comprueban los límites.
+     */
+    public void readmit(int boardSize) {
+        liveGames.incrementAndGet();
+        liveCells.addAndGet(estimatedCells(boardSize));
+    }
+
+    public void release(int boardSize) {
+        liveGames.decrementAndGet();
+        liveCells.addAndGet(-estimatedCells(boardSize));
+    }
+
+    public Map<String, Object> getStatistics() {
+        Settings s = settings;
+        return Map.of(
+            "liveGames", liveGames.get(),
+            "liveCells", liveCells.get(),
+            "maxLiveGames", s.maxLiveGames(),
+            "maxLiveCells", s.maxLiveCells(),
+            "maxBoardSize", s.maxBoardSize(),
+            "idleTimeoutSeconds", s.idleTimeoutSeconds(),
+            "rejected", rejected.sum()
+        );
+    }
+}
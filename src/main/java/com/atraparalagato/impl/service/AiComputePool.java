@@ -0,0 +1,126 @@
+package com.atraparalagato.impl.service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutor dedicado para el cálculo de IA, separado de los hilos HTTP.
+ *
+ * Cada tipo de trabajo tiene su propio carril (bulkhead): hilos, cola
+ * acotada y prioridad independientes. Así un análisis caro no puede ocupar
+ * los hilos que necesitan las pistas. Los movimientos del gato no pasan
+ * por aquí: se calculan en la partición de su partida. Si la
+ * cola de un carril está llena, la tarea se rechaza inmediatamente con
+ * RejectedExecutionException en lugar de esperar.
+ */
+public class AiComputePool {
+
+    /** Carriles en orden de prioridad. */
+    public enum Lane {
+        HINT(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 256, Thread.NORM_PRIORITY),
+        ANALYSIS(Math.max(1, Runtime.getRuntime().availableProcessors() / 4), 32, Thread.MIN_PRIORITY + 1);
+
+        private final int threads;
+        private final int queueCapacity;
+        private final int priority;
+
+        Lane(int threads, int queueCapacity, int priority) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.priority = priority;
+        }
+    }
+
+    private static final class LaneMetrics {
+        final LongAdder submitted = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder queueNanos = new LongAdder();
+        final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    private final Map<Lane, ThreadPoolExecutor> executors = new EnumMap<>(Lane.class);
+    private final Map<Lane, LaneMetrics> metrics = new EnumMap<>(Lane.class);
+
+    public AiComputePool() {
+        for (Lane lane : Lane.values()) {
+            AtomicInteger counter = new AtomicInteger();
+            String prefix = "ai-" + lane.name().toLowerCase().replace('_', '-') + "-";
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(lane.threads, lane.threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(lane.queueCapacity), r -> {
+                    Thread t = new Thread(r, prefix + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(lane.priority);
+                    return t;
+                });
+            executor.allowCoreThreadTimeOut(true);
+            executors.put(lane, executor);
+            metrics.put(lane, new LaneMetrics());
+        }
+    }
+
+    /**
+     * Ejecuta el trabajo en su carril. Si el carril está saturado, el
+     * futuro devuelto ya está completado con RejectedExecutionException.
+     */
+    public <R> CompletableFuture<R> submit(Lane lane, Supplier<R> work) {
+        LaneMetrics m = metrics.get(lane);
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<R> result = new CompletableFuture<>();
+        try {
+            executors.get(lane).execute(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                m.queueNanos.add(waited);
+                m.maxQueueNanos.accumulate(waited);
+                try {
+                    result.complete(work.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    m.completed.increment();
+                }
+            });
+            m.submitted.increment();
+        } catch (RejectedExecutionException e) {
+            m.rejected.increment();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /** Tareas esperando en la cola del carril. */
+    public int queueDepth(Lane lane) {
+        return executors.get(lane).getQueue().size();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        for (Lane lane : Lane.values()) {
+            ThreadPoolExecutor executor = executors.get(lane);
+            LaneMetrics m = metrics.get(lane);
+            long completed = m.completed.sum();
+            stats.put(lane.name(), Map.of(
+                "threads", lane.threads,
+                "active", executor.getActiveCount(),
+                "queued", executor.getQueue().size(),
+                "queueCapacity", lane.queueCapacity,
+                "submitted", m.submitted.sum(),
+                "rejected", m.rejected.sum(),
+                "completed", completed,
+                "avgQueueMillis", completed == 0 ? 0.0 : m.queueNanos.sum() / 1e6 / completed,
+                "maxQueueMillis", m.maxQueueNanos.get() / 1e6
+            ));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,130 @@
+package com.atraparalagato.impl.service;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caché global de movimientos del gato compartida por todas las partidas.
+ *
+ * La clave es (hash Zobrist de los bloqueos, posición del gato, tamaño del
+ * tablero, estrategia), de modo que las aperturas que se repiten entre
+ * jugadores reutilizan la misma búsqueda. Cada entrada es un
+ * CompletableFuture: si varias partidas piden la misma posición a la vez,
+ * solo una calcula y el resto espera su resultado.
+ *
+ * Solo se admiten posiciones con pocos bloqueos, que son las que se repiten;
+ * las posiciones de final de partida casi nunca se vuelven a ver y solo
+ * desplazarían entradas útiles. El tamaño total está acotado y se expulsa
+ * en orden de inserción.
+ */
+public class CatMoveCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 50_000;
+    public static final int DEFAULT_MAX_BLOCKS = 12;
+
+    private record Key(long boardHash, int catQ, int catR, int boardSize, String strategy) {}
+
+    private final Map<Key, CompletableFuture<Optional<HexPosition>>> entries = new ConcurrentHashMap<>();
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final int maxEntries;
+    private final int maxBlocks;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CatMoveCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BLOCKS);
+    }
+
+    public CatMoveCache(int maxEntries, int maxBlocks) {
+        this.maxEntries = maxEntries;
+        this.maxBlocks = maxBlocks;
+    }
+
+    /**
+     * Devuelve el movimiento cacheado para esta posición o lo calcula con
+     * {@code search}. La búsqueda debe ser determinista para la estrategia.
+     */
+    public Optional<HexPosition> findBestMove(HexGameBoard board, HexPosition cat, String strategy,
+                                              Supplier<Optional<HexPosition>> search) {
+        if (board.getBlockedCount() > maxBlocks) {
+            bypassed.increment();
+            return search.get();
+        }
+
+        Key key = new Key(board.getZobristHash(), cat.getQ(), cat.getR(), board.getSize(), strategy);
+        CompletableFuture<Optional<HexPosition>> existing = entries.get(key);
+        if (existing == null) {
+            CompletableFuture<Optional<HexPosition>> created = new CompletableFuture<>();
+            existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                misses.increment();
+                return computeAndPublish(key, created, search);
+            }
+        }
+        hits.increment();
+        return existing.join();
+    }
+
+    public Map<String, Object> getStatistics() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return Map.of(
+            "entries", size.get(),
+            "maxEntries", maxEntries,
+            "hits", h,
+            "misses", m,
+            "bypassed", bypassed.sum(),
+            "evictions", evictions.sum(),
+            "hitRate", h + m > 0 ? (double) h / (h + m) : 0.0
+        );
+    }
+
+    private Optional<HexPosition> computeAndPublish(Key key,
+                                                    CompletableFuture<Optional<HexPosition>> future,
+                                                    Supplier<Optional<HexPosition>> search) {
+        try {
+            Optional<HexPosition> move = search.get();
+            future.complete(move);
+            recordInsertion(key);
+            return move;
+        } catch (RuntimeException e) {
+            // No dejar una entrada fallida: los que esperan ven el error y
+            // la próxima petición vuelve a intentar la búsqueda
+            entries.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void recordInsertion(Key key) {
+        insertionOrder.add(key);
+        if (size.incrementAndGet() <= maxEntries) {
+            return;
+        }
+        while (size.get() > maxEntries) {
+            Key eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            if (entries.remove(eldest) != null) {
+                evictions.increment();
+            }
+            size.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.atraparalagato.impl.service;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Política de degradación del gato bajo carga, con histéresis.
+ *
+ * Cuando la cola de comandos de las partidas o la latencia p99 superan el
+ * umbral alto, baja un nivel (estrategia más barata). Solo vuelve a subir
+ * cuando ambas métricas están por debajo del umbral bajo y ha pasado un
+ * tiempo mínimo en el nivel actual, para no oscilar en cada petición.
+ * Las métricas se evalúan con un temporizador; los movimientos solo leen
+ * el nivel vigente.
+ */
+public class DegradationPolicy {
+
+    /** Niveles de menor a mayor degradación. */
+    public enum Level {
+        FULL,
+        DISTANCE_FIELD,
+        GREEDY
+    }
+
+    /**
+     * Configuración (propiedades {@code game.degradation.*}).
+     */
+    public record Settings(boolean enabled,
+                           int queueHigh,
+                           int queueLow,
+                           double p99HighMillis,
+                           double p99LowMillis,
+                           long minDwellMillis) {
+
+        public static Settings defaults() {
+            return new Settings(true, 64, 8, 150, 50, 5_000);
+        }
+    }
+
+    private volatile Settings settings;
+    private volatile Level level = Level.FULL;
+    private long levelSince = System.currentTimeMillis();
+
+    private final LongAdder degradations = new LongAdder();
+    private final LongAdder recoveries = new LongAdder();
+    private final LongAdder degradedMoves = new LongAdder();
+
+    public DegradationPolicy(Settings settings) {
+        this.settings = settings;
+    }
+
+    public void configure(Settings settings) {
+        this.settings = settings;
+        if (!settings.enabled()) {
+            synchronized (this) {
+                changeTo(Level.FULL, "degradación desactivada");
+            }
+        }
+    }
+
+    public Level currentLevel() {
+        return level;
+    }
+
+    /**
+     * Nivel con el que calcular el movimiento actual. Solo lee el último
+     * nivel evaluado, así que cuesta lo mismo con o sin carga.
+     */
+    public Level levelForMove() {
+        Level result = level;
+        if (result != Level.FULL) {
+            degradedMoves.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Actualiza el nivel con las métricas actuales y lo devuelve. Se llama
+     * periódicamente desde un temporizador, no en cada movimiento.
+     */
+    public Level evaluate(int queueDepth, double p99Millis) {
+        Settings s = settings;
+        if (!s.enabled()) {
+            return Level.FULL;
+        }
+        boolean overloaded = queueDepth >= s.queueHigh() || p99Millis >= s.p99HighMillis();
+        boolean relaxed = queueDepth <= s.queueLow() && p99Millis <= s.p99LowMillis();
+        Level current = level;
+        if ((overloaded && current != Level.GREEDY) || (relaxed && current != Level.FULL)) {
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                current = level;
+                String reason = "cola=" + queueDepth + ", p99=" + String.format("%.1f", p99Millis) + " ms";
+                // Degradar reacciona antes que recuperar: un pico debe notarse pronto
+                if (overloaded && current != Level.GREEDY && now - levelSince >= s.minDwellMillis() / 4) {
+                    changeTo(Level.values()[current.ordinal() + 1], reason);
+                    degradations.increment();
+                } else if (relaxed && current != Level.FULL && now - levelSince >= s.minDwellMillis()) {
+                    changeTo(Level.values()[current.ordinal() - 1], reason);
+                    recoveries.increment();
+                }
+            }
+        }
+        return level;
+    }
+
+    private void changeTo(Level newLevel, String reason) {
+        if (newLevel == level) {
+            return;
+        }
+        System.out.println("[DEGRADATION] " + level + " -> " + newLevel + " (" + reason + ")");
+        level = newLevel;
+        levelSince = System.currentTimeMillis();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Settings s = settings;
+        return Map.of(
+            "enabled", s.enabled(),
+            "level", level.name(),
+            "degradations", degradations.sum(),
+            "recoveries", recoveries.sum(),
+            "degradedMoves", degradedMoves.sum(),
+            "queueHigh", s.queueHigh(),
+            "p99HighMillis", s.p99HighMillis()
+        );
+    }
+}
@@ -0,0 +1,40 @@
+package com.atraparalagato.impl.service;
+
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.Map;
+
+/**
+ * Evento de una partida ya confirmada en el repositorio.
+ *
+ * @param version  versión del estado que produjo el evento
+ * @param turn     turno del registro de jugadas al que se refiere, o -1
+ * @param position celda bloqueada o casilla del gato, según el tipo
+ * @param data     datos adicionales (inmutable)
+ */
+public record GameEvent(Type type, String gameId, long version, int turn,
+                        HexPosition position, Map<String, Object> data, long timestampMillis) {
+
+    public enum Type {
+        GAME_STARTED,
+        BLOCK,
+        CAT_MOVED,
+        TURN_UNDONE,
+        TURN_REDONE,
+        MOVE_TIMEOUT,
+        GAME_ENDED,
+        /** Partida descartada por inactividad. */
+        GAME_EXPIRED,
+        /** Aviso sin efecto en el estado (dificultad, pausa). */
+        NOTICE
+    }
+
+    public GameEvent {
+        data = data == null ? Map.of() : Map.copyOf(data);
+    }
+
+    public static GameEvent of(Type type, String gameId, long version, int turn,
+                               HexPosition position, Map<String, Object> data) {
+        return new GameEvent(type, gameId, version, turn, position, data, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,213 @@
+package com.atraparalagato.impl.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bus de eventos en proceso sobre un búfer circular sin cerrojos.
+ *
+ * Publicar reserva una secuencia con un incremento atómico, escribe el
+ * evento en su casilla y marca la casilla con la secuencia; no hay cerrojo
+ * ni cola enlazada. Cada suscriptor tiene su propio hilo y su propia
+ * secuencia: lee todas las casillas publicadas seguidas (hasta su tamaño
+ * de lote) y las entrega de una vez a su manejador.
+ *
+ * El bus no pierde eventos: si un suscriptor se queda una vuelta entera
+ * atrás, quien publica espera a que libere casilla. Con la capacidad por
+ * defecto eso solo ocurre si un suscriptor está bloqueado.
+ */
+public class GameEventBus {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+    public static final int DEFAULT_BATCH = 256;
+
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Suscriptor con hilo propio; su secuencia es el último evento procesado. */
+    private final class Subscriber implements Runnable {
+        private final String name;
+        private final int maxBatch;
+        private final Consumer<List<GameEvent>> handler;
+        private final AtomicLong sequence;
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder events = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        /** Mensaje del último fallo del manejador; null si nunca falló. */
+        private volatile String lastError;
+
+        private Subscriber(String name, int maxBatch, Consumer<List<GameEvent>> handler, long start) {
+            this.name = name;
+            this.maxBatch = maxBatch;
+            this.handler = handler;
+            this.sequence = new AtomicLong(start);
+        }
+
+        @Override
+        public void run() {
+            long idle = 0;
+            List<GameEvent> batch = new ArrayList<>(maxBatch);
+            while (!Thread.currentThread().isInterrupted()) {
+                long next = sequence.get() + 1;
+                while (batch.size() < maxBatch) {
+                    int slot = (int) (next & mask);
+                    if (published.get(slot) != next) {
+                        break;
+                    }
+                    batch.add(slots.get(slot));
+                    next++;
+                }
+                if (batch.isEmpty()) {
+                    // Espera creciente: poca latencia con tráfico, poca CPU sin él
+                    idle = Math.min(MAX_IDLE_NANOS, Math.max(1_000, idle * 2));
+                    LockSupport.parkNanos(idle);
+                    continue;
+                }
+                idle = 0;
+                try {
+                    handler.accept(batch);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    lastError = String.valueOf(e.getMessage());
+                }
+                batches.increment();
+                events.add(batch.size());
+                batch.clear();
+                sequence.lazySet(next - 1);
+            }
+        }
+    }
+
+    private final int mask;
+    private final AtomicReferenceArray<GameEvent> slots;
+    /** Secuencia publicada en cada casilla; -1 si nunca se usó. */
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    /** Mínimo de las secuencias de los suscriptores visto la última vez. */
+    private volatile long gatingCache = -1;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final LongAdder producerWaits = new LongAdder();
+
+    public GameEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity casillas del búfer; debe ser potencia de dos
+     */
+    public GameEventBus(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Añade un suscriptor que recibe, en su propio hilo, los eventos
+     * publicados a partir de ahora en lotes de hasta {@code maxBatch}.
+     */
+    public synchronized void subscribe(String name, int maxBatch, Consumer<List<GameEvent>> handler) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        Subscriber subscriber = new Subscriber(name, maxBatch, handler, claimed.get());
+        subscribers.add(subscriber);
+        Thread thread = new Thread(subscriber, "events-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Publica un evento. Solo espera si algún suscriptor lleva una vuelta
+     * completa de retraso.
+     */
+    public void publish(GameEvent event) {
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - slots.length();
+        if (wrapPoint > gatingCache) {
+            long min;
+            boolean waited = false;
+            while (wrapPoint > (min = minimumSequence(sequence - 1))) {
+                waited = true;
+                LockSupport.parkNanos(1_000);
+            }
+            if (waited) {
+                producerWaits.increment();
+            }
+            gatingCache = min;
+        }
+        int slot = (int) (sequence & mask);
+        slots.set(slot, event);
+        published.set(slot, sequence);
+    }
+
+    /** Última secuencia reservada por quien publica. */
+    public long publishedSequence() {
+        return claimed.get();
+    }
+
+    /**
+     * Espera a que todos los suscriptores hayan procesado lo publicado
+     * hasta ahora. Devuelve false si vence el plazo antes.
+     */
+    public boolean awaitDrained(long timeoutMillis) {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (minimumSequence(target) < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(100_000);
+        }
+        return true;
+    }
+
+    private long minimumSequence(long fallback) {
+        long min = fallback;
+        for (Subscriber subscriber : subscribers) {
+            min = Math.min(min, subscriber.sequence.get());
+        }
+        return min;
+    }
+
+    public Map<String, Object> getStatistics() {
+        long head = claimed.get();
+        Map<String, Object> perSubscriber = new HashMap<>();
+        for (Subscriber s : subscribers) {
+            long batches = s.batches.sum();
+            long events = s.events.sum();
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("lag", head - s.sequence.get());
+            stats.put("events", events);
+            stats.put("batches", batches);
+            stats.put("averageBatch", batches == 0 ? 0.0 : (double) events / batches);
+            stats.put("failures", s.failures.sum());
+            String lastError = s.lastError;
+            if (lastError != null) {
+                stats.put("lastError", lastError);
+            }
+            perSubscriber.put(s.name, stats);
+        }
+        return Map.of(
+            "capacity", slots.length(),
+            "published", head + 1,
+            "producerWaits", producerWaits.sum(),
+            "subscribers", perSubscriber
+        );
+    }
+}
@@ -0,0 +1,99 @@
+package com.atraparalagato.impl.service;
+
+import com.atraparalagato.impl.model.GameIdGenerator;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutor particionado sin estado compartido.
+ *
+ * Cada partida se asigna, por su identificador, a una de N particiones de
+ * un solo hilo. Todos los comandos de una partida se ejecutan en orden en
+ * su partición, así que el estado de la partida nunca se modifica desde
+ * dos hilos a la vez y no hacen falta cerrojos. Además los datos de cada
+ * partida se quedan calientes en la caché del núcleo que la atiende.
+ */
+public class GamePartitionExecutor {
+
+    private final ExecutorService[] partitions;
+    private final LongAdder[] submitted;
+    /** Comandos encolados o en curso, de todas las particiones. */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public GamePartitionExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GamePartitionExecutor(int partitionCount) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        this.partitions = new ExecutorService[partitionCount];
+        this.submitted = new LongAdder[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            String name = "game-partition-" + i;
+            partitions[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            });
+            submitted[i] = new LongAdder();
+        }
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * Partición dueña de la partida. Los ids de {@link GameIdGenerator}
+     * llevan su shard, así que se enrutan sin calcular el hash de la cadena.
+     */
+    public int partitionOf(String gameId) {
+        int shard = GameIdGenerator.shardOf(gameId);
+        if (shard >= 0) {
+            return shard % partitions.length;
+        }
+        return Math.floorMod(gameId.hashCode(), partitions.length);
+    }
+
+    /**
+     * Encola un comando en la partición de la partida. El futuro se
+     * completa con el resultado o con la excepción del comando.
+     */
+    public <R> CompletableFuture<R> submit(String gameId, Supplier<R> command) {
+        int partition = partitionOf(gameId);
+        submitted[partition].increment();
+        pending.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return command.get();
+            } finally {
+                pending.decrementAndGet();
+            }
+        }, partitions[partition]);
+    }
+
+    /** Comandos encolados o en curso; mide la carga real de las partidas. */
+    public int pendingCommands() {
+        return pending.get();
+    }
+
+    public Map<String, Object> getStatistics() {
+        long[] counts = new long[partitions.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = submitted[i].sum();
+        }
+        return Map.of(
+            "partitions", partitions.length,
+            "pending", pending.get(),
+            "submittedPerPartition", counts
+        );
+    }
+}
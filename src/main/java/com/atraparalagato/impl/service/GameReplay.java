@@ -0,0 +1,25 @@
+package com.atraparalagato.impl.service;
+
+import java.util.List;
+
+/**
+ * Repetición de una partida a partir de su semilla, su posición inicial y
+ * los bloqueos del jugador.
+ *
+ * Cada turno ocupa {@link #STRIDE} enteros en el orden de {@link #FIELDS}:
+ * el bloqueo, la respuesta del gato registrada, la respuesta recalculada y
+ * el nivel de {@link DegradationPolicy.Level} con el que se eligió.
+ * {@code firstDivergence} es el primer turno en que ambas respuestas
+ * difieren, o -1 si la repetición es exacta.
+ */
+public record GameReplay(String gameId, int boardSize, int difficulty, long seed,
+                         int[] steps, int firstDivergence) {
+
+    public static final List<String> FIELDS =
+            List.of("q", "r", "catQ", "catR", "replayedQ", "replayedR", "level");
+    public static final int STRIDE = 7;
+
+    public boolean isExact() {
+        return firstDivergence < 0;
+    }
+}
@@ -5,19 +5,58 @@ import com.atraparalagato.base.model.GameState;
 import com.atraparalagato.base.model.GameBoard;
 import com.atraparalagato.base.strategy.CatMovementStrategy;
 import com.atraparalagato.base.repository.DataRepository;
+import com.atraparalagato.impl.analysis.HexTablebase;
+import com.atraparalagato.impl.analysis.MinCutHintEngine;
+import com.atraparalagato.impl.analysis.MoveHeatmap;
+import com.atraparalagato.impl.analysis.MoveHeatmapAnalyzer;
+import com.atraparalagato.impl.analysis.OpeningBook;
+import com.atraparalagato.impl.analysis.PlayerHint;
+import com.atraparalagato.impl.analysis.Puzzle;
+import com.atraparalagato.impl.analysis.PuzzleGenerator;
+import com.atraparalagato.impl.model.GameIdGenerator;
 import com.atraparalagato.impl.model.HexPosition;
+import com.atraparalagato.impl.model.HexGameSnapshot;
 import com.atraparalagato.impl.model.HexGameState;
 import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGrid;
+import com.atraparalagato.impl.model.MoveLog;
+import com.atraparalagato.impl.repository.GameCheckpointStore;
+import com.atraparalagato.impl.repository.GameJournal;
+import com.atraparalagato.impl.repository.GameRecovery;
 import com.atraparalagato.impl.repository.InMemoryHexGameRepository;
+import com.atraparalagato.impl.repository.JournalRecord;
+import com.atraparalagato.impl.repository.PuzzleStore;
 import com.atraparalagato.impl.strategy.AStarCatMovement;
 import com.atraparalagato.impl.strategy.BFSCatMovement;
+import com.atraparalagato.impl.strategy.DistanceFieldCatMovement;
+import com.atraparalagato.impl.strategy.GreedyCatMovement;
+import com.atraparalagato.impl.strategy.TablebaseCatMovement;
 
-import java.util.UUID;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.List;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Servicio de juego hexagonal, con control de dificultad 1–10.
@@ -25,91 +64,584 @@ import java.util.HashMap;
  */
 public class HexGameService extends GameService<HexPosition> {
 
-    @SuppressWarnings("unchecked")
+    private final MinCutHintEngine hintEngine = new MinCutHintEngine();
+    private final MoveHeatmapAnalyzer heatmapAnalyzer = new MoveHeatmapAnalyzer();
+    private final CatMoveCache catMoveCache = new CatMoveCache();
+
+    /** Tablas de finales generadas con HexTablebaseGenerator, por tamaño. */
+    private final Map<Integer, HexTablebase> tablebases =
+        HexTablebase.loadAll(Path.of("data", "tablebase"));
+
+    /** Libros de aperturas generados con OpeningBookBuilder, por tamaño. */
+    private final Map<Integer, OpeningBook> openingBooks =
+        OpeningBook.loadAll(Path.of("data", "book"));
+    private final LongAdder bookHits = new LongAdder();
+    private final LongAdder bookMisses = new LongAdder();
+
+    /** Carriles separados para pistas y análisis. */
+    private final AiComputePool aiPool = new AiComputePool();
+
+    /** Estrategias más baratas cuando la cola o la latencia del gato se disparan. */
+    private final DegradationPolicy degradation = new DegradationPolicy(DegradationPolicy.Settings.defaults());
+    /** Latencias de búsqueda del gato en los últimos 10 s, en franjas de 1 s. */
+    private final LatencyRecorder catMoveLatency = new LatencyRecorder(1_000, 10);
+    private static final long DEGRADATION_EVALUATION_MILLIS = 250;
+
+    /** Tareas periódicas de mantenimiento del servicio. */
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "game-maintenance");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Límite de tamaño, partidas vivas y celdas vivas. */
+    private final AdmissionControl admission = new AdmissionControl(AdmissionControl.Settings.defaults());
+
+    /** Última actividad de cada partida, para descartar las abandonadas. */
+    private final Map<String, Long> lastActivity = new ConcurrentHashMap<>();
+    private static final long IDLE_SWEEP_SECONDS = 30;
+    private final LongAdder gamesExpired = new LongAdder();
+
+    /** Respuestas ya dadas a bloqueos con clave de idempotencia. */
+    private final IdempotencyRegistry idempotency = new IdempotencyRegistry();
+
+    /** Agrupa pistas y análisis repetidos de la misma versión de una partida. */
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    /** Cada partida se procesa siempre en la misma partición de un solo hilo. */
+    private final GamePartitionExecutor partitions = new GamePartitionExecutor();
+
+    /** Posiciones iniciales con bloqueos aleatorios, validadas en segundo plano. */
+    private final StartingLayoutPool startingLayouts = new StartingLayoutPool();
+    private static final int[] PREWARMED_LAYOUT_SIZES = {5, 7, 9};
+
+    /** Reloj por jugada de las partidas con tiempo; la clave incluye la versión armada. */
+    private record MoveClock(String gameId, long version) {}
+    private final TimingWheel<MoveClock> moveClocks = new TimingWheel<>(50, 256, 3, this::onMoveClocksExpired);
+    private final Map<String, TimingWheel.Timeout<MoveClock>> moveDeadlines = new ConcurrentHashMap<>();
+    private final LongAdder movesTimedOut = new LongAdder();
+
+    /** Respuestas del gato calculadas en segundo plano mientras el jugador piensa. */
+    private final SpeculativeCatReplies speculation = new SpeculativeCatReplies();
+    /** Eventos por lote del diario, y por tanto máximo de registros por sincronización. */
+    private static final int JOURNAL_BATCH = 4096;
+    private static final long JOURNAL_RETRY_MIN_MILLIS = 10;
+    private static final long JOURNAL_RETRY_MAX_MILLIS = 1_000;
+    private static final int SPECULATION_PATH_CELLS = 3;
+    private static final int MAX_SPECULATIVE_GUESSES = 10;
+
+    /** Puzles "atrapa al gato en N jugadas"; la generación corre en segundo plano. */
+    private final PuzzleGenerator puzzleGenerator = new PuzzleGenerator();
+    private final PuzzleStore puzzleStore = new PuzzleStore();
+    private final ExecutorService puzzleExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "puzzle-generator");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Eventos de partidas confirmadas. El registro y los contadores se
+     * consumen en los hilos de sus suscriptores, no en el de la petición.
+     */
+    private final GameEventBus events = new GameEventBus();
+    private final Map<GameEvent.Type, LongAdder> eventCounts = new EnumMap<>(GameEvent.Type.class);
+
+    /** Diario en disco y sus checkpoints; solo si se activa con {@link #configureJournal}. */
+    private volatile GameJournal journal;
+    private volatile GameCheckpointStore checkpoints;
+    private ScheduledExecutorService checkpointScheduler;
+    /**
+     * Último fallo al escribir en el diario mientras se reintenta el lote;
+     * null si el diario está sano. Mientras tanto no se aceptan cambios.
+     */
+    private volatile RuntimeException journalFailure;
+    private final LongAdder journalRetries = new LongAdder();
+    private final LongAdder checkpointFailures = new LongAdder();
+    private volatile String lastCheckpointError;
+    /** Resultado de la recuperación al arrancar; las fallidas se cuentan también en diferido. */
+    private volatile GameRecovery recovery;
+    private volatile Map<String, Object> recoveryStats = Map.of();
+
+    /** Mismo repositorio que gameRepository, con acceso a las fotos publicadas. */
+    private final InMemoryHexGameRepository snapshots;
+
     public HexGameService() {
+        this(new InMemoryHexGameRepository());
+    }
+
+    @SuppressWarnings("unchecked")
+    private HexGameService(InMemoryHexGameRepository repository) {
         super(
             new HexGameBoard(9),
             new AStarCatMovement(new HexGameBoard(9)),
             (DataRepository<GameState<HexPosition>, String>)
-                (DataRepository<?, ?>) new InMemoryHexGameRepository(),
-            () -> UUID.randomUUID().toString(),
+                (DataRepository<?, ?>) repository,
+            new GameIdGenerator(0),
             HexGameBoard::new,
             HexGameState::new
         );
+        this.snapshots = repository;
+        for (GameEvent.Type type : GameEvent.Type.values()) {
+            eventCounts.put(type, new LongAdder());
+        }
+        events.subscribe("stats", GameEventBus.DEFAULT_BATCH,
+            batch -> batch.forEach(e -> eventCounts.get(e.type()).increment()));
+        for (int size : PREWARMED_LAYOUT_SIZES) {
+            for (int difficulty : new int[] {3, 6, 9}) {
+                startingLayouts.prewarm(size, difficulty);
+            }
+        }
+        maintenance.scheduleAtFixedRate(this::evaluateDegradation,
+            DEGRADATION_EVALUATION_MILLIS, DEGRADATION_EVALUATION_MILLIS, TimeUnit.MILLISECONDS);
+        maintenance.scheduleWithFixedDelay(this::expireIdleGames,
+            IDLE_SWEEP_SECONDS, IDLE_SWEEP_SECONDS, TimeUnit.SECONDS);
     }
 
     /**
      * Crea una nueva partida con tamaño y dificultad.
+     *
+     * @throws IllegalArgumentException si el tamaño está fuera de los límites
+     * @throws IllegalStateException si el servidor no tiene capacidad
      */
     public HexGameState createGame(int boardSize, int difficulty, Map<String, Object> options) {
-        HexGameState state = (HexGameState) startNewGame(boardSize);
-        state.setDifficulty(difficulty);
+        return createGame(boardSize, difficulty, options,
+            state -> {
+                if (Boolean.TRUE.equals(options.get("randomBlocks"))) {
+                    applyStartingLayout(state);
+                }
+            });
+    }
+
+    /**
+     * Crea la partida y aplica {@code setup} antes de su primer y único
+     * guardado, de modo que la primera versión y su foto ya incluyen
+     * dificultad, semilla y posición inicial.
+     */
+    private HexGameState createGame(int boardSize, int difficulty, Map<String, Object> options,
+                                    Consumer<HexGameState> setup) {
+        Optional<String> rejection = admission.tryAdmit(boardSize);
+        if (rejection.isPresent()) {
+            if (!admission.isBoardSizeAllowed(boardSize)) {
+                throw new IllegalArgumentException(rejection.get());
+            }
+            throw new IllegalStateException(rejection.get());
+        }
+        HexGameState state;
+        try {
+            state = (HexGameState) startNewGame(boardSize, created -> {
+                HexGameState game = (HexGameState) created;
+                game.setDifficulty(difficulty);
+                // Una semilla explícita permite reproducir una partida reportada
+                game.setSeed(options.get("seed") instanceof Number n
+                        ? n.longValue()
+                        : ThreadLocalRandom.current().nextLong());
+                if (options.get("moveTimeoutMillis") instanceof Number timeout) {
+                    game.setMoveTimeout(timeout.longValue(), "forfeit".equals(options.get("timeoutAction")));
+                }
+                setup.accept(game);
+            });
+        } catch (RuntimeException e) {
+            // La partida no llegó a existir: su plaza vuelve a estar libre
+            admission.release(boardSize);
+            throw e;
+        }
+        lastActivity.put(state.getGameId(), System.currentTimeMillis());
+        events.publish(GameEvent.of(GameEvent.Type.GAME_STARTED, state.getGameId(), state.getVersion(), -1,
+            state.getCatPosition(), Map.of(
+                "boardSize", state.getBoardSize(),
+                "difficulty", state.getDifficulty(),
+                "seed", state.getSeed(),
+                "moveTimeoutMillis", state.getMoveTimeoutMillis(),
+                "forfeitOnTimeout", state.isForfeitOnTimeout(),
+                "blockedCells", state.getGameBoard().blockedList())));
+        armMoveClock(state);
+        speculateCatReplies(state);
         return state;
     }
 
+    /**
+     * Coloca los bloqueos iniciales tomados de la reserva. Si la reserva de
+     * ese tamaño está vacía la partida empieza sin bloqueos: crear una
+     * partida nunca espera a la validación.
+     */
+    private void applyStartingLayout(HexGameState state) {
+        Optional<int[]> layout = startingLayouts.take(state.getBoardSize(), state.getDifficulty());
+        if (layout.isEmpty()) {
+            return;
+        }
+        HexGameBoard board = state.getGameBoard();
+        HexGrid grid = board.getGrid();
+        for (int cell : layout.get()) {
+            board.makeMove(grid.positionAt(cell));
+        }
+        state.markStartingLayout();
+    }
+
+    /**
+     * Crea una partida a partir de una disposición dada de bloqueos y gato.
+     */
+    public HexGameState createGameFromLayout(int boardSize, int difficulty,
+                                             List<HexPosition> blockedCells, HexPosition catPosition) {
+        return createGame(boardSize, difficulty, Map.of(), state -> {
+            blockedCells.forEach(state.getGameBoard()::makeMove);
+            state.setCatPosition(catPosition);
+            state.markStartingLayout();
+        });
+    }
+
+    /**
+     * Lanza la generación de puzles en segundo plano. Los puzles aceptados
+     * quedan disponibles en el almacén a medida que se encuentran.
+     */
+    public CompletableFuture<Integer> generatePuzzlesAsync(int boardSize, int moves, int count) {
+        long maxAttempts = Math.max(10_000L, count * 20_000L);
+        long seed = System.nanoTime();
+        return CompletableFuture.supplyAsync(
+            () -> puzzleGenerator.generate(boardSize, moves, count, maxAttempts, seed, puzzleStore::add),
+            puzzleExecutor);
+    }
+
+    public List<Puzzle> getPuzzles(int boardSize, int moves, int limit) {
+        return puzzleStore.find(boardSize, moves, limit);
+    }
+
+    public int countPuzzles(int boardSize, int moves) {
+        return puzzleStore.count(boardSize, moves);
+    }
+
+    /**
+     * Inicia una partida con la posición del puzle. Se usa dificultad máxima:
+     * el puzle solo es válido contra la mejor defensa del gato.
+     */
+    public Optional<HexGameState> startPuzzleGame(String puzzleId) {
+        return puzzleStore.findById(puzzleId)
+            .map(p -> createGameFromLayout(p.boardSize(), 10, p.blockedCells(), p.catPosition()));
+    }
+
     /**
      * Movimiento del jugador.
      */
     public Optional<HexGameState> executePlayerMove(String gameId, HexPosition position, String playerId) {
         Optional<GameState<HexPosition>> opt = super.executePlayerMove(gameId, position);
+        opt.ifPresent(s -> touch(gameId));
         return opt.map(s -> (HexGameState) s);
     }
 
+    /**
+     * Movimiento del jugador ejecutado en la partición dueña de la partida.
+     * Dos bloqueos simultáneos sobre la misma partida se aplican en orden.
+     */
+    public CompletableFuture<Optional<HexGameState>> executePlayerMoveAsync(String gameId, HexPosition position,
+                                                                          String playerId) {
+        return partitions.submit(gameId, () -> executePlayerMove(gameId, position, playerId));
+    }
+
+    /**
+     * Igual que {@link #executePlayerMoveAsync(String, HexPosition, String)}
+     * pero idempotente: si {@code idempotencyKey} ya se usó en esta partida,
+     * se devuelve la foto que se confirmó entonces sin repetir nada.
+     */
+    public CompletableFuture<Optional<HexGameSnapshot>> executePlayerMoveAsync(String gameId, HexPosition position,
+                                                                             String playerId, String idempotencyKey) {
+        return partitions.submit(gameId, () -> {
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                return executePlayerMove(gameId, position, playerId).map(HexGameSnapshot::of);
+            }
+            Optional<HexGameSnapshot> previous = idempotency.lookup(gameId, idempotencyKey, position);
+            if (previous.isPresent()) {
+                return previous;
+            }
+            Optional<HexGameSnapshot> result = executePlayerMove(gameId, position, playerId).map(HexGameSnapshot::of);
+            result.ifPresent(snapshot -> idempotency.record(gameId, idempotencyKey, position, snapshot));
+            return result;
+        });
+    }
+
+    /**
+     * Aplica varios bloqueos seguidos (con la respuesta del gato tras cada
+     * uno) en la partición de la partida. Se detiene al terminar la partida.
+     */
+    public CompletableFuture<Optional<MoveBatchResult>> executePlayerMovesAsync(String gameId,
+                                                                             List<HexPosition> positions) {
+        return partitions.submit(gameId, () -> {
+            Optional<MoveBatchResult> result = executePlayerMoves(gameId, positions);
+            result.ifPresent(r -> touch(gameId));
+            return result;
+        });
+    }
+
+    /**
+     * Carga y copia el estado una sola vez, aplica todos los pasos sobre la
+     * copia y la confirma con un único guardado condicional.
+     */
+    private Optional<MoveBatchResult> executePlayerMoves(String gameId, List<HexPosition> positions) {
+        for (int attempt = 0; attempt < MAX_SAVE_ATTEMPTS; attempt++) {
+            Optional<GameState<HexPosition>> opt = loadGameState(gameId);
+            if (opt.isEmpty()) {
+                return Optional.empty();
+            }
+            HexGameState current = (HexGameState) opt.get();
+            HexGameState state = current.copyForUpdate();
+
+            int[] steps = new int[positions.size() * MoveBatchResult.STRIDE];
+            int count = 0;
+            HexPosition lastApplied = null;
+            for (HexPosition position : positions) {
+                if (state.isGameFinished()) {
+                    break;
+                }
+                boolean accepted = state.executeMove(position);
+                if (accepted) {
+                    executeCatMove(state);
+                    lastApplied = position;
+                }
+                int base = count++ * MoveBatchResult.STRIDE;
+                steps[base] = position.getQ();
+                steps[base + 1] = position.getR();
+                steps[base + 2] = accepted ? 1 : 0;
+                steps[base + 3] = state.getCatPosition().getQ();
+                steps[base + 4] = state.getCatPosition().getR();
+            }
+            steps = Arrays.copyOf(steps, count * MoveBatchResult.STRIDE);
+
+            if (lastApplied == null) {
+                return Optional.of(new MoveBatchResult(current, steps));
+            }
+            if (persistGameStateIfUnchanged(state, current.getVersion())) {
+                afterTurnsCommitted(state, current.getMoveLog().appliedTurns());
+                return Optional.of(new MoveBatchResult(state, steps));
+            }
+        }
+        throw new IllegalStateException("Too many concurrent updates for game " + gameId);
+    }
+
+    /**
+     * Estado enriquecido. Se lee de la última foto publicada, así que no
+     * necesita pasar por la partición ni esperar a un movimiento en curso.
+     */
+    public CompletableFuture<Optional<Map<String, Object>>> getEnrichedGameStateAsync(String gameId) {
+        return CompletableFuture.completedFuture(getEnrichedGameState(gameId));
+    }
+
     /**
      * Estado enriquecido para el cliente.
      */
     public Optional<Map<String, Object>> getEnrichedGameState(String gameId) {
-        return loadGameState(gameId).map(s -> {
-            HexGameState gs = (HexGameState) s;
+        return snapshots.findSnapshot(gameId).map(gs -> {
+            touch(gameId);
             Map<String, Object> map = new HashMap<>();
-            map.put("gameId", gs.getGameId());
-            map.put("status", gs.getStatus().toString());
+            map.put("gameId", gs.gameId());
+            map.put("status", gs.status().toString());
             map.put("catPosition",
-                Map.of("q", gs.getCatPosition().getQ(),
-                       "r", gs.getCatPosition().getR())
+                Map.of("q", gs.catPosition().getQ(),
+                       "r", gs.catPosition().getR())
             );
-            map.put("blockedCells", gs.getGameBoard().getBlockedPositions());
-            map.put("moves", gs.getMoveCount());
-            map.put("statistics", gs.getAdvancedStatistics());
-            map.put("difficulty", gs.getDifficulty());
+            map.put("blockedCells", gs.blockedCells());
+            map.put("moves", gs.moveCount());
+            map.put("statistics", gs.statistics());
+            map.put("difficulty", gs.difficulty());
+            map.put("version", gs.version());
             return map;
         });
     }
 
+    /** Última foto publicada de la partida. */
+    public Optional<HexGameSnapshot> getSnapshot(String gameId) {
+        return snapshots.findSnapshot(gameId);
+    }
+
+    /**
+     * Estados compactos de varias partidas para paneles y salas de
+     * espectadores: por lista de ids o, si no se indica, por estado. Se
+     * resuelve con una única consulta al repositorio y no incluye las
+     * celdas bloqueadas ni las estadísticas. Los mapas se construyen a
+     * medida que se consume el stream.
+     */
+    public Stream<Map<String, Object>> streamCompactGameStates(Collection<String> gameIds,
+                                                          GameState.GameStatus status,
+                                                          int limit) {
+        Stream<HexGameSnapshot> states = gameIds == null || gameIds.isEmpty()
+                ? snapshots.allSnapshots().stream()
+                : snapshots.findSnapshots(gameIds).stream();
+        return states
+                .filter(s -> status == null || s.status() == status)
+                .limit(limit)
+                .map(HexGameService::compactState);
+    }
+
+    private static Map<String, Object> compactState(HexGameSnapshot gs) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("gameId", gs.gameId());
+        map.put("status", gs.status().toString());
+        map.put("catQ", gs.catPosition().getQ());
+        map.put("catR", gs.catPosition().getR());
+        map.put("moves", gs.moveCount());
+        map.put("blocked", gs.blockedCells().size());
+        map.put("boardSize", gs.boardSize());
+        map.put("difficulty", gs.difficulty());
+        map.put("version", gs.version());
+        return map;
+    }
+
     /**
      * Sugerencia inteligente (no usada para el movimiento real).
      */
     public Optional<HexPosition> getIntelligentSuggestion(String gameId, String difficulty) {
+        return loadGameState(gameId).flatMap(gs -> suggestionFor((HexGameState) gs, difficulty));
+    }
+
+    /**
+     * Pista para el jugador basada en el corte mínimo entre el gato y el borde.
+     */
+    public Optional<PlayerHint> getPlayerHint(String gameId) {
+        return loadGameState(gameId).flatMap(gs -> hintFor((HexGameState) gs));
+    }
+
+    /**
+     * Pista calculada en el carril de pistas del pool de IA. Las peticiones
+     * repetidas para la misma versión de la partida comparten el resultado.
+     */
+    public CompletableFuture<Optional<PlayerHint>> getPlayerHintAsync(String gameId) {
+        return coalesced(gameId, "hint", AiComputePool.Lane.HINT, this::hintFor, Optional.empty());
+    }
+
+    /**
+     * Sugerencia inteligente calculada en el carril de pistas del pool de IA.
+     */
+    public CompletableFuture<Optional<HexPosition>> getIntelligentSuggestionAsync(String gameId, String difficulty) {
+        return coalesced(gameId, "suggestion:" + difficulty, AiComputePool.Lane.HINT,
+            state -> suggestionFor(state, difficulty), Optional.empty());
+    }
+
+    /**
+     * Análisis en el carril de menor prioridad: no compite con las partidas.
+     */
+    public CompletableFuture<Map<String, Object>> analyzeGameAsync(String gameId) {
+        return coalesced(gameId, "analysis", AiComputePool.Lane.ANALYSIS, this::analyze,
+            Map.of("error", "Game not found"));
+    }
+
+    /**
+     * Análisis y reporte de la partida.
+     */
+    public Map<String, Object> analyzeGame(String gameId) {
+        return loadGameState(gameId)
+            .map(gs -> analyze((HexGameState) gs))
+            .orElse(Map.of("error", "Game not found"));
+    }
+
+    /**
+     * Lanza el cálculo sobre el estado leído, agrupado por (partida, versión,
+     * operación). Como los estados guardados no se modifican, el resultado
+     * vale para todas las peticiones de esa versión.
+     */
+    private <R> CompletableFuture<R> coalesced(String gameId, String operation, AiComputePool.Lane lane,
+                                               Function<HexGameState, R> work, R notFound) {
         Optional<GameState<HexPosition>> opt = loadGameState(gameId);
-        if (opt.isEmpty()) return Optional.empty();
-        HexGameState gs = (HexGameState) opt.get();
+        if (opt.isEmpty()) {
+            return CompletableFuture.completedFuture(notFound);
+        }
+        HexGameState state = (HexGameState) opt.get();
+        return singleFlight.run(gameId, state.getVersion(), operation,
+            () -> aiPool.submit(lane, () -> work.apply(state)));
+    }
+
+    private Optional<PlayerHint> hintFor(HexGameState state) {
+        if (state.isGameFinished()) {
+            return Optional.empty();
+        }
+        return Optional.of(hintEngine.computeHint(state.getGameBoard(), state.getCatPosition()));
+    }
+
+    private Optional<HexPosition> suggestionFor(HexGameState gs, String difficulty) {
         CatMovementStrategy<HexPosition> strat =
             createMovementStrategy(difficulty, gs.getGameBoard());
         return strat.findBestMove(gs.getCatPosition(), getTargetPosition(gs));
     }
 
     /**
-     * Análisis y reporte de la partida.
+     * Repite la partida turno a turno desde su semilla y su posición
+     * inicial, en el carril de análisis.
      */
-    public Map<String, Object> analyzeGame(String gameId) {
-        Optional<GameState<HexPosition>> opt = loadGameState(gameId);
-        if (opt.isEmpty()) return Map.of("error", "Game not found");
-        HexGameState gs = (HexGameState) opt.get();
+    public CompletableFuture<Optional<GameReplay>> replayGameAsync(String gameId) {
+        return coalesced(gameId, "replay", AiComputePool.Lane.ANALYSIS,
+            gs -> Optional.of(replay(gs)), Optional.empty());
+    }
+
+    /**
+     * Reconstruye el tablero desde la posición inicial y, en cada turno,
+     * aplica el bloqueo registrado y recalcula la respuesta del gato con el
+     * mismo nivel de estrategia y el mismo generador del turno. La partida
+     * sigue siempre la respuesta registrada, de modo que una divergencia no
+     * contamina los turnos siguientes.
+     */
+    private GameReplay replay(HexGameState gs) {
+        HexGameBoard board = new HexGameBoard(gs.getBoardSize());
+        HexGrid grid = board.getGrid();
+        for (int cell : gs.getStartingBlocked()) {
+            board.makeMove(grid.positionAt(cell));
+        }
+        MoveLog log = gs.getMoveLog();
+        int turns = log.appliedTurns();
+        int[] steps = new int[turns * GameReplay.STRIDE];
+        int firstDivergence = -1;
+        HexPosition target = getTargetPosition(gs);
+        DegradationPolicy.Level[] levels = DegradationPolicy.Level.values();
+
+        for (int turn = 0; turn < turns; turn++) {
+            // Un turno sin bloqueo (tiempo agotado) se repite como un pase
+            int blockIndex = log.blockAt(turn);
+            HexPosition block = blockIndex >= 0 ? grid.positionAt(blockIndex) : null;
+            HexPosition from = grid.positionAt(log.catFromAt(turn));
+            HexPosition recorded = grid.positionAt(log.catToAt(turn));
+            if (block != null) {
+                board.makeMove(block);
+            }
+            HexPosition replayed = from;
+            if (!board.isAtBorder(from)) {
+                replayed = computeCatReply(board, from, gs.getDifficulty(), target,
+                        levels[log.replyTagAt(turn)], gs.seedForTurn(turn)).orElse(from);
+            }
+            if (firstDivergence < 0 && !replayed.equals(recorded)) {
+                firstDivergence = turn;
+            }
+            int base = turn * GameReplay.STRIDE;
+            steps[base] = block == null ? Integer.MIN_VALUE : block.getQ();
+            steps[base + 1] = block == null ? Integer.MIN_VALUE : block.getR();
+            steps[base + 2] = recorded.getQ();
+            steps[base + 3] = recorded.getR();
+            steps[base + 4] = replayed.getQ();
+            steps[base + 5] = replayed.getR();
+            steps[base + 6] = log.replyTagAt(turn);
+        }
+        return new GameReplay(gs.getGameId(), gs.getBoardSize(), gs.getDifficulty(), gs.getSeed(),
+                steps, firstDivergence);
+    }
+
+    private Map<String, Object> analyze(HexGameState gs) {
         Map<String, Object> analysis = new HashMap<>(gs.getAdvancedStatistics());
         analysis.put("score", gs.calculateScore());
         analysis.put("catPosition",
             Map.of("q", gs.getCatPosition().getQ(),
                    "r", gs.getCatPosition().getR())
         );
-        return analysis;
+        analysis.put("version", gs.getVersion());
+        if (!gs.isGameFinished()) {
+            // Se analiza una copia para no tocar el tablero de la partida viva
+            MoveHeatmap heatmap = heatmapAnalyzer.analyze(gs.getGameBoard().fork(), gs.getCatPosition());
+            analysis.put("heatmapFields", MoveHeatmap.FIELDS);
+            analysis.put("heatmap", heatmap.cells());
+        }
+        // El mismo mapa puede entregarse a varias peticiones agrupadas
+        return Collections.unmodifiableMap(analysis);
     }
 
     /**
      * Estadísticas globales del jugador.
      */
     public Map<String, Object> getPlayerStatistics(String playerId) {
-        long total = gameRepository.findAll().size();
-        long won   = gameRepository.findWhere(gs -> ((HexGameState) gs).hasPlayerWon()).size();
+        long total = snapshots.allSnapshots().size();
+        long won   = snapshots.allSnapshots().stream().filter(HexGameSnapshot::hasPlayerWon).count();
         double winRate = total > 0 ? (double) won / total * 100 : 0;
         return Map.of(
             "totalGames", total,
@@ -118,6 +650,267 @@ public class HexGameService extends GameService<HexPosition> {
         );
     }
 
+    /**
+     * Métricas internas del servicio (cachés, colas, etc.).
+     */
+    public Map<String, Object> getServiceMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("catMoveCache", catMoveCache.getStatistics());
+        metrics.put("tablebaseSizes", tablebases.keySet());
+        metrics.put("openingBook", Map.of(
+            "sizes", openingBooks.keySet(),
+            "hits", bookHits.sum(),
+            "misses", bookMisses.sum()
+        ));
+        metrics.put("puzzles", puzzleStore.totalCount());
+        metrics.put("speculation", speculation.getStatistics());
+        metrics.put("partitions", partitions.getStatistics());
+        metrics.put("startingLayouts", startingLayouts.getStatistics());
+        Map<String, Object> clocks = new HashMap<>(moveClocks.getStatistics());
+        clocks.put("movesTimedOut", movesTimedOut.sum());
+        metrics.put("moveClocks", clocks);
+        metrics.put("aiPool", aiPool.getStatistics());
+        metrics.put("degradation", degradation.getStatistics());
+        Map<String, Object> admitted = new HashMap<>(admission.getStatistics());
+        admitted.put("trackedGames", lastActivity.size());
+        admitted.put("gamesExpired", gamesExpired.sum());
+        metrics.put("admission", admitted);
+        metrics.put("singleFlight", singleFlight.getStatistics());
+        metrics.put("idempotency", idempotency.getStatistics());
+        Map<String, Object> bus = new HashMap<>(events.getStatistics());
+        Map<String, Long> counts = new HashMap<>();
+        eventCounts.forEach((type, count) -> counts.put(type.name(), count.sum()));
+        bus.put("counts", counts);
+        metrics.put("events", bus);
+        if (journal != null) {
+            Map<String, Object> journaled = new HashMap<>(journal.getStatistics());
+            RuntimeException failure = journalFailure;
+            journaled.put("healthy", failure == null);
+            journaled.put("retries", journalRetries.sum());
+            if (failure != null) {
+                journaled.put("lastError", String.valueOf(failure.getMessage()));
+            }
+            metrics.put("journal", journaled);
+            Map<String, Object> checkpointed = new HashMap<>(checkpoints.getStatistics());
+            checkpointed.put("failures", checkpointFailures.sum());
+            if (lastCheckpointError != null) {
+                checkpointed.put("lastFailure", lastCheckpointError);
+            }
+            metrics.put("checkpoints", checkpointed);
+            Map<String, Object> recovered = new HashMap<>(recoveryStats);
+            GameRecovery loaded = recovery;
+            if (loaded != null) {
+                recovered.put("failedGames", loaded.failedGames());
+                recovered.put("dormantGames", snapshots.dormantCount());
+            }
+            metrics.put("recovery", recovered);
+        }
+        metrics.put("catMoveP99Millis", catMoveLatency.percentileMillis(99));
+        return metrics;
+    }
+
+    /**
+     * Aplica la configuración de degradación (leída de application.properties).
+     */
+    public void configureDegradation(DegradationPolicy.Settings settings) {
+        degradation.configure(settings);
+    }
+
+    /**
+     * Recalcula el nivel de degradación con los comandos pendientes de las
+     * particiones y el p99 reciente de la búsqueda del gato.
+     */
+    private void evaluateDegradation() {
+        try {
+            degradation.evaluate(partitions.pendingCommands(), catMoveLatency.percentileMillis(99));
+        } catch (RuntimeException e) {
+            // Un fallo puntual no debe cancelar la tarea periódica
+        }
+    }
+
+    /**
+     * Aplica los límites de admisión (leídos de application.properties).
+     */
+    public void configureAdmission(AdmissionControl.Settings settings) {
+        admission.configure(settings);
+    }
+
+    /**
+     * Abre el diario de partidas, recupera las partidas del último
+     * checkpoint y de la cola del diario, y suscribe el diario al bus de
+     * eventos. Cada lote del bus se escribe y sincroniza de una vez, fuera
+     * del hilo de las peticiones; una caída pierde como mucho lo que aún no
+     * se había sincronizado.
+     *
+     * @throws IllegalStateException si no se puede abrir o ya estaba abierto
+     */
+    public synchronized void configureJournal(GameJournal.Settings settings) {
+        if (!settings.enabled()) {
+            return;
+        }
+        if (journal != null) {
+            throw new IllegalStateException("Journal already configured");
+        }
+        Path directory = Path.of(settings.directory());
+        try {
+            journal = new GameJournal(directory, settings.segmentBytes());
+            checkpoints = new GameCheckpointStore(directory.resolve("checkpoints"));
+            recoverGames(GameRecovery.load(checkpoints, directory), settings.lazyRecovery());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open game journal at " + settings.directory(), e);
+        }
+        events.subscribe("journal", JOURNAL_BATCH, this::appendToJournal);
+        int interval = settings.checkpointIntervalSeconds();
+        if (interval > 0) {
+            checkpointScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "journal-checkpoint");
+                t.setDaemon(true);
+                return t;
+            });
+            checkpointScheduler.scheduleWithFixedDelay(this::checkpointQuietly, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Escribe un checkpoint de todas las partidas del repositorio y borra
+     * los segmentos del diario anteriores al checkpoint más antiguo que se
+     * conserva. El desplazamiento se lee antes que los estados: todo lo
+     * sincronizado hasta él ya está reflejado en ellos. Las terminadas
+     * también entran, porque deshacer las vuelve a abrir; las inactivas
+     * salen del repositorio al caducar.
+     *
+     * @return partidas escritas
+     * @throws IllegalStateException si el diario no está activo o falla la escritura
+     */
+    public int writeCheckpoint() {
+        if (journal == null) {
+            throw new IllegalStateException("Journal not configured");
+        }
+        long offset = journal.durableOffset();
+        // Las partidas dormidas también deben quedar en el checkpoint
+        snapshots.hydrateAll();
+        try {
+            int games = checkpoints.write(offset, snapshots.findAll());
+            long oldest = checkpoints.oldestRetainedOffset();
+            if (oldest >= 0) {
+                journal.deleteSegmentsBefore(oldest);
+            }
+            return games;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write checkpoint", e);
+        }
+    }
+
+    /** Checkpoint periódico; un fallo queda en las métricas y se reintenta en el siguiente. */
+    private void checkpointQuietly() {
+        try {
+            writeCheckpoint();
+        } catch (RuntimeException e) {
+            checkpointFailures.increment();
+            lastCheckpointError = String.valueOf(e.getMessage());
+        }
+    }
+
+    /**
+     * Vuelve a cargar las partidas recuperadas. En modo perezoso solo se
+     * registran sus ids: cada partida se reconstruye al pedirla y un hilo
+     * en segundo plano despierta el resto, así que se aceptan peticiones
+     * enseguida. Si no, se reconstruyen todas en paralelo antes de seguir.
+     */
+    private void recoverGames(GameRecovery recovery, boolean lazy) {
+        long start = System.nanoTime();
+        Set<String> ids = recovery.gameIds();
+        if (lazy) {
+            snapshots.registerDormant(ids, recovery::rebuild, this::onGameRecovered);
+            Thread hydration = new Thread(snapshots::hydrateAll, "journal-hydration");
+            hydration.setDaemon(true);
+            hydration.start();
+        } else {
+            ids.parallelStream().forEach(id -> recovery.rebuild(id).ifPresent(state -> {
+                snapshots.restore(state);
+                onGameRecovered(state);
+            }));
+        }
+        this.recovery = recovery;
+        recoveryStats = Map.of(
+            "games", ids.size(),
+            "checkpointGames", recovery.checkpointGames(),
+            "tailRecords", recovery.tailRecords(),
+            "millis", (System.nanoTime() - start) / 1_000_000,
+            "lazy", lazy);
+    }
+
+    /**
+     * Una partida recuperada en juego vuelve a ocupar su plaza y su reloj;
+     * su inactividad se cuenta desde la recuperación.
+     */
+    private void onGameRecovered(HexGameState state) {
+        lastActivity.put(state.getGameId(), System.currentTimeMillis());
+        if (!state.isGameFinished()) {
+            admission.readmit(state.getBoardSize());
+        }
+        armMoveClock(state);
+    }
+
+    /** Anota actividad en una partida conocida; las desconocidas se ignoran. */
+    private void touch(String gameId) {
+        lastActivity.replace(gameId, System.currentTimeMillis());
+    }
+
+    /**
+     * Busca partidas sin actividad desde hace más del plazo configurado y
+     * encarga su descarte a la partición de cada una, en orden con el resto
+     * de sus comandos.
+     */
+    private void expireIdleGames() {
+        try {
+            long timeout = admission.idleTimeoutMillis();
+            if (timeout <= 0) {
+                return;
+            }
+            long cutoff = System.currentTimeMillis() - timeout;
+            lastActivity.forEach((gameId, seenAt) -> {
+                if (seenAt < cutoff) {
+                    partitions.submit(gameId, () -> {
+                        expireIdleGame(gameId, seenAt);
+                        return null;
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            // Un fallo puntual no debe cancelar la tarea periódica
+        }
+    }
+
+    /**
+     * Descarta la partida si no ha habido actividad desde {@code seenAt}:
+     * libera su plaza si seguía en juego, la quita del repositorio junto
+     * con su foto y suelta su reloj, su especulación y sus claves.
+     */
+    private void expireIdleGame(String gameId, long seenAt) {
+        if (!lastActivity.remove(gameId, seenAt)) {
+            return;
+        }
+        Optional<GameState<HexPosition>> opt = loadGameState(gameId);
+        if (opt.isPresent()) {
+            HexGameState state = (HexGameState) opt.get();
+            if (!state.isGameFinished()) {
+                admission.release(state.getBoardSize());
+            }
+            gameRepository.deleteById(gameId);
+            events.publish(GameEvent.of(GameEvent.Type.GAME_EXPIRED, gameId, state.getVersion(), -1,
+                null, Map.of()));
+            gamesExpired.increment();
+        }
+        TimingWheel.Timeout<MoveClock> clock = moveDeadlines.remove(gameId);
+        if (clock != null) {
+            moveClocks.cancel(clock);
+        }
+        speculation.discard(gameId);
+        singleFlight.invalidate(gameId);
+        idempotency.forget(gameId);
+    }
+
     /**
      * (Solo notificación) cambia dificultad de la partida.
      */
@@ -134,23 +927,87 @@ public class HexGameService extends GameService<HexPosition> {
     }
 
     /**
-     * Undo no implementado aún.
+     * Deshace el último turno (bloqueo y respuesta del gato) usando el
+     * registro de jugadas de la partida. Si no hay nada que deshacer se
+     * devuelve el estado sin cambios.
      */
     public Optional<HexGameState> undoLastMove(String gameId) {
-        return Optional.empty();
+        return replayTurn(gameId, true);
+    }
+
+    /**
+     * Rehace el último turno deshecho.
+     */
+    public Optional<HexGameState> redoMove(String gameId) {
+        return replayTurn(gameId, false);
+    }
+
+    public CompletableFuture<Optional<HexGameState>> undoLastMoveAsync(String gameId) {
+        return partitions.submit(gameId, () -> undoLastMove(gameId));
+    }
+
+    public CompletableFuture<Optional<HexGameState>> redoMoveAsync(String gameId) {
+        return partitions.submit(gameId, () -> redoMove(gameId));
+    }
+
+    /**
+     * Deshace o rehace un turno sobre la copia del estado y la guarda con
+     * control de versión. Una partida terminada que vuelve a estar en juego
+     * ocupa de nuevo su plaza de admisión; la que termina al rehacer la
+     * libera.
+     */
+    private Optional<HexGameState> replayTurn(String gameId, boolean undo) {
+        touch(gameId);
+        for (int attempt = 0; attempt < MAX_SAVE_ATTEMPTS; attempt++) {
+            Optional<GameState<HexPosition>> opt = loadGameState(gameId);
+            if (opt.isEmpty()) {
+                return Optional.empty();
+            }
+            HexGameState current = (HexGameState) opt.get();
+            HexGameState state = current.copyForUpdate();
+            boolean wasFinished = state.isGameFinished();
+            if (!(undo ? state.undo() : state.redo())) {
+                return Optional.of(current);
+            }
+
+            boolean reopened = wasFinished && !state.isGameFinished();
+            if (reopened) {
+                Optional<String> rejection = admission.tryAdmit(state.getBoardSize());
+                if (rejection.isPresent()) {
+                    throw new IllegalStateException(rejection.get());
+                }
+            }
+            if (persistGameStateIfUnchanged(state, current.getVersion())) {
+                int turn = state.getMoveLog().appliedTurns() - (undo ? 0 : 1);
+                events.publish(GameEvent.of(undo ? GameEvent.Type.TURN_UNDONE : GameEvent.Type.TURN_REDONE,
+                    gameId, state.getVersion(), turn, state.getCatPosition(), Map.of()));
+                if (!wasFinished && state.isGameFinished()) {
+                    admission.release(state.getBoardSize());
+                    publishGameEnded(state);
+                }
+                speculation.discard(gameId);
+                speculateCatReplies(state);
+                armMoveClock(state);
+                return Optional.of(state);
+            }
+            if (reopened) {
+                admission.release(state.getBoardSize());
+            }
+        }
+        throw new IllegalStateException("Too many concurrent updates for game " + gameId);
     }
 
     /**
      * Top N de puntuaciones.
      */
     public List<Map<String, Object>> getLeaderboard(int limit) {
-        return gameRepository.findAllSorted(gs -> gs.calculateScore(), false)
-            .stream()
+        return snapshots.allSnapshots().stream()
+            .sorted(Comparator.comparingInt(HexGameSnapshot::score).reversed())
             .limit(limit)
             .map(s -> Map.<String, Object>of(
-                "gameId", s.getGameId(),
-                "score",  s.calculateScore(),
-                "date",   s.getCreatedAt()
+                "gameId", s.gameId(),
+                "score",  s.score(),
+                "date",   s.createdAt()
             ))
             .toList();
     }
@@ -173,7 +1030,139 @@ public class HexGameService extends GameService<HexPosition> {
     }
 
     private void notifyGameEvent(String gameId, String eventType, Map<String, Object> data) {
-        System.out.println("[EVENT] " + eventType + " -> " + gameId + " " + data);
+        Map<String, Object> notice = new HashMap<>(data);
+        notice.put("notice", eventType);
+        events.publish(GameEvent.of(GameEvent.Type.NOTICE, gameId, -1, -1, null, notice));
+    }
+
+    /**
+     * Publica los turnos {@code [fromTurn, appliedTurns)} del registro
+     * (bloqueo y respuesta del gato) y el final de la partida si procede.
+     */
+    private void publishTurns(HexGameState state, int fromTurn) {
+        MoveLog log = state.getMoveLog();
+        HexGrid grid = state.getGameBoard().getGrid();
+        for (int turn = fromTurn; turn < log.appliedTurns(); turn++) {
+            if (log.blockAt(turn) != MoveLog.NO_BLOCK) {
+                events.publish(GameEvent.of(GameEvent.Type.BLOCK, state.getGameId(), state.getVersion(),
+                    turn, grid.positionAt(log.blockAt(turn)), Map.of()));
+            }
+            if (log.catToAt(turn) != log.catFromAt(turn)) {
+                events.publish(GameEvent.of(GameEvent.Type.CAT_MOVED, state.getGameId(), state.getVersion(),
+                    turn, grid.positionAt(log.catToAt(turn)), Map.of("level", log.replyTagAt(turn))));
+            }
+        }
+        if (state.isGameFinished()) {
+            publishGameEnded(state);
+        }
+    }
+
+    private void publishGameEnded(HexGameState state) {
+        events.publish(GameEvent.of(GameEvent.Type.GAME_ENDED, state.getGameId(), state.getVersion(), -1,
+            state.getCatPosition(), Map.of(
+                "status", state.getStatus().name(),
+                "score", state.calculateScore(),
+                "moves", state.getMoveCount())));
+    }
+
+    /**
+     * Suscriptor del diario: traduce el lote a registros (los avisos y el
+     * final de partida no cambian el estado) y lo escribe de una vez.
+     */
+    @SuppressWarnings("unchecked")
+    private void appendToJournal(List<GameEvent> batch) {
+        List<JournalRecord> records = new ArrayList<>(batch.size());
+        for (GameEvent e : batch) {
+            switch (e.type()) {
+                case GAME_STARTED -> records.add(JournalRecord.created(e.gameId(), e.version(), e.position(),
+                    new JournalRecord.Setup(
+                        (Integer) e.data().get("boardSize"),
+                        (Integer) e.data().get("difficulty"),
+                        (Long) e.data().get("seed"),
+                        (Long) e.data().get("moveTimeoutMillis"),
+                        (Boolean) e.data().get("forfeitOnTimeout"),
+                        (List<HexPosition>) e.data().get("blockedCells"))));
+                case BLOCK -> records.add(JournalRecord.of(JournalRecord.Type.BLOCK,
+                    e.gameId(), e.version(), e.turn(), e.position(), 0));
+                case CAT_MOVED -> records.add(JournalRecord.of(JournalRecord.Type.CAT_MOVED,
+                    e.gameId(), e.version(), e.turn(), e.position(), (Integer) e.data().get("level")));
+                case TURN_UNDONE -> records.add(JournalRecord.of(JournalRecord.Type.UNDO,
+                    e.gameId(), e.version(), e.turn(), null, 0));
+                case TURN_REDONE -> records.add(JournalRecord.of(JournalRecord.Type.REDO,
+                    e.gameId(), e.version(), e.turn(), null, 0));
+                case MOVE_TIMEOUT -> records.add(JournalRecord.of(
+                    "forfeit".equals(e.data().get("action")) ? JournalRecord.Type.FORFEIT : JournalRecord.Type.PASS,
+                    e.gameId(), e.version(), e.turn(), null, 0));
+                case GAME_EXPIRED -> records.add(JournalRecord.of(JournalRecord.Type.EXPIRED,
+                    e.gameId(), e.version(), -1, null, 0));
+                default -> { }
+            }
+        }
+        writeToJournal(records);
+    }
+
+    /**
+     * Escribe el lote y no vuelve hasta que queda sincronizado: así el bus
+     * no da el lote por entregado y, al llenarse, frena a quien publica.
+     * Tras un fallo se reintenta solo lo que faltaba, con espera creciente,
+     * y mientras tanto {@link #isReady()} es false y no se guardan cambios.
+     */
+    private void writeToJournal(List<JournalRecord> records) {
+        long backoffMillis = JOURNAL_RETRY_MIN_MILLIS;
+        while (true) {
+            try {
+                journal.append(records);
+                journalFailure = null;
+                return;
+            } catch (GameJournal.AppendException e) {
+                journalFailure = e;
+                journalRetries.increment();
+                records = records.subList(e.consumed(), records.size());
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while retrying journal append", e);
+            }
+            backoffMillis = Math.min(JOURNAL_RETRY_MAX_MILLIS, backoffMillis * 2);
+        }
+    }
+
+    /**
+     * false mientras el diario no puede escribir: la instancia no debe
+     * recibir tráfico porque los cambios no serían duraderos.
+     */
+    public boolean isReady() {
+        return journalFailure == null;
+    }
+
+    /**
+     * Partidas recuperadas que aún no se han reconstruido. Se despiertan al
+     * pedirlas por id; mientras queden, los listados completos son parciales.
+     */
+    public int dormantGames() {
+        return snapshots.dormantCount();
+    }
+
+    /** Rechaza los cambios mientras el diario esté fallando. */
+    private void requireJournalHealthy() {
+        RuntimeException failure = journalFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Game journal unavailable: " + failure.getMessage());
+        }
+    }
+
+    @Override
+    protected GameState<HexPosition> persistGameState(GameState<HexPosition> gameState) {
+        requireJournalHealthy();
+        return super.persistGameState(gameState);
+    }
+
+    @Override
+    protected boolean persistGameStateIfUnchanged(GameState<HexPosition> gameState, long expectedVersion) {
+        requireJournalHealthy();
+        return super.persistGameStateIfUnchanged(gameState, expectedVersion);
     }
 
     private CatMovementStrategy<HexPosition> createMovementStrategy(
@@ -198,39 +1187,234 @@ public class HexGameService extends GameService<HexPosition> {
     @Override
     protected void executeCatMove(GameState<HexPosition> gameState) {
         HexGameState state = (HexGameState) gameState;
-        int diff = state.getDifficulty();
         HexGameBoard board   = state.getGameBoard();
         HexPosition current  = state.getCatPosition();
-        HexPosition target   = getTargetPosition(state);
-        Optional<HexPosition> next;
-        Random rnd = new Random();
+        Optional<HexPosition> next = Optional.empty();
+        DegradationPolicy.Level level = DegradationPolicy.Level.FULL;
+
+        if (state.getDifficulty() > 4 && state.getLastPlayerMove() != null) {
+            // La copia conserva la versión leída, que es la que se especuló
+            next = speculation.take(state.getGameId(), state.getVersion(),
+                board, current, state.getLastPlayerMove());
+        }
+        if (next.isEmpty()) {
+            int diff = state.getDifficulty();
+            HexPosition target = getTargetPosition(state);
+            if (diff > 4) {
+                level = degradation.levelForMove();
+            }
+            long turnSeed = state.seedForTurn(state.getMoveLog().appliedTurns() - 1);
+            // Se calcula en el hilo de la partición: pasarla a otro pool solo añadiría una espera
+            long start = System.nanoTime();
+            next = computeCatReply(board, current, diff, target, level, turnSeed);
+            catMoveLatency.record(System.nanoTime() - start);
+        }
+
+        if (next.isPresent()) {
+            // El nivel queda en el registro para poder repetir la partida
+            state.setCatPosition(next.get(), level.ordinal());
+            onCatMoved(state, next.get());
+        }
+    }
 
+    /**
+     * Respuesta del gato según la dificultad. Salvo en fácil es determinista,
+     * así que puede calcularse de antemano sobre una copia del tablero.
+     * Con un nivel de degradación distinto de FULL se usa una estrategia
+     * más barata en lugar de la búsqueda de la dificultad. El generador del
+     * turno solo se crea en fácil, la única dificultad que lo usa.
+     */
+    private Optional<HexPosition> computeCatReply(HexGameBoard board, HexPosition current,
+                                                  int diff, HexPosition target,
+                                                  DegradationPolicy.Level level,
+                                                  long turnSeed) {
+        if (diff > 4 && level == DegradationPolicy.Level.GREEDY) {
+            return new GreedyCatMovement(board).findBestMove(current, target);
+        }
+        if (diff > 4 && level == DegradationPolicy.Level.DISTANCE_FIELD) {
+            return new DistanceFieldCatMovement(board).findBestMove(current, target);
+        }
         if (diff <= 4) {
             // Fácil: se mueve aleatoriamente a una casilla no bloqueada
             List<HexPosition> moves = board.getAdjacentPositions(current).stream()
                 .filter(p -> !board.isBlocked(p))
                 .toList();
-            next = moves.isEmpty()
+            return moves.isEmpty()
                 ? Optional.empty()
-                : Optional.of(moves.get(rnd.nextInt(moves.size())));
+                : Optional.of(moves.get(new SplittableRandom(turnSeed).nextInt(moves.size())));
         }
         else if (diff <= 7) {
             // Medio: estrategia BFS
             BFSCatMovement bfs = new BFSCatMovement(board);
-            next = bfs.findBestMove(current, target);
+            return catMoveCache.findBestMove(board, current, "bfs",
+                () -> bfs.findBestMove(current, target));
+        }
+        else if (tablebases.containsKey(board.getSize())) {
+            // Difícil en tablero pequeño: juego perfecto desde la tabla de finales
+            return new TablebaseCatMovement(board, tablebases.get(board.getSize()))
+                .findBestMove(current, target);
         }
-        else {
-            // Difícil: estrategia A*
+        // Difícil: primero el libro de aperturas, después A*
+        Optional<HexPosition> next = lookupOpeningBook(board, current);
+        if (next.isEmpty()) {
             AStarCatMovement astar = new AStarCatMovement(board);
-            next = astar.findBestMove(current, target);
+            next = catMoveCache.findBestMove(board, current, "astar",
+                () -> astar.findBestMove(current, target));
+        }
+        return next;
+    }
+
+    /**
+     * Lanza en segundo plano las respuestas a los bloqueos más probables:
+     * la sugerencia de corte mínimo, las primeras celdas del camino del gato
+     * y las casillas libres a su alrededor.
+     */
+    private void speculateCatReplies(HexGameState state) {
+        // Bajo carga no se especula: solo añadiría trabajo a un sistema saturado
+        if (state.isGameFinished() || state.getDifficulty() <= 4
+                || degradation.currentLevel() != DegradationPolicy.Level.FULL) {
+            speculation.discard(state.getGameId());
+            return;
+        }
+        HexPosition cat = state.getCatPosition();
+        HexPosition target = getTargetPosition(state);
+        int diff = state.getDifficulty();
+        int nextTurn = state.getMoveLog().appliedTurns();
+        speculation.speculate(state.getGameId(), state.getVersion(), state.getGameBoard(), cat,
+            board -> likelyPlayerBlocks(board, cat, target),
+            (forked, from) -> computeCatReply(forked, from, diff, target, DegradationPolicy.Level.FULL,
+                                              state.seedForTurn(nextTurn)));
+    }
+
+    private List<HexPosition> likelyPlayerBlocks(HexGameBoard board, HexPosition cat, HexPosition target) {
+        List<HexPosition> candidates = new ArrayList<>();
+        hintEngine.computeHint(board, cat).suggestion().ifPresent(candidates::add);
+        new BFSCatMovement(board).getFullPath(cat, target).stream()
+            .filter(p -> !p.equals(cat))
+            .limit(SPECULATION_PATH_CELLS)
+            .forEach(candidates::add);
+        candidates.addAll(board.getAdjacentPositions(cat));
+        return candidates.stream()
+            .distinct()
+            .filter(p -> !p.equals(cat) && !board.isBlocked(p) && !board.isAtBorder(p))
+            .limit(MAX_SPECULATIVE_GUESSES)
+            .toList();
+    }
+
+    /**
+     * Los cambios de estado se publican en el bus tras confirmarse, así que
+     * no se registran callbacks que se ejecuten dentro de executeMove.
+     */
+    @Override
+    protected void configureGameCallbacks(GameState<HexPosition> gameState) {
+        gameState.setOnStateChanged(null);
+        gameState.setOnGameEnded(null);
+    }
+
+    @Override
+    protected void onMoveExecuted(GameState<HexPosition> gameState, HexPosition position) {
+        HexGameState state = (HexGameState) gameState;
+        afterTurnsCommitted(state, state.getMoveLog().appliedTurns() - 1);
+    }
+
+    /**
+     * Trabajo tras confirmar turnos nuevos a partir de {@code fromTurn}:
+     * eventos, plaza de admisión, reloj y especulación.
+     */
+    private void afterTurnsCommitted(HexGameState state, int fromTurn) {
+        publishTurns(state, fromTurn);
+        if (state.isGameFinished()) {
+            // Cada partida termina con un único movimiento confirmado
+            admission.release(state.getBoardSize());
         }
+        armMoveClock(state);
+        speculateCatReplies(state);
+    }
 
-        next.ifPresent(pos -> {
-            state.setCatPosition(pos);
-            onCatMoved(state, pos);
+    /**
+     * (Re)arma el reloj de la jugada para la versión recién guardada, o lo
+     * quita si la partida no tiene tiempo o ya terminó.
+     */
+    private void armMoveClock(HexGameState state) {
+        String gameId = state.getGameId();
+        if (state.getMoveTimeoutMillis() <= 0 || state.isGameFinished()) {
+            TimingWheel.Timeout<MoveClock> previous = moveDeadlines.remove(gameId);
+            if (previous != null) {
+                moveClocks.cancel(previous);
+            }
+            return;
+        }
+        MoveClock clock = new MoveClock(gameId, state.getVersion());
+        moveDeadlines.compute(gameId, (id, previous) -> {
+            if (previous != null) {
+                moveClocks.cancel(previous);
+            }
+            return moveClocks.schedule(clock, state.getMoveTimeoutMillis());
         });
     }
 
+    /**
+     * Vencimientos de un avance del reloj: se agrupan por partición y cada
+     * partición procesa su lote en una sola tarea, en orden con el resto
+     * de comandos de sus partidas.
+     */
+    private void onMoveClocksExpired(List<MoveClock> expired) {
+        Map<Integer, List<MoveClock>> byPartition = new HashMap<>();
+        for (MoveClock clock : expired) {
+            byPartition.computeIfAbsent(partitions.partitionOf(clock.gameId()), p -> new ArrayList<>()).add(clock);
+        }
+        for (List<MoveClock> batch : byPartition.values()) {
+            partitions.submit(batch.get(0).gameId(), () -> {
+                batch.forEach(this::expireMove);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Jugada sin tiempo: si la partida sigue en la versión armada, el gato
+     * mueve igualmente o el jugador pierde, según la partida. Si alguien
+     * movió entre tanto, el vencimiento ya no aplica.
+     */
+    private void expireMove(MoveClock clock) {
+        Optional<GameState<HexPosition>> opt = loadGameState(clock.gameId());
+        if (opt.isEmpty()) {
+            moveDeadlines.remove(clock.gameId());
+            return;
+        }
+        HexGameState current = (HexGameState) opt.get();
+        if (current.getVersion() != clock.version() || current.isGameFinished()) {
+            return;
+        }
+        HexGameState state = current.copyForUpdate();
+        if (state.isForfeitOnTimeout()) {
+            state.forfeit();
+        } else {
+            state.passTurn();
+            executeCatMove(state);
+        }
+        if (!persistGameStateIfUnchanged(state, current.getVersion())) {
+            return;
+        }
+        movesTimedOut.increment();
+        int applied = state.getMoveLog().appliedTurns();
+        int turn = state.isForfeitOnTimeout() ? applied : applied - 1;
+        events.publish(GameEvent.of(GameEvent.Type.MOVE_TIMEOUT, clock.gameId(), state.getVersion(),
+            state.isForfeitOnTimeout() ? -1 : turn,
+            null, Map.of("action", state.isForfeitOnTimeout() ? "forfeit" : "cat_moved")));
+        afterTurnsCommitted(state, turn);
+    }
+
+    private Optional<HexPosition> lookupOpeningBook(HexGameBoard board, HexPosition cat) {
+        OpeningBook book = openingBooks.get(board.getSize());
+        if (book == null) {
+            return Optional.empty();
+        }
+        Optional<HexPosition> move = book.lookup(board, cat);
+        (move.isPresent() ? bookHits : bookMisses).increment();
+        return move;
+    }
+
     @Override
     public boolean isValidMove(String gameId, HexPosition position) {
         return loadGameState(gameId)
@@ -240,14 +1424,7 @@ public class HexGameService extends GameService<HexPosition> {
 
     @Override
     public Optional<HexPosition> getSuggestedMove(String gameId) {
-        return loadGameState(gameId)
-            .map(gs -> (HexGameState) gs)
-            .flatMap(state ->
-                state.getGameBoard().getAdjacentPositions(state.getCatPosition())
-                    .stream()
-                    .filter(p -> !state.getGameBoard().isBlocked(p))
-                    .findFirst()
-            );
+        return getPlayerHint(gameId).flatMap(PlayerHint::suggestion);
     }
 
     @Override
@@ -257,9 +1434,9 @@ public class HexGameService extends GameService<HexPosition> {
     }
 
     @Override
-    public Object getGameStatistics(String gameId) {
-        return loadGameState(gameId)
-            .map(gs -> ((HexGameState) gs).getAdvancedStatistics())
+    public Map<String, Object> getGameStatistics(String gameId) {
+        return snapshots.findSnapshot(gameId)
+            .map(HexGameSnapshot::statistics)
             .orElse(Map.of("error", "Game not found"));
     }
 }
@@ -0,0 +1,127 @@
+package com.atraparalagato.impl.service;
+
+import com.atraparalagato.impl.model.HexGameSnapshot;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de claves de idempotencia recientes por partida.
+ *
+ * Guarda, para cada clave enviada por el cliente, el movimiento pedido y
+ * la foto del estado confirmado que se devolvió (no el estado completo).
+ * Un reintento con la misma clave recibe esa misma foto sin volver a
+ * ejecutar el movimiento ni la búsqueda del gato. Cada partida conserva
+ * solo sus últimas claves y las entradas caducan pasado un tiempo.
+ *
+ * Las partidas se guardan en un mapa ordenado por acceso con un máximo
+ * global: al superarlo se descarta la partida usada hace más tiempo, sin
+ * recorrer el mapa. Se consulta desde la partición de la partida, así que
+ * comprobar y registrar no se solapan con otro movimiento de la misma
+ * partida.
+ */
+public class IdempotencyRegistry {
+
+    public static final int DEFAULT_KEYS_PER_GAME = 32;
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    public static final int DEFAULT_MAX_GAMES = 50_000;
+
+    private record Entry(HexPosition position, HexGameSnapshot result, long expiresAt) {}
+
+    private static final class GameKeys extends LinkedHashMap<String, Entry> {
+        private final int maxKeys;
+
+        GameKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxKeys;
+        }
+    }
+
+    /** Partidas por orden de uso; protegido por su propio monitor. */
+    private final LinkedHashMap<String, GameKeys> byGame;
+    private final int keysPerGame;
+    private final long ttlMillis;
+
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public IdempotencyRegistry() {
+        this(DEFAULT_KEYS_PER_GAME, DEFAULT_TTL_MILLIS, DEFAULT_MAX_GAMES);
+    }
+
+    public IdempotencyRegistry(int keysPerGame, long ttlMillis, int maxGames) {
+        this.keysPerGame = keysPerGame;
+        this.ttlMillis = ttlMillis;
+        this.byGame = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GameKeys> eldest) {
+                if (size() > maxGames) {
+                    evicted.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Resultado ya registrado para la clave, si sigue vigente.
+     *
+     * @throws IllegalArgumentException si la clave se usó para otro movimiento
+     */
+    public Optional<HexGameSnapshot> lookup(String gameId, String key, HexPosition position) {
+        synchronized (byGame) {
+            GameKeys keys = byGame.get(gameId);
+            Entry entry = keys == null ? null : keys.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                keys.remove(key);
+                return Optional.empty();
+            }
+            if (!entry.position().equals(position)) {
+                throw new IllegalArgumentException("Idempotency key already used for a different move");
+            }
+            replays.increment();
+            return Optional.of(entry.result());
+        }
+    }
+
+    public void record(String gameId, String key, HexPosition position, HexGameSnapshot result) {
+        synchronized (byGame) {
+            byGame.computeIfAbsent(gameId, id -> new GameKeys(keysPerGame))
+                .put(key, new Entry(position, result, System.currentTimeMillis() + ttlMillis));
+        }
+        recorded.increment();
+    }
+
+    /** Olvida las claves de una partida descartada. */
+    public void forget(String gameId) {
+        synchronized (byGame) {
+            byGame.remove(gameId);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        int games;
+        synchronized (byGame) {
+            games = byGame.size();
+        }
+        return Map.of(
+            "recorded", recorded.sum(),
+            "replays", replays.sum(),
+            "evicted", evicted.sum(),
+            "games", games
+        );
+    }
+}
@@ -0,0 +1,124 @@
+package com.atraparalagato.impl.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencias de los últimos segundos para calcular percentiles.
+ *
+ * La ventana se divide en franjas de tiempo; cada franja es un histograma
+ * logarítmico (cuatro subdivisiones por potencia de dos, error relativo
+ * máximo del 25 %). Registrar solo incrementa un contador, y una franja se
+ * vacía al reutilizarla, así que las muestras antiguas caducan por tiempo
+ * aunque no llegue tráfico nuevo. El percentil recorre los histogramas de
+ * la ventana y está pensado para llamarse fuera del camino de la petición.
+ */
+public class LatencyRecorder {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BINS = 62 * SUB_BUCKETS;
+
+    private final long sliceNanos;
+    private final int slices;
+    /** Franja de tiempo absoluta a la que pertenece cada histograma. */
+    private final AtomicLongArray sliceEpochs;
+    private final AtomicLongArray counts;
+
+    /**
+     * @param sliceMillis duración de cada franja
+     * @param slices      franjas de la ventana
+     */
+    public LatencyRecorder(long sliceMillis, int slices) {
+        if (sliceMillis < 1 || slices < 1) {
+            throw new IllegalArgumentException("Slice duration and count must be positive");
+        }
+        this.sliceNanos = sliceMillis * 1_000_000;
+        this.slices = slices;
+        this.sliceEpochs = new AtomicLongArray(slices);
+        for (int i = 0; i < slices; i++) {
+            sliceEpochs.set(i, Long.MIN_VALUE);
+        }
+        this.counts = new AtomicLongArray(slices * BINS);
+    }
+
+    public void record(long nanos) {
+        long epoch = Math.floorDiv(System.nanoTime(), sliceNanos);
+        int slice = (int) Math.floorMod(epoch, (long) slices);
+        if (sliceEpochs.get(slice) != epoch) {
+            rotate(slice, epoch);
+        }
+        counts.incrementAndGet(slice * BINS + bin(Math.max(0, nanos)));
+    }
+
+    /**
+     * Vacía la franja antes de reutilizarla. Una muestra registrada justo
+     * en el cambio de franja puede perderse; para un percentil da igual.
+     */
+    private synchronized void rotate(int slice, long epoch) {
+        if (sliceEpochs.get(slice) >= epoch) {
+            return;
+        }
+        for (int i = slice * BINS; i < (slice + 1) * BINS; i++) {
+            counts.set(i, 0);
+        }
+        sliceEpochs.set(slice, epoch);
+    }
+
+    /** Percentil en milisegundos dentro de la ventana (0 si no hay muestras). */
+    public double percentileMillis(double percentile) {
+        long[] histogram = new long[BINS];
+        long total = window(histogram);
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            seen += histogram[bin];
+            if (seen >= rank) {
+                return upperBound(bin) / 1e6;
+            }
+        }
+        return upperBound(BINS - 1) / 1e6;
+    }
+
+    /** Muestras dentro de la ventana. */
+    public long size() {
+        return window(new long[BINS]);
+    }
+
+    /** Suma en {@code histogram} las franjas que siguen en la ventana. */
+    private long window(long[] histogram) {
+        long now = Math.floorDiv(System.nanoTime(), sliceNanos);
+        long total = 0;
+        for (int slice = 0; slice < slices; slice++) {
+            if (sliceEpochs.get(slice) <= now - slices) {
+                continue;
+            }
+            for (int bin = 0; bin < BINS; bin++) {
+                long c = counts.get(slice * BINS + bin);
+                histogram[bin] += c;
+                total += c;
+            }
+        }
+        return total;
+    }
+
+    static int bin(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return Math.min(BINS - 1, (exponent - 1) * SUB_BUCKETS + sub);
+    }
+
+    /** Mayor valor en nanosegundos que cae en {@code bin}. */
+    static long upperBound(int bin) {
+        if (bin < SUB_BUCKETS) {
+            return bin;
+        }
+        int exponent = bin / SUB_BUCKETS + 1;
+        int sub = bin % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - 2)) - 1;
+    }
+}
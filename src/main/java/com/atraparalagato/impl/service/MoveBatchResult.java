@@ -0,0 +1,22 @@
+package com.atraparalagato.impl.service;
+
+import com.atraparalagato.impl.model.HexGameState;
+
+import java.util.List;
+
+/**
+ * Resultado de aplicar una secuencia de bloqueos en una sola petición.
+ *
+ * Cada paso ocupa {@link #STRIDE} enteros consecutivos en el orden de
+ * {@link #FIELDS}: el bloqueo pedido, 1 si se aplicó (0 si era ilegal) y
+ * la posición del gato tras su respuesta.
+ */
+public record MoveBatchResult(HexGameState state, int[] steps) {
+
+    public static final List<String> FIELDS = List.of("q", "r", "accepted", "catQ", "catR");
+    public static final int STRIDE = 5;
+
+    public int stepCount() {
+        return steps.length / STRIDE;
+    }
+}
@@ -0,0 +1,134 @@
+package com.atraparalagato.impl.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de tasa por cliente y endpoint con cubos de fichas.
+ *
+ * Cada par (cliente, endpoint) tiene su propio cubo: se rellena a ritmo
+ * constante hasta su capacidad (ráfaga) y cada petición gasta una ficha.
+ * Los cubos inactivos se eliminan poco a poco: cada petición revisa unos
+ * pocos cubos más desde donde lo dejó la anterior, así que el mapa se
+ * recorre entero de forma continua sin que ninguna petición pague un
+ * recorrido completo, y muchos clientes distintos no llenan la memoria.
+ */
+public class RateLimiter {
+
+    /** Ritmo sostenido y ráfaga permitidos para un endpoint. */
+    public record Limit(double permitsPerSecond, int burst) {}
+
+    /** Cubos revisados por petición; más que los que puede crear una petición. */
+    private static final int SWEEP_STEP = 4;
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private record Key(String client, String endpoint) {}
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(int burst, long now) {
+            this.tokens = burst;
+            this.lastRefill = now;
+        }
+
+        /** Devuelve 0 si concede la ficha, o los nanos hasta la siguiente. */
+        synchronized long tryAcquire(Limit limit, long now) {
+            double refill = (now - lastRefill) / 1e9 * limit.permitsPerSecond();
+            tokens = Math.min(limit.burst(), tokens + refill);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / limit.permitsPerSecond() * 1e9);
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - lastRefill > IDLE_NANOS;
+        }
+    }
+
+    private final Map<Key, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+    private volatile Limit defaultLimit;
+
+    /** Posición del barrido; solo la usa quien consigue {@code sweeping}. */
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private Iterator<Bucket> sweepCursor;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public RateLimiter(Limit defaultLimit) {
+        this.defaultLimit = defaultLimit;
+    }
+
+    public void setLimit(String endpoint, Limit limit) {
+        limits.put(endpoint, limit);
+    }
+
+    public void setDefaultLimit(Limit limit) {
+        this.defaultLimit = limit;
+    }
+
+    /**
+     * Intenta consumir una ficha. Devuelve 0 si la petición pasa, o los
+     * milisegundos que el cliente debería esperar antes de reintentar.
+     */
+    public long tryAcquire(String client, String endpoint) {
+        long now = System.nanoTime();
+        sweepStep(now);
+        Limit limit = limits.getOrDefault(endpoint, defaultLimit);
+        Bucket bucket = buckets.computeIfAbsent(new Key(client, endpoint), k -> new Bucket(limit.burst(), now));
+        long waitNanos = bucket.tryAcquire(limit, now);
+        if (waitNanos == 0) {
+            allowed.increment();
+            return 0;
+        }
+        throttled.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    /**
+     * Revisa los siguientes {@link #SWEEP_STEP} cubos y quita los inactivos.
+     * Si otro hilo ya está barriendo, no hace nada.
+     */
+    private void sweepStep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (int i = 0; i < SWEEP_STEP; i++) {
+                if (sweepCursor == null || !sweepCursor.hasNext()) {
+                    sweepCursor = buckets.values().iterator();
+                    if (!sweepCursor.hasNext()) {
+                        return;
+                    }
+                }
+                if (sweepCursor.next().isIdle(now)) {
+                    sweepCursor.remove();
+                    evicted.increment();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("allowed", allowed.sum());
+        stats.put("throttled", throttled.sum());
+        stats.put("clients", buckets.size());
+        stats.put("evicted", evicted.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,106 @@
+package com.atraparalagato.impl.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa peticiones idénticas por (partida, versión, operación).
+ *
+ * La primera petición lanza el cálculo; las que llegan mientras está en
+ * curso, o después con la misma versión de la partida, reciben el mismo
+ * futuro. Cuando la partida cambia de versión se descartan sus resultados
+ * anteriores. Los cálculos que fallan no se guardan, para que un rechazo
+ * por saturación no quede cacheado.
+ */
+public class SingleFlight {
+
+    public static final int DEFAULT_MAX_GAMES = 10_000;
+
+    private static final class Entries {
+        final long version;
+        final Map<String, CompletableFuture<?>> byOperation = new ConcurrentHashMap<>();
+
+        Entries(long version) {
+            this.version = version;
+        }
+    }
+
+    private final Map<String, Entries> byGame = new ConcurrentHashMap<>();
+    private final int maxGames;
+
+    private final LongAdder computed = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    public SingleFlight() {
+        this(DEFAULT_MAX_GAMES);
+    }
+
+    public SingleFlight(int maxGames) {
+        this.maxGames = maxGames;
+    }
+
+    /**
+     * Devuelve el resultado compartido para la clave o lanza {@code compute}.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> CompletableFuture<R> run(String gameId, long version, String operation,
+                                        Supplier<CompletableFuture<R>> compute) {
+        Entries entries = byGame.compute(gameId,
+            (id, current) -> current == null || current.version < version ? new Entries(version) : current);
+        if (entries.version != version) {
+            // Petición con una versión ya superada: se calcula sin compartir
+            computed.increment();
+            return compute.get();
+        }
+        if (byGame.size() > maxGames) {
+            evictSome();
+        }
+
+        boolean[] created = {false};
+        CompletableFuture<R> future = (CompletableFuture<R>) entries.byOperation.computeIfAbsent(operation, op -> {
+            created[0] = true;
+            return compute.get();
+        });
+        if (created[0]) {
+            computed.increment();
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    entries.byOperation.remove(operation, future);
+                }
+            });
+        } else {
+            shared.increment();
+        }
+        return future;
+    }
+
+    /** Olvida los resultados de una partida. */
+    public void invalidate(String gameId) {
+        byGame.remove(gameId);
+    }
+
+    private void evictSome() {
+        int toRemove = Math.max(1, maxGames / 10);
+        Iterator<String> it = byGame.keySet().iterator();
+        while (it.hasNext() && toRemove-- > 0) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        long computedCount = computed.sum();
+        long sharedCount = shared.sum();
+        long total = computedCount + sharedCount;
+        return Map.of(
+            "computed", computedCount,
+            "shared", sharedCount,
+            "shareRate", total == 0 ? 0.0 : (double) sharedCount / total,
+            "games", byGame.size()
+        );
+    }
+}
@@ -0,0 +1,196 @@
+package com.atraparalagato.impl.service;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGrid;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Respuestas del gato precalculadas mientras el jugador piensa.
+ *
+ * Tras cada movimiento del gato se lanzan, en hilos de baja prioridad, las
+ * respuestas a los bloqueos más probables del jugador. Cada tarea trabaja
+ * sobre su propia copia del tablero. Las respuestas se guardan por partida
+ * y versión del estado; cuando llega el bloqueo real se
+ * consulta la tabla, se usa la respuesta si ya está lista y se cancela el
+ * resto. La clave de posición (hash Zobrist + gato) se comprueba de nuevo
+ * al servir el resultado, así que un acierto nunca aplica una respuesta
+ * calculada para otro tablero.
+ */
+public class SpeculativeCatReplies {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private record Guess(long positionKey, Future<HexPosition> reply) {}
+
+    private static final class Speculation {
+        final long version;
+        final Map<HexPosition, Guess> guesses = new ConcurrentHashMap<>();
+        volatile boolean cancelled;
+
+        Speculation(long version) {
+            this.version = version;
+        }
+    }
+
+    private final Map<String, Speculation> byGame = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public SpeculativeCatReplies() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public SpeculativeCatReplies(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueCapacity), r -> {
+                Thread t = new Thread(r, "cat-speculation-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Lanza la especulación para la versión actual de una partida y descarta
+     * la anterior. El tablero se copia aquí, en el hilo llamador; la elección
+     * de candidatos y las respuestas se calculan ya en segundo plano, de modo
+     * que la petición del jugador no paga nada por especular.
+     *
+     * @param candidates bloqueos probables del jugador sobre la copia
+     * @param reply calcula la respuesta del gato sobre un tablero ya bloqueado;
+     *              debe ser determinista para que el acierto sea válido
+     */
+    public void speculate(String gameId, long version, HexGameBoard board, HexPosition cat,
+                          Function<HexGameBoard, List<HexPosition>> candidates,
+                          BiFunction<HexGameBoard, HexPosition, Optional<HexPosition>> reply) {
+        HexGameBoard snapshot = board.fork();
+        Speculation speculation = new Speculation(version);
+        cancelAll(byGame.put(gameId, speculation));
+        try {
+            executor.execute(() -> plan(speculation, snapshot, cat, candidates.apply(snapshot), reply));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+        }
+    }
+
+    private void plan(Speculation speculation, HexGameBoard snapshot, HexPosition cat,
+                      List<HexPosition> candidates,
+                      BiFunction<HexGameBoard, HexPosition, Optional<HexPosition>> reply) {
+        HexGrid grid = snapshot.getGrid();
+        long catKey = grid.catKey(grid.indexOf(cat));
+        for (HexPosition block : candidates) {
+            if (speculation.cancelled) {
+                return;
+            }
+            if (grid.indexOf(block) < 0 || speculation.guesses.containsKey(block)) {
+                continue;
+            }
+            HexGameBoard forked = snapshot.fork();
+            if (!forked.makeMove(block)) {
+                continue;
+            }
+            try {
+                Future<HexPosition> future = executor.submit(() -> reply.apply(forked, cat).orElse(null));
+                speculation.guesses.put(block, new Guess(forked.getZobristHash() ^ catKey, future));
+                scheduled.increment();
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                return;
+            }
+        }
+        // Si se canceló mientras se encolaban tareas, no deja ninguna viva
+        if (speculation.cancelled) {
+            cancelAll(speculation);
+        }
+    }
+
+    /**
+     * Consume la especulación de la partida para el bloqueo real. Devuelve
+     * la respuesta solo si estaba terminada y corresponde exactamente al
+     * tablero actual; en cualquier caso cancela el trabajo pendiente.
+     */
+    public Optional<HexPosition> take(String gameId, long version, HexGameBoard board,
+                                      HexPosition cat, HexPosition playerMove) {
+        Speculation speculation = byGame.remove(gameId);
+        if (speculation == null) {
+            return Optional.empty();
+        }
+        Guess guess = speculation.version == version ? speculation.guesses.remove(playerMove) : null;
+        cancelAll(speculation);
+
+        HexGrid grid = board.getGrid();
+        if (guess == null || !guess.reply().isDone() || guess.reply().isCancelled()
+                || guess.positionKey() != (board.getZobristHash() ^ grid.catKey(grid.indexOf(cat)))) {
+            if (guess != null) {
+                guess.reply().cancel(true);
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+        try {
+            Optional<HexPosition> move = Optional.ofNullable(guess.reply().get());
+            (move.isPresent() ? hits : misses).increment();
+            return move;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    /** Descarta la especulación de una partida (por ejemplo, al terminar). */
+    public void discard(String gameId) {
+        cancelAll(byGame.remove(gameId));
+    }
+
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return Map.of(
+            "scheduled", scheduled.sum(),
+            "hits", hitCount,
+            "misses", misses.sum(),
+            "hitRate", total == 0 ? 0.0 : (double) hitCount / total,
+            "cancelled", cancelled.sum(),
+            "rejected", rejected.sum(),
+            "pendingGames", byGame.size()
+        );
+    }
+
+    private void cancelAll(Speculation speculation) {
+        if (speculation == null) {
+            return;
+        }
+        speculation.cancelled = true;
+        for (Guess guess : speculation.guesses.values()) {
+            if (guess.reply().cancel(true)) {
+                cancelled.increment();
+            }
+        }
+        executor.purge();
+    }
+}
@@ -0,0 +1,154 @@
+package com.atraparalagato.impl.service;
+
+import com.atraparalagato.impl.analysis.StartingLayoutGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reserva acotada de posiciones iniciales ya validadas, por tamaño de
+ * tablero y banda de dificultad.
+ *
+ * Crear una partida solo saca una posición de la cola, así que su latencia
+ * no depende de lo cara que sea la validación. Cuando una cola baja de la
+ * mitad se rellena en un hilo de fondo; como mucho hay un relleno en curso
+ * por cola. Si la cola está vacía la partida empieza sin bloqueos.
+ */
+public class StartingLayoutPool {
+
+    public static final int DEFAULT_CAPACITY = 32;
+    /** Muestras máximas por posición aceptada en un relleno, para no girar sin fin. */
+    private static final int MAX_SAMPLES_PER_LAYOUT = 200;
+
+    private record Key(int boardSize, int band) {}
+
+    private final int capacity;
+    private final StartingLayoutGenerator generator = new StartingLayoutGenerator();
+    private final Map<Key, BlockingQueue<int[]>> pools = new ConcurrentHashMap<>();
+    private final Set<Key> refilling = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refiller;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    public StartingLayoutPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public StartingLayoutPool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Pool capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.refiller = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "layout-pool");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /**
+     * Saca una posición validada (celdas bloqueadas como índices de HexGrid)
+     * y, si hace falta, programa el relleno de la cola.
+     */
+    public Optional<int[]> take(int boardSize, int difficulty) {
+        Key key = new Key(boardSize, bandOf(difficulty));
+        BlockingQueue<int[]> pool = poolFor(key);
+        int[] layout = pool.poll();
+        (layout != null ? hits : misses).increment();
+        if (pool.size() <= capacity / 2) {
+            refill(key, pool);
+        }
+        return Optional.ofNullable(layout);
+    }
+
+    /** Llena por adelantado la cola de un tamaño y dificultad. */
+    public void prewarm(int boardSize, int difficulty) {
+        Key key = new Key(boardSize, bandOf(difficulty));
+        refill(key, poolFor(key));
+    }
+
+    public int available(int boardSize, int difficulty) {
+        BlockingQueue<int[]> pool = pools.get(new Key(boardSize, bandOf(difficulty)));
+        return pool == null ? 0 : pool.size();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Integer> sizes = new HashMap<>();
+        pools.forEach((key, pool) -> sizes.put(key.boardSize() + "/" + key.band(), pool.size()));
+        return Map.of(
+            "available", sizes,
+            "hits", hits.sum(),
+            "misses", misses.sum(),
+            "generated", generated.sum(),
+            "discarded", discarded.sum()
+        );
+    }
+
+    /**
+     * Banda de dificultad: las partidas fáciles empiezan con más bloqueos
+     * (como ayuda), las difíciles con menos.
+     */
+    static int bandOf(int difficulty) {
+        return difficulty <= 4 ? 0 : difficulty <= 7 ? 1 : 2;
+    }
+
+    static double densityOf(int band) {
+        return switch (band) {
+            case 0 -> 0.10;
+            case 1 -> 0.07;
+            default -> 0.04;
+        };
+    }
+
+    private BlockingQueue<int[]> poolFor(Key key) {
+        return pools.computeIfAbsent(key, k -> new ArrayBlockingQueue<>(capacity));
+    }
+
+    private void refill(Key key, BlockingQueue<int[]> pool) {
+        if (!refilling.add(key)) {
+            return;
+        }
+        long seed = ThreadLocalRandom.current().nextLong();
+        try {
+            refiller.execute(() -> {
+                try {
+                    fill(key, pool, new SplittableRandom(seed));
+                } finally {
+                    refilling.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refilling.remove(key);
+        }
+    }
+
+    private void fill(Key key, BlockingQueue<int[]> pool, SplittableRandom random) {
+        double density = densityOf(key.band());
+        long budget = (long) pool.remainingCapacity() * MAX_SAMPLES_PER_LAYOUT;
+        for (long sample = 0; sample < budget && pool.remainingCapacity() > 0; sample++) {
+            Optional<int[]> layout = generator.generate(key.boardSize(), density, random);
+            if (layout.isEmpty()) {
+                discarded.increment();
+                continue;
+            }
+            if (pool.offer(layout.get())) {
+                generated.increment();
+            }
+        }
+    }
+}
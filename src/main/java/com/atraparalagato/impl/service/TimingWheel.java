@@ -0,0 +1,253 @@
+package com.atraparalagato.impl.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de tiempo jerárquica para muchos temporizadores baratos.
+ *
+ * Cada nivel tiene {@code wheelSize} casillas; una casilla del nivel 0
+ * dura un tick y una del nivel L dura wheelSize^L ticks. Un temporizador
+ * se cuelga de la casilla de su vencimiento en el nivel más bajo que lo
+ * alcanza y, cuando el reloj llega a esa casilla de un nivel superior, se
+ * recoloca en un nivel más fino. Programar y cancelar son O(1): se enlaza
+ * o se desenlaza un nodo de una lista doble.
+ *
+ * Un único hilo avanza el reloj. Los vencimientos de cada avance se
+ * entregan juntos al consumidor, fuera del cerrojo, para que se puedan
+ * procesar por lotes.
+ */
+public class TimingWheel<K> {
+
+    /** Temporizador programado; se puede cancelar mientras no haya vencido. */
+    public static final class Timeout<K> {
+        private final K key;
+        private final long deadlineTick;
+        private Timeout<K> prev;
+        private Timeout<K> next;
+        private Bucket<K> bucket;
+
+        private Timeout(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public K key() {
+            return key;
+        }
+    }
+
+    private static final class Bucket<K> {
+        Timeout<K> head;
+
+        void add(Timeout<K> timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<K> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /** Vacía la casilla y devuelve su primer nodo. */
+        Timeout<K> drain() {
+            Timeout<K> first = head;
+            head = null;
+            return first;
+        }
+    }
+
+    private final long tickNanos;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final Bucket<K>[][] buckets;
+    private final Consumer<List<K>> onExpired;
+    private final Thread ticker;
+
+    private long currentTick;
+    private int pending;
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    /** Mensaje del último fallo del consumidor; null si nunca falló. */
+    private volatile String lastError;
+
+    /**
+     * @param tickMillis duración de un tick (resolución de los temporizadores)
+     * @param wheelSize  casillas por nivel; debe ser potencia de dos
+     * @param levels     número de niveles
+     * @param onExpired  recibe las claves vencidas en cada avance del reloj
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickMillis, int wheelSize, int levels, Consumer<List<K>> onExpired) {
+        if (tickMillis < 1 || levels < 1 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Invalid timing wheel configuration");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.onExpired = onExpired;
+        this.buckets = new Bucket[levels][wheelSize];
+        for (Bucket<K>[] level : buckets) {
+            for (int i = 0; i < wheelSize; i++) {
+                level[i] = new Bucket<>();
+            }
+        }
+        this.ticker = new Thread(this::run, "timing-wheel");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Programa {@code key} para dentro de {@code delayMillis} (redondeado
+     * hacia arriba al siguiente tick).
+     */
+    public synchronized Timeout<K> schedule(K key, long delayMillis) {
+        long ticks = Math.max(1, (TimeUnit.MILLISECONDS.toNanos(delayMillis) + tickNanos - 1) / tickNanos);
+        Timeout<K> timeout = new Timeout<>(key, currentTick + ticks);
+        place(timeout);
+        pending++;
+        scheduled.increment();
+        return timeout;
+    }
+
+    /** Cancela el temporizador; false si ya venció o ya estaba cancelado. */
+    public synchronized boolean cancel(Timeout<K> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        pending--;
+        cancelled.increment();
+        return true;
+    }
+
+    public synchronized int pendingCount() {
+        return pending;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", pendingCount());
+        stats.put("scheduled", scheduled.sum());
+        stats.put("cancelled", cancelled.sum());
+        stats.put("expired", expired.sum());
+        stats.put("failures", failures.sum());
+        String error = lastError;
+        if (error != null) {
+            stats.put("lastError", error);
+        }
+        return stats;
+    }
+
+    /**
+     * Cuelga el temporizador en el nivel más bajo cuyo alcance cubre su
+     * vencimiento. Más allá del último nivel se aparca en la casilla más
+     * lejana y se recoloca al llegar a ella.
+     */
+    private void place(Timeout<K> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        for (int level = 0; level < levels; level++) {
+            if (delta < 1L << (bits * (level + 1))) {
+                int slot = (int) (timeout.deadlineTick >>> (bits * level)) & mask;
+                buckets[level][slot].add(timeout);
+                return;
+            }
+        }
+        int top = levels - 1;
+        long parkedTick = currentTick + (1L << (bits * levels)) - 1;
+        buckets[top][(int) (parkedTick >>> (bits * top)) & mask].add(timeout);
+    }
+
+    /** Avanza un tick y añade a {@code out} las claves vencidas. */
+    private void advance(List<K> out) {
+        currentTick++;
+        for (int level = levels - 1; level >= 1; level--) {
+            if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                int slot = (int) (currentTick >>> (bits * level)) & mask;
+                for (Timeout<K> t = buckets[level][slot].drain(); t != null; ) {
+                    Timeout<K> next = t.next;
+                    t.bucket = null;
+                    if (t.deadlineTick <= currentTick) {
+                        expire(t, out);
+                    } else {
+                        place(t);
+                    }
+                    t = next;
+                }
+            }
+        }
+        for (Timeout<K> t = buckets[0][(int) currentTick & mask].drain(); t != null; ) {
+            Timeout<K> next = t.next;
+            t.bucket = null;
+            expire(t, out);
+            t = next;
+        }
+    }
+
+    private void expire(Timeout<K> timeout, List<K> out) {
+        timeout.prev = null;
+        timeout.next = null;
+        pending--;
+        out.add(timeout.key);
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            List<K> due = new ArrayList<>();
+            synchronized (this) {
+                long target = (System.nanoTime() - start) / tickNanos;
+                while (currentTick < target) {
+                    advance(due);
+                }
+            }
+            if (!due.isEmpty()) {
+                expired.add(due.size());
+                try {
+                    onExpired.accept(due);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    lastError = String.valueOf(e.getMessage());
+                }
+            }
+            long nextTick = start + (currentTickSnapshot() + 1) * tickNanos;
+            long sleep = nextTick - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private synchronized long currentTickSnapshot() {
+        return currentTick;
+    }
+}
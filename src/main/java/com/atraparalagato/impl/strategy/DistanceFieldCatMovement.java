@@ -0,0 +1,77 @@
+package com.atraparalagato.impl.strategy;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.analysis.EscapeDistance;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGrid;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Estrategia barata para momentos de carga: un único BFS multi-origen
+ * desde el borde da la distancia de escape de todas las celdas, y el gato
+ * avanza a la vecina con menor distancia. Coste O(celdas) por movimiento,
+ * frente a un BFS por vecino o una búsqueda A*.
+ */
+public class DistanceFieldCatMovement extends CatMovementStrategy<HexPosition> {
+
+    private final HexGameBoard hexBoard;
+
+    public DistanceFieldCatMovement(HexGameBoard board) {
+        super(board);
+        this.hexBoard = board;
+    }
+
+    @Override
+    protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+        return board.getAdjacentPositions(currentPosition).stream()
+                .filter(pos -> !board.isBlocked(pos))
+                .toList();
+    }
+
+    @Override
+    protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves,
+                                                  HexPosition currentPosition,
+                                                  HexPosition targetPosition) {
+        HexGrid grid = hexBoard.getGrid();
+        int[] field = EscapeDistance.field(grid, hexBoard.toBlockedMask());
+        Optional<HexPosition> reachable = possibleMoves.stream()
+                .filter(move -> field[grid.indexOf(move)] != EscapeDistance.UNREACHABLE)
+                .min(Comparator.comparingInt(move -> field[grid.indexOf(move)]));
+        // Si no hay salida, cualquier casilla libre retrasa la derrota
+        return reachable.isPresent() ? reachable : possibleMoves.stream().findFirst();
+    }
+
+    @Override
+    protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+        return position -> position.distanceTo(targetPosition);
+    }
+
+    @Override
+    protected Predicate<HexPosition> getGoalPredicate() {
+        return hexBoard::isAtBorder;
+    }
+
+    @Override
+    protected double getMoveCost(HexPosition from, HexPosition to) {
+        return 1.0;
+    }
+
+    @Override
+    public boolean hasPathToGoal(HexPosition currentPosition) {
+        HexGrid grid = hexBoard.getGrid();
+        return EscapeDistance.fromCell(grid, hexBoard.toBlockedMask(), grid.indexOf(currentPosition))
+                != EscapeDistance.UNREACHABLE;
+    }
+
+    @Override
+    public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+        return new BFSCatMovement(board).getFullPath(currentPosition, targetPosition);
+    }
+}
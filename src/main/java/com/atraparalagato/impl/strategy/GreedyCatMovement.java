@@ -0,0 +1,75 @@
+package com.atraparalagato.impl.strategy;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Estrategia mínima sin búsqueda: el gato va a la vecina libre más cercana
+ * al borde en línea recta (mayor anillo), desempatando por salidas libres.
+ * Es el último escalón de degradación bajo carga extrema.
+ */
+public class GreedyCatMovement extends CatMovementStrategy<HexPosition> {
+
+    public GreedyCatMovement(GameBoard<HexPosition> board) {
+        super(board);
+    }
+
+    @Override
+    protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+        return board.getAdjacentPositions(currentPosition).stream()
+                .filter(pos -> !board.isBlocked(pos))
+                .toList();
+    }
+
+    @Override
+    protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves,
+                                                  HexPosition currentPosition,
+                                                  HexPosition targetPosition) {
+        return possibleMoves.stream()
+                .max(Comparator.comparingInt(this::ringOf)
+                        .thenComparingInt(this::freeExits));
+    }
+
+    @Override
+    protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+        return position -> (double) (board.getSize() - ringOf(position));
+    }
+
+    @Override
+    protected Predicate<HexPosition> getGoalPredicate() {
+        int size = board.getSize();
+        return pos -> ringOf(pos) == size;
+    }
+
+    @Override
+    protected double getMoveCost(HexPosition from, HexPosition to) {
+        return 1.0;
+    }
+
+    @Override
+    public boolean hasPathToGoal(HexPosition currentPosition) {
+        return new BFSCatMovement(board).hasPathToGoal(currentPosition);
+    }
+
+    @Override
+    public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+        return new BFSCatMovement(board).getFullPath(currentPosition, targetPosition);
+    }
+
+    private int ringOf(HexPosition pos) {
+        return Math.max(Math.abs(pos.getQ()), Math.max(Math.abs(pos.getR()), Math.abs(pos.getS())));
+    }
+
+    private int freeExits(HexPosition pos) {
+        return (int) board.getAdjacentPositions(pos).stream()
+                .filter(p -> !board.isBlocked(p))
+                .count();
+    }
+}
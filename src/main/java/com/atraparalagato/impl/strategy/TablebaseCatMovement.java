@@ -0,0 +1,93 @@
+package com.atraparalagato.impl.strategy;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.analysis.HexTablebase;
+import com.atraparalagato.impl.model.HexGrid;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Estrategia de juego perfecto para tableros pequeños.
+ *
+ * Cada movimiento candidato se evalúa con una consulta directa a la tabla
+ * de finales: el gato elige la casilla que gana antes o, si todas pierden,
+ * la que retrasa más la derrota.
+ */
+public class TablebaseCatMovement extends CatMovementStrategy<HexPosition> {
+
+    private final HexTablebase tablebase;
+    private final BFSCatMovement pathFinder;
+
+    public TablebaseCatMovement(GameBoard<HexPosition> board, HexTablebase tablebase) {
+        super(board);
+        if (tablebase.getBoardSize() != board.getSize()) {
+            throw new IllegalArgumentException("Tablebase does not match board size " + board.getSize());
+        }
+        this.tablebase = tablebase;
+        this.pathFinder = new BFSCatMovement(board);
+    }
+
+    @Override
+    protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+        return board.getAdjacentPositions(currentPosition).stream()
+                .filter(pos -> !board.isBlocked(pos))
+                .toList();
+    }
+
+    @Override
+    protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves,
+                                                  HexPosition currentPosition,
+                                                  HexPosition targetPosition) {
+        HexGrid grid = tablebase.getGrid();
+        Predicate<HexPosition> goal = getGoalPredicate();
+        Optional<HexPosition> escape = possibleMoves.stream().filter(goal).findFirst();
+        if (escape.isPresent()) {
+            return escape;
+        }
+
+        boolean[] blocked = new boolean[grid.cellCount()];
+        for (int i = 0; i < grid.cellCount(); i++) {
+            blocked[i] = board.isBlocked(grid.positionAt(i));
+        }
+        return possibleMoves.stream()
+                .max(Comparator.comparingInt(move -> scoreFor(tablebase.playerToMove(blocked, grid.indexOf(move)))));
+    }
+
+    @Override
+    protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+        return position -> position.distanceTo(targetPosition);
+    }
+
+    @Override
+    protected Predicate<HexPosition> getGoalPredicate() {
+        int size = board.getSize();
+        return pos -> Math.abs(pos.getQ()) == size
+                || Math.abs(pos.getR()) == size
+                || Math.abs(pos.getS()) == size;
+    }
+
+    @Override
+    protected double getMoveCost(HexPosition from, HexPosition to) {
+        return 1.0;
+    }
+
+    @Override
+    public boolean hasPathToGoal(HexPosition currentPosition) {
+        return pathFinder.hasPathToGoal(currentPosition);
+    }
+
+    @Override
+    public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+        return pathFinder.getFullPath(currentPosition, targetPosition);
+    }
+
+    private int scoreFor(byte value) {
+        return value == HexTablebase.INVALID ? Integer.MIN_VALUE : HexTablebase.catScore(value);
+    }
+}
@@ -0,0 +1,87 @@
+package com.atraparalagato.impl.analysis;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del motor de pistas por corte mínimo.
+ */
+class MinCutHintEngineTest {
+
+    private MinCutHintEngine engine;
+    private HexGameBoard board;
+
+    @BeforeEach
+    void setUp() {
+        engine = new MinCutHintEngine();
+        board = new HexGameBoard(5);
+    }
+
+    @Test
+    void testEmptyBoardNeedsSixBlocks() {
+        // Tablero vacío: el corte mínimo es el anillo que rodea al gato
+        PlayerHint hint = engine.computeHint(board, new HexPosition(0, 0));
+
+        assertEquals(6, hint.blocksNeeded());
+        assertEquals(6, hint.cut().size());
+        assertTrue(hint.suggestion().isPresent());
+        assertEquals(1.0, hint.suggestion().get().distanceTo(new HexPosition(0, 0)));
+    }
+
+    @Test
+    void testSuggestsLastOpenNeighbor() {
+        // Solo queda una salida: la pista debe ser esa celda
+        board.makeMove(new HexPosition(1, 0));
+        board.makeMove(new HexPosition(1, -1));
+        board.makeMove(new HexPosition(0, -1));
+        board.makeMove(new HexPosition(-1, 0));
+        board.makeMove(new HexPosition(-1, 1));
+
+        PlayerHint hint = engine.computeHint(board, new HexPosition(0, 0));
+
+        assertEquals(1, hint.blocksNeeded());
+        assertEquals(new HexPosition(0, 1), hint.suggestion().orElseThrow());
+    }
+
+    @Test
+    void testCutIsSmallerThanNeighborCountWhenWallExists() {
+        // Una pared parcial reduce las rutas disjuntas por debajo de seis
+        board.makeMove(new HexPosition(2, -2));
+        board.makeMove(new HexPosition(2, -1));
+        board.makeMove(new HexPosition(2, 0));
+        board.makeMove(new HexPosition(1, 1));
+        board.makeMove(new HexPosition(0, 2));
+
+        PlayerHint hint = engine.computeHint(board, new HexPosition(1, 0));
+
+        assertTrue(hint.blocksNeeded() > 0);
+        assertTrue(hint.blocksNeeded() < 6);
+        assertEquals(hint.blocksNeeded(), hint.cut().size());
+    }
+
+    @Test
+    void testEscapeImminentNextToBorder() {
+        PlayerHint hint = engine.computeHint(board, new HexPosition(4, 0));
+
+        assertTrue(hint.isEscapeImminent());
+        assertTrue(hint.suggestion().isEmpty());
+    }
+
+    @Test
+    void testEnclosedCatNeedsNoMoreCuts() {
+        // Región cerrada de dos celdas: el gato ya no puede escapar
+        int[][] wall = {{1, -1}, {0, -1}, {-1, 0}, {-1, 1}, {0, 1}, {2, -1}, {2, 0}, {1, 1}, {2, -2}, {0, 2}};
+        for (int[] cell : wall) {
+            board.makeMove(new HexPosition(cell[0], cell[1]));
+        }
+
+        PlayerHint hint = engine.computeHint(board, new HexPosition(0, 0));
+
+        assertTrue(hint.isCatEnclosed());
+        assertEquals(new HexPosition(1, 0), hint.suggestion().orElseThrow());
+    }
+}
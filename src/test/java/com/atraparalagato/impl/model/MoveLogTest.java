@@ -0,0 +1,172 @@
+package com.atraparalagato.impl.model;
+
+import com.atraparalagato.base.model.GameState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del registro de jugadas y de deshacer/rehacer sobre HexGameState,
+ * incluidas las copias que comparten el registro.
+ */
+class MoveLogTest {
+
+    private HexGameState state;
+
+    @BeforeEach
+    void setUp() {
+        state = new HexGameState("test-game");
+        state.setGameBoard(new HexGameBoard(5));
+        state.setCatPosition(new HexPosition(0, 0));
+    }
+
+    /** Bloquea y mueve el gato como un turno completo. */
+    private void turn(HexGameState game, HexPosition block, HexPosition cat) {
+        assertTrue(game.executeMove(block));
+        game.setCatPosition(cat, 1);
+    }
+
+    @Test
+    void testUndoAndRedoRestoreTurns() {
+        turn(state, new HexPosition(2, 0), new HexPosition(0, 1));
+        turn(state, new HexPosition(-2, 0), new HexPosition(0, 2));
+
+        assertTrue(state.undo());
+        assertEquals(new HexPosition(0, 1), state.getCatPosition());
+        assertFalse(state.getGameBoard().isBlocked(new HexPosition(-2, 0)));
+        assertEquals(1, state.getMoveCount());
+        assertTrue(state.getMoveLog().canRedo());
+
+        assertTrue(state.redo());
+        assertEquals(new HexPosition(0, 2), state.getCatPosition());
+        assertTrue(state.getGameBoard().isBlocked(new HexPosition(-2, 0)));
+        assertEquals(2, state.getMoveCount());
+        assertFalse(state.getMoveLog().canRedo());
+        assertFalse(state.redo());
+    }
+
+    @Test
+    void testNewMoveAfterUndoTruncatesRedo() {
+        turn(state, new HexPosition(2, 0), new HexPosition(0, 1));
+        turn(state, new HexPosition(-2, 0), new HexPosition(0, 2));
+        assertTrue(state.undo());
+
+        turn(state, new HexPosition(1, 1), new HexPosition(-1, 1));
+
+        MoveLog log = state.getMoveLog();
+        assertEquals(2, log.recordedTurns());
+        assertEquals(2, log.appliedTurns());
+        assertFalse(log.canRedo());
+        HexGrid grid = state.getGameBoard().getGrid();
+        assertEquals(grid.indexOf(new HexPosition(1, 1)), log.blockAt(1));
+        assertEquals(grid.indexOf(new HexPosition(-1, 1)), log.catToAt(1));
+    }
+
+    @Test
+    void testRedoAfterUndoingFinishedGame() {
+        turn(state, new HexPosition(2, 0), new HexPosition(0, 1));
+        turn(state, new HexPosition(-2, 0), new HexPosition(0, 5));
+        assertTrue(state.isGameFinished());
+        assertEquals(GameState.GameStatus.PLAYER_LOST, state.getStatus());
+
+        // Deshacer el último turno vuelve a abrir la partida
+        assertTrue(state.undo());
+        assertFalse(state.isGameFinished());
+        assertEquals(new HexPosition(0, 1), state.getCatPosition());
+
+        // Rehacerlo la termina otra vez con la respuesta registrada
+        assertTrue(state.redo());
+        assertTrue(state.isGameFinished());
+        assertEquals(GameState.GameStatus.PLAYER_LOST, state.getStatus());
+        assertEquals(new HexPosition(0, 5), state.getCatPosition());
+    }
+
+    @Test
+    void testRedoIsRefusedAfterForfeit() {
+        turn(state, new HexPosition(2, 0), new HexPosition(0, 1));
+        turn(state, new HexPosition(-2, 0), new HexPosition(0, 2));
+        assertTrue(state.undo());
+
+        // El reloj vence tras deshacer: la partida queda perdida
+        state.forfeit();
+        assertEquals(GameState.GameStatus.PLAYER_LOST, state.getStatus());
+
+        assertFalse(state.redo());
+        assertFalse(state.getGameBoard().isBlocked(new HexPosition(-2, 0)));
+        assertEquals(new HexPosition(0, 1), state.getCatPosition());
+        assertEquals(1, state.getMoveCount());
+        assertEquals(GameState.GameStatus.PLAYER_LOST, state.getStatus());
+    }
+
+    @Test
+    void testCopySharesTurnsWithoutAffectingOriginal() {
+        turn(state, new HexPosition(2, 0), new HexPosition(0, 1));
+        turn(state, new HexPosition(-2, 0), new HexPosition(0, 2));
+
+        HexGameState copy = state.copyForUpdate();
+        turn(copy, new HexPosition(1, 1), new HexPosition(-1, 2));
+
+        assertEquals(2, state.getMoveLog().recordedTurns());
+        assertEquals(3, copy.getMoveLog().recordedTurns());
+        assertEquals(new HexPosition(0, 2), state.getCatPosition());
+        assertFalse(state.getGameBoard().isBlocked(new HexPosition(1, 1)));
+    }
+
+    @Test
+    void testSiblingCopiesDoNotOverwriteEachOther() {
+        turn(state, new HexPosition(2, 0), new HexPosition(0, 1));
+        HexGameState first = state.copyForUpdate();
+        HexGameState second = state.copyForUpdate();
+        HexGrid grid = state.getGameBoard().getGrid();
+
+        turn(first, new HexPosition(-2, 0), new HexPosition(1, 0));
+        turn(second, new HexPosition(1, 1), new HexPosition(-1, 1));
+
+        assertEquals(grid.indexOf(new HexPosition(-2, 0)), first.getMoveLog().blockAt(1));
+        assertEquals(grid.indexOf(new HexPosition(1, 0)), first.getMoveLog().catToAt(1));
+        assertEquals(grid.indexOf(new HexPosition(1, 1)), second.getMoveLog().blockAt(1));
+        assertEquals(grid.indexOf(new HexPosition(-1, 1)), second.getMoveLog().catToAt(1));
+    }
+
+    @Test
+    void testTruncatingCopyKeepsOriginalRedo() {
+        turn(state, new HexPosition(2, 0), new HexPosition(0, 1));
+        turn(state, new HexPosition(-2, 0), new HexPosition(0, 2));
+        assertTrue(state.undo());
+        HexGrid grid = state.getGameBoard().getGrid();
+
+        HexGameState copy = state.copyForUpdate();
+        turn(copy, new HexPosition(1, 1), new HexPosition(-1, 1));
+
+        // La versión original aún puede rehacer su turno deshecho
+        assertTrue(state.getMoveLog().canRedo());
+        assertEquals(grid.indexOf(new HexPosition(-2, 0)), state.getMoveLog().blockAt(1));
+        assertTrue(state.redo());
+        assertEquals(new HexPosition(0, 2), state.getCatPosition());
+    }
+
+    @Test
+    void testLogGrowsBeyondInitialCapacity() {
+        HexGameState game = state;
+        HexGrid grid = state.getGameBoard().getGrid();
+        HexPosition[] blocks = {
+            new HexPosition(1, 0), new HexPosition(2, 0), new HexPosition(3, 0), new HexPosition(-1, 0),
+            new HexPosition(-2, 0), new HexPosition(-3, 0), new HexPosition(0, 2), new HexPosition(0, 3),
+            new HexPosition(0, -1), new HexPosition(0, -2), new HexPosition(0, -3), new HexPosition(1, 1),
+            new HexPosition(2, 1), new HexPosition(-1, -1), new HexPosition(-2, -1), new HexPosition(1, -2),
+            new HexPosition(2, -2), new HexPosition(-1, 2), new HexPosition(-2, 2), new HexPosition(1, -1)
+        };
+        for (HexPosition block : blocks) {
+            // Cada turno sobre una copia, como hace el servicio
+            game = game.copyForUpdate();
+            assertTrue(game.executeMove(block));
+            game.setCatPosition(new HexPosition(0, 1), 0);
+        }
+        MoveLog log = game.getMoveLog();
+        assertEquals(blocks.length, log.recordedTurns());
+        for (int turn = 0; turn < blocks.length; turn++) {
+            assertEquals(grid.indexOf(blocks[turn]), log.blockAt(turn));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.atraparalagato.impl.repository;
+
+import com.atraparalagato.base.model.GameState;
+import com.atraparalagato.impl.model.GameIdGenerator;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGameState;
+import com.atraparalagato.impl.model.HexPosition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de los checkpoints: las partidas vuelven tal cual (sin repetir
+ * turnos) y un checkpoint dañado cede el paso al anterior.
+ */
+class GameCheckpointStoreTest {
+
+    private final GameIdGenerator ids = new GameIdGenerator(0);
+    private Path directory;
+    private GameCheckpointStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("checkpoint-test");
+        store = new GameCheckpointStore(directory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /** Partida con dos turnos, el segundo deshecho, a la espera de rehacerlo. */
+    private HexGameState gameWithUndoneTurn() {
+        HexGameState state = new HexGameState(ids.get());
+        state.setGameBoard(new HexGameBoard(5));
+        state.getGameBoard().makeMove(new HexPosition(1, -2));
+        state.setCatPosition(new HexPosition(0, 0));
+        state.setDifficulty(3);
+        state.setSeed(1234L);
+        state.setMoveTimeout(30_000L, true);
+        state.markStartingLayout();
+        assertTrue(state.executeMove(new HexPosition(2, 0)));
+        state.setCatPosition(new HexPosition(0, 1), 2);
+        assertTrue(state.executeMove(new HexPosition(-2, 0)));
+        state.setCatPosition(new HexPosition(0, 2), 1);
+        assertTrue(state.undo());
+        state.setVersion(7);
+        return state;
+    }
+
+    private void assertSameGame(HexGameState expected, HexGameState actual) {
+        HexGameState.Image a = expected.toImage();
+        HexGameState.Image b = actual.toImage();
+        assertEquals(a.gameId(), b.gameId());
+        assertEquals(a.version(), b.version());
+        assertEquals(a.status(), b.status());
+        assertEquals(a.moveCount(), b.moveCount());
+        assertEquals(a.boardSize(), b.boardSize());
+        assertEquals(a.difficulty(), b.difficulty());
+        assertEquals(a.seed(), b.seed());
+        assertEquals(a.moveTimeoutMillis(), b.moveTimeoutMillis());
+        assertEquals(a.forfeitOnTimeout(), b.forfeitOnTimeout());
+        assertEquals(a.forfeited(), b.forfeited());
+        assertEquals(a.cat(), b.cat());
+        assertEquals(a.lastPlayerMove(), b.lastPlayerMove());
+        assertEquals(a.catReplyPending(), b.catReplyPending());
+        assertArrayEquals(a.blocked(), b.blocked());
+        assertArrayEquals(a.startingBlocked(), b.startingBlocked());
+        assertEquals(a.startingCat(), b.startingCat());
+        assertArrayEquals(a.moveLog(), b.moveLog());
+        assertEquals(a.recordedTurns(), b.recordedTurns());
+        assertEquals(a.appliedTurns(), b.appliedTurns());
+        assertEquals(expected.getGameBoard().getZobristHash(), actual.getGameBoard().getZobristHash());
+    }
+
+    @Test
+    void testWriteAndLoadRestoresGamesExactly() throws IOException {
+        HexGameState undone = gameWithUndoneTurn();
+        // Bloqueo sin respuesta del gato todavía
+        HexGameState pending = new HexGameState(ids.get());
+        pending.setGameBoard(new HexGameBoard(4));
+        pending.setCatPosition(new HexPosition(0, 0));
+        pending.markStartingLayout();
+        assertTrue(pending.executeMove(new HexPosition(1, 0)));
+        pending.setVersion(2);
+
+        assertEquals(2, store.write(100, List.of(undone, pending)));
+
+        GameCheckpointStore.Checkpoint checkpoint = store.loadLatest().orElseThrow();
+        assertEquals(100L, checkpoint.journalOffset());
+        assertEquals(2, checkpoint.gameCount());
+        assertEquals(undone.getGameId(), checkpoint.gameId(0));
+        assertEquals(pending.getGameId(), checkpoint.gameId(1));
+        assertSameGame(undone, checkpoint.state(0));
+        assertSameGame(pending, checkpoint.state(1));
+
+        // El registro restaurado sigue vivo: se puede rehacer y responder
+        HexGameState restored = checkpoint.state(0);
+        assertTrue(restored.redo());
+        assertEquals(new HexPosition(0, 2), restored.getCatPosition());
+        assertTrue(restored.getGameBoard().isBlocked(new HexPosition(-2, 0)));
+        HexGameState waiting = checkpoint.state(1);
+        waiting.setCatPosition(new HexPosition(-1, 0), 3);
+        assertEquals(3, waiting.getMoveLog().replyTagAt(0));
+    }
+
+    @Test
+    void testFinishedStatusIsKeptWithoutReplay() throws IOException {
+        HexGameState forfeited = gameWithUndoneTurn();
+        forfeited.forfeit();
+        store.write(0, List.of(forfeited));
+
+        HexGameState restored = store.loadLatest().orElseThrow().state(0);
+        assertEquals(GameState.GameStatus.PLAYER_LOST, restored.getStatus());
+        assertTrue(restored.isForfeited());
+        assertFalse(restored.undo(), "forfeited games cannot be undone");
+    }
+
+    @Test
+    void testCorruptLatestCheckpointFallsBackToPrevious() throws IOException {
+        HexGameState game = gameWithUndoneTurn();
+        store.write(10, List.of(game));
+        store.write(20, List.of(game));
+
+        // Un bit cambiado en la última partida del checkpoint más reciente
+        Path latest = directory.resolve(String.format("%020d.checkpoint", 20));
+        try (FileChannel file = FileChannel.open(latest, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long last = file.size() - 1;
+            ByteBuffer b = ByteBuffer.allocate(1);
+            file.read(b, last);
+            file.write(ByteBuffer.wrap(new byte[] {(byte) (b.get(0) ^ 1)}), last);
+        }
+
+        GameCheckpointStore.Checkpoint checkpoint = store.loadLatest().orElseThrow();
+        assertEquals(10L, checkpoint.journalOffset());
+        assertSameGame(game, checkpoint.state(0));
+        assertEquals(1L, store.getStatistics().get("discarded"));
+        assertNotNull(store.getStatistics().get("lastError"));
+    }
+
+    @Test
+    void testOnlyTwoCheckpointsAreRetained() throws IOException {
+        HexGameState game = gameWithUndoneTurn();
+        store.write(10, List.of(game));
+        store.write(20, List.of(game));
+        store.write(30, List.of(game));
+
+        assertEquals(20L, store.oldestRetainedOffset());
+        assertEquals(30L, store.loadLatest().orElseThrow().journalOffset());
+    }
+
+    @Test
+    void testNoCheckpointLoadsEmpty() {
+        assertTrue(store.loadLatest().isEmpty());
+        assertEquals(-1L, store.oldestRetainedOffset());
+    }
+}
@@ -0,0 +1,195 @@
+package com.atraparalagato.impl.repository;
+
+import com.atraparalagato.impl.model.GameIdGenerator;
+import com.atraparalagato.impl.model.HexPosition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del diario de partidas: ida y vuelta de los registros, CRC, cola
+ * rota tras una caída, cambio de segmento y borrado de segmentos antiguos.
+ */
+class GameJournalTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    private final GameIdGenerator ids = new GameIdGenerator(0);
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private JournalRecord created(String gameId) {
+        return JournalRecord.created(gameId, 1, new HexPosition(0, 0), new JournalRecord.Setup(
+            5, 2, 42L, 30_000L, true, List.of(new HexPosition(1, 0), new HexPosition(-2, 1))));
+    }
+
+    private JournalRecord block(String gameId, long version, int turn) {
+        return JournalRecord.of(JournalRecord.Type.BLOCK, gameId, version, turn, new HexPosition(turn % 3, -1), 0);
+    }
+
+    private List<JournalRecord> replayAll(long fromOffset) throws IOException {
+        List<JournalRecord> out = new ArrayList<>();
+        GameJournal.replay(directory, fromOffset, out::add);
+        return out;
+    }
+
+    @Test
+    void testRecordsRoundTrip() throws IOException {
+        String gameId = ids.get();
+        List<JournalRecord> written = List.of(
+            created(gameId),
+            block(gameId, 2, 0),
+            JournalRecord.of(JournalRecord.Type.CAT_MOVED, gameId, 3, 0, new HexPosition(0, 1), 2),
+            JournalRecord.of(JournalRecord.Type.UNDO, gameId, 4, 0, null, 0));
+
+        try (GameJournal journal = new GameJournal(directory, SEGMENT_BYTES)) {
+            journal.append(written);
+            assertEquals(journal.endOffset(), journal.durableOffset());
+            assertEquals(1L, journal.getStatistics().get("syncs"));
+        }
+
+        assertEquals(written, replayAll(0));
+    }
+
+    @Test
+    void testInvalidGameIdsAreSkipped() throws IOException {
+        String gameId = ids.get();
+        try (GameJournal journal = new GameJournal(directory, SEGMENT_BYTES)) {
+            journal.append(List.of(block("not-a-snowflake", 1, 0), block(gameId, 2, 0)));
+            assertEquals(1L, journal.getStatistics().get("skipped"));
+        }
+
+        assertEquals(List.of(block(gameId, 2, 0)), replayAll(0));
+    }
+
+    @Test
+    void testCorruptedPayloadFailsCrc() {
+        String gameId = ids.get();
+        JournalRecord record = created(gameId);
+        ByteBuffer buffer = ByteBuffer.allocate(GameJournal.recordSize(record));
+        CRC32 crc = new CRC32();
+        GameJournal.write(buffer, record, GameIdGenerator.decode(gameId), crc);
+
+        assertEquals(record, GameJournal.read(buffer, 0, crc));
+
+        int last = buffer.capacity() - 1;
+        buffer.put(last, (byte) (buffer.get(last) ^ 1));
+        assertNull(GameJournal.read(buffer, 0, crc));
+    }
+
+    @Test
+    void testTornTailIsDiscardedOnReopen() throws IOException {
+        String gameId = ids.get();
+        long firstEnd;
+        try (GameJournal journal = new GameJournal(directory, SEGMENT_BYTES)) {
+            journal.append(List.of(block(gameId, 1, 0)));
+            firstEnd = journal.endOffset();
+            journal.append(List.of(block(gameId, 2, 1)));
+        }
+
+        // Simula una caída a mitad del segundo registro y basura detrás
+        Path segment = directory.resolve(String.format("%020d%s", 0, GameJournal.SUFFIX));
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(new byte[] {7, 7, 7}), firstEnd + GameJournal.HEADER_BYTES + 2);
+            file.write(ByteBuffer.wrap(new byte[] {9, 9, 9, 9}), firstEnd + 200);
+        }
+
+        try (GameJournal journal = new GameJournal(directory, SEGMENT_BYTES)) {
+            assertEquals(firstEnd, journal.endOffset());
+            journal.append(List.of(block(gameId, 3, 1)));
+        }
+
+        assertEquals(List.of(block(gameId, 1, 0), block(gameId, 3, 1)), replayAll(0));
+    }
+
+    @Test
+    void testAppendRollsToNewSegments() throws IOException {
+        String gameId = ids.get();
+        int perSegment = SEGMENT_BYTES / GameJournal.recordSize(block(gameId, 0, 0));
+        int total = perSegment * 2 + 10;
+        List<JournalRecord> written = new ArrayList<>();
+        try (GameJournal journal = new GameJournal(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < total; i += 25) {
+                List<JournalRecord> batch = new ArrayList<>();
+                for (int turn = i; turn < Math.min(total, i + 25); turn++) {
+                    batch.add(block(gameId, turn + 1, turn));
+                }
+                journal.append(batch);
+                written.addAll(batch);
+            }
+            assertEquals(journal.endOffset(), journal.durableOffset());
+        }
+
+        List<Long> bases = GameJournal.segmentBases(directory);
+        assertEquals(3, bases.size());
+        assertEquals(0L, bases.get(0).longValue());
+        assertEquals(written, replayAll(0));
+
+        // Reabrir continúa en el último segmento
+        try (GameJournal journal = new GameJournal(directory, SEGMENT_BYTES)) {
+            journal.append(List.of(block(gameId, total + 1, total)));
+        }
+        written.add(block(gameId, total + 1, total));
+        assertEquals(written, replayAll(0));
+    }
+
+    @Test
+    void testDeleteSegmentsBeforeKeepsCoveringSegments() throws IOException {
+        String gameId = ids.get();
+        int perSegment = SEGMENT_BYTES / GameJournal.recordSize(block(gameId, 0, 0));
+        int total = perSegment * 3 + 5;
+        try (GameJournal journal = new GameJournal(directory, SEGMENT_BYTES)) {
+            for (int turn = 0; turn < total; turn++) {
+                journal.append(List.of(block(gameId, turn + 1, turn)));
+            }
+            List<Long> bases = GameJournal.segmentBases(directory);
+            assertEquals(4, bases.size());
+
+            // Un desplazamiento dentro del tercer segmento solo libera los dos primeros
+            long offset = bases.get(2) + 100;
+            assertEquals(2, journal.deleteSegmentsBefore(offset));
+            assertEquals(bases.subList(2, 4), GameJournal.segmentBases(directory));
+
+            List<JournalRecord> tail = new ArrayList<>();
+            GameJournal.replay(directory, bases.get(2), tail::add);
+            assertEquals(total - 2 * perSegment, tail.size());
+            assertEquals(block(gameId, total, total - 1), tail.get(tail.size() - 1));
+
+            // El segmento abierto nunca se borra
+            assertEquals(1, journal.deleteSegmentsBefore(Long.MAX_VALUE));
+            assertEquals(List.of(bases.get(3)), GameJournal.segmentBases(directory));
+        }
+    }
+
+    @Test
+    void testRejectsSegmentsSmallerThanMinimum() {
+        assertThrows(IllegalArgumentException.class, () -> new GameJournal(directory, 1024));
+    }
+}
@@ -0,0 +1,240 @@
+package com.atraparalagato.impl.repository;
+
+import com.atraparalagato.impl.model.GameIdGenerator;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGameSnapshot;
+import com.atraparalagato.impl.model.HexGameState;
+import com.atraparalagato.impl.model.HexPosition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la recuperación: checkpoint más cola del diario filtrada por
+ * versión, partidas solo en el diario y carga perezosa en el repositorio.
+ */
+class GameRecoveryTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    private final GameIdGenerator ids = new GameIdGenerator(0);
+    private Path directory;
+    private GameJournal journal;
+    private GameCheckpointStore checkpoints;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("recovery-test");
+        journal = new GameJournal(directory, SEGMENT_BYTES);
+        checkpoints = new GameCheckpointStore(directory.resolve("checkpoints"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static JournalRecord created(String gameId) {
+        return JournalRecord.created(gameId, 1, new HexPosition(0, 0),
+            new JournalRecord.Setup(5, 3, 99L, 0L, false, List.of()));
+    }
+
+    /** Turno completo (bloqueo y respuesta) con la versión de su guardado. */
+    private static List<JournalRecord> turn(String gameId, long version, int turn, HexPosition block, HexPosition cat) {
+        return List.of(
+            JournalRecord.of(JournalRecord.Type.BLOCK, gameId, version, turn, block, 0),
+            JournalRecord.of(JournalRecord.Type.CAT_MOVED, gameId, version, turn, cat, 0));
+    }
+
+    /** Estado en memoria equivalente a {@link #created} más un turno, en la versión 2. */
+    private static HexGameState afterFirstTurn(String gameId) {
+        HexGameState state = new HexGameState(gameId);
+        state.setGameBoard(new HexGameBoard(5));
+        state.setDifficulty(3);
+        state.setSeed(99L);
+        state.setCatPosition(new HexPosition(0, 0));
+        state.markStartingLayout();
+        assertTrue(state.executeMove(new HexPosition(2, 0)));
+        state.setCatPosition(new HexPosition(0, 1));
+        state.setVersion(2);
+        return state;
+    }
+
+    /**
+     * Partida creada antes del checkpoint cuyo primer turno se sincronizó
+     * después del desplazamiento pero ya está en el estado guardado.
+     */
+    private String checkpointedGameWithTail() throws IOException {
+        String gameId = ids.get();
+        journal.append(List.of(created(gameId)));
+        long offset = journal.durableOffset();
+        journal.append(turn(gameId, 2, 0, new HexPosition(2, 0), new HexPosition(0, 1)));
+        checkpoints.write(offset, List.of(afterFirstTurn(gameId)));
+        journal.append(turn(gameId, 3, 1, new HexPosition(-2, 0), new HexPosition(0, 2)));
+        return gameId;
+    }
+
+    @Test
+    void testCheckpointPlusTailSkipsCoveredVersions() throws IOException {
+        String gameId = checkpointedGameWithTail();
+
+        GameRecovery recovery = GameRecovery.load(checkpoints, directory);
+        assertEquals(1, recovery.checkpointGames());
+        // La creación queda antes del desplazamiento; los dos turnos después
+        assertEquals(4L, recovery.tailRecords());
+
+        // Volver a aplicar el turno de la versión 2 fallaría: la celda ya está bloqueada
+        HexGameState state = recovery.rebuild(gameId).orElseThrow();
+        assertEquals(3L, state.getVersion());
+        assertEquals(2, state.getMoveCount());
+        assertEquals(new HexPosition(0, 2), state.getCatPosition());
+        assertTrue(state.getGameBoard().isBlocked(new HexPosition(2, 0)));
+        assertTrue(state.getGameBoard().isBlocked(new HexPosition(-2, 0)));
+        assertEquals(2, state.getMoveLog().recordedTurns());
+        assertEquals(0L, recovery.failedGames());
+    }
+
+    @Test
+    void testGamesOnlyInJournalAreReplayedFromCreation() throws IOException {
+        checkpointedGameWithTail();
+        String late = ids.get();
+        String expired = ids.get();
+        List<JournalRecord> batch = new ArrayList<>();
+        batch.add(created(late));
+        batch.addAll(turn(late, 2, 0, new HexPosition(1, 1), new HexPosition(-1, 0)));
+        batch.add(created(expired));
+        batch.add(JournalRecord.of(JournalRecord.Type.EXPIRED, expired, 1, -1, null, 0));
+        journal.append(batch);
+
+        GameRecovery recovery = GameRecovery.load(checkpoints, directory);
+        assertEquals(3, recovery.gameIds().size());
+
+        HexGameState state = recovery.rebuild(late).orElseThrow();
+        assertEquals(2L, state.getVersion());
+        assertEquals(new HexPosition(-1, 0), state.getCatPosition());
+        assertTrue(recovery.rebuild(expired).isEmpty());
+        assertTrue(recovery.rebuild(ids.get()).isEmpty());
+    }
+
+    @Test
+    void testTailWithoutCreationAndOutsideCheckpointCountsAsFailed() throws IOException {
+        String gameId = ids.get();
+        journal.append(List.of(created(gameId)));
+        long offset = journal.durableOffset();
+        // Su creación queda antes del checkpoint, que no la incluye
+        checkpoints.write(offset, List.of());
+        journal.append(List.of(JournalRecord.of(JournalRecord.Type.UNDO, gameId, 5, 0, null, 0)));
+
+        GameRecovery recovery = GameRecovery.load(checkpoints, directory);
+        assertTrue(recovery.rebuild(gameId).isEmpty());
+        assertEquals(1L, recovery.failedGames());
+    }
+
+    @Test
+    void testFinishedGameReopenedAfterCheckpointIsRecovered() throws IOException {
+        String gameId = ids.get();
+        journal.append(List.of(created(gameId)));
+        journal.append(turn(gameId, 2, 0, new HexPosition(2, 0), new HexPosition(0, 1)));
+        journal.append(turn(gameId, 3, 1, new HexPosition(-2, 0), new HexPosition(0, 5)));
+        HexGameState finished = afterFirstTurn(gameId);
+        assertTrue(finished.executeMove(new HexPosition(-2, 0)));
+        finished.setCatPosition(new HexPosition(0, 5));
+        finished.setVersion(3);
+        assertTrue(finished.isGameFinished());
+
+        long offset = journal.durableOffset();
+        checkpoints.write(offset, List.of(finished));
+        // Deshacer el último turno la vuelve a abrir después del checkpoint
+        journal.append(List.of(JournalRecord.of(JournalRecord.Type.UNDO, gameId, 4, 1, null, 0)));
+
+        GameRecovery recovery = GameRecovery.load(checkpoints, directory);
+        HexGameState state = recovery.rebuild(gameId).orElseThrow();
+        assertFalse(state.isGameFinished());
+        assertEquals(4L, state.getVersion());
+        assertEquals(new HexPosition(0, 1), state.getCatPosition());
+        assertTrue(state.getMoveLog().canRedo());
+        assertEquals(0L, recovery.failedGames());
+    }
+
+    @Test
+    void testTailThatDoesNotApplyCountsAsFailed() throws IOException {
+        String gameId = checkpointedGameWithTail();
+        // Bloqueo repetido con una versión nueva: no se puede aplicar
+        journal.append(turn(gameId, 4, 2, new HexPosition(2, 0), new HexPosition(0, 3)));
+
+        GameRecovery recovery = GameRecovery.load(checkpoints, directory);
+        assertTrue(recovery.rebuild(gameId).isEmpty());
+        assertEquals(1L, recovery.failedGames());
+    }
+
+    @Test
+    void testDormantGamesHydrateOnFirstRead() throws IOException {
+        String first = checkpointedGameWithTail();
+        String second = ids.get();
+        journal.append(List.of(created(second)));
+        GameRecovery recovery = GameRecovery.load(checkpoints, directory);
+
+        InMemoryHexGameRepository repository = new InMemoryHexGameRepository();
+        List<String> hydrated = new ArrayList<>();
+        repository.registerDormant(recovery.gameIds(), recovery::rebuild, state -> {
+            synchronized (hydrated) {
+                hydrated.add(state.getGameId());
+            }
+        });
+        assertEquals(2, repository.dormantCount());
+
+        Optional<HexGameState> found = repository.findById(first);
+        assertTrue(found.isPresent());
+        assertEquals(3L, found.get().getVersion());
+        assertEquals(List.of(first), hydrated);
+        assertEquals(1, repository.dormantCount());
+        assertTrue(repository.findSnapshot(first).isPresent());
+
+        // Una segunda lectura no la vuelve a reconstruir
+        assertSame(found.get(), repository.findById(first).orElseThrow());
+        assertEquals(1, hydrated.size());
+
+        repository.hydrateAll();
+        assertEquals(0, repository.dormantCount());
+        assertEquals(Set.of(first, second), Set.copyOf(hydrated));
+        assertTrue(repository.findById(second).isPresent());
+    }
+
+    @Test
+    void testSnapshotReadsWakeDormantGames() throws IOException {
+        String first = checkpointedGameWithTail();
+        String second = ids.get();
+        journal.append(List.of(created(second)));
+        GameRecovery recovery = GameRecovery.load(checkpoints, directory);
+
+        InMemoryHexGameRepository repository = new InMemoryHexGameRepository();
+        repository.registerDormant(recovery.gameIds(), recovery::rebuild, state -> { });
+
+        Optional<HexGameSnapshot> snapshot = repository.findSnapshot(first);
+        assertTrue(snapshot.isPresent(), "dormant game should be found by snapshot");
+        assertEquals(3L, snapshot.get().version());
+        assertEquals(1, repository.dormantCount());
+
+        List<HexGameSnapshot> found = repository.findSnapshots(List.of(second, ids.get()));
+        assertEquals(1, found.size());
+        assertEquals(second, found.get(0).gameId());
+        assertEquals(0, repository.dormantCount());
+    }
+}
@@ -0,0 +1,168 @@
+package com.atraparalagato.impl.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del bus de eventos: entrega sin pérdidas al dar la vuelta al
+ * búfer, orden por productor con varios productores, espera de vaciado y
+ * fallos del suscriptor.
+ */
+class GameEventBusTest {
+
+    /** Evento cuya versión codifica el productor y su número de secuencia. */
+    private static GameEvent event(int producer, long sequence) {
+        return GameEvent.of(GameEvent.Type.NOTICE, "producer-" + producer, sequence, producer, null, Map.of());
+    }
+
+    @Test
+    void testSlowSubscriberBackPressuresProducerWithoutLoss() {
+        GameEventBus bus = new GameEventBus(8);
+        List<Long> received = new ArrayList<>();
+        bus.subscribe("slow", 2, batch -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (received) {
+                batch.forEach(e -> received.add(e.version()));
+            }
+        });
+
+        // Muchas más vueltas que casillas: quien publica tiene que esperar
+        int total = 200;
+        for (long i = 0; i < total; i++) {
+            bus.publish(event(0, i));
+        }
+
+        assertTrue(bus.awaitDrained(10_000), "subscriber should catch up");
+        synchronized (received) {
+            assertEquals(total, received.size());
+            for (int i = 0; i < total; i++) {
+                assertEquals(i, received.get(i).longValue());
+            }
+        }
+        assertTrue((Long) bus.getStatistics().get("producerWaits") > 0, "producer should have waited");
+    }
+
+    @Test
+    void testMultipleProducersKeepPerProducerOrder() throws InterruptedException {
+        GameEventBus bus = new GameEventBus(64);
+        int producers = 4;
+        int perProducer = 5_000;
+        long[] last = new long[producers];
+        Arrays.fill(last, -1);
+        List<String> errors = new ArrayList<>();
+        long[] count = {0};
+        bus.subscribe("order", 32, batch -> {
+            for (GameEvent e : batch) {
+                int producer = e.turn();
+                if (e.version() != last[producer] + 1) {
+                    errors.add("producer " + producer + ": " + e.version() + " after " + last[producer]);
+                }
+                last[producer] = e.version();
+                count[0]++;
+            }
+        });
+
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread t = new Thread(() -> {
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    bus.publish(event(producer, i));
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        ready.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertTrue(bus.awaitDrained(10_000));
+        // El suscriptor escribe en su hilo; awaitDrained publica su secuencia
+        assertEquals(List.of(), errors);
+        assertEquals((long) producers * perProducer, count[0]);
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer - 1L, last[p]);
+        }
+    }
+
+    @Test
+    void testAwaitDrainedTimesOutWhileSubscriberIsBlocked() throws InterruptedException {
+        GameEventBus bus = new GameEventBus(16);
+        CountDownLatch release = new CountDownLatch(1);
+        bus.subscribe("blocked", 16, batch -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        bus.publish(event(0, 0));
+        assertFalse(bus.awaitDrained(50), "blocked subscriber cannot drain");
+
+        release.countDown();
+        assertTrue(bus.awaitDrained(5_000));
+        assertEquals(0L, bus.publishedSequence());
+    }
+
+    @Test
+    void testAwaitDrainedWithNothingPublished() {
+        GameEventBus bus = new GameEventBus(16);
+        bus.subscribe("idle", 16, batch -> { });
+        assertTrue(bus.awaitDrained(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailingSubscriberReportsLastErrorAndKeepsConsuming() {
+        GameEventBus bus = new GameEventBus(16);
+        List<Long> received = new ArrayList<>();
+        bus.subscribe("flaky", 1, batch -> {
+            long version = batch.get(0).version();
+            if (version == 1) {
+                throw new IllegalStateException("boom " + version);
+            }
+            synchronized (received) {
+                received.add(version);
+            }
+        });
+
+        for (long i = 0; i < 3; i++) {
+            bus.publish(event(0, i));
+        }
+
+        assertTrue(bus.awaitDrained(5_000));
+        synchronized (received) {
+            assertEquals(List.of(0L, 2L), received);
+        }
+        Map<String, Object> stats = (Map<String, Object>) ((Map<String, Object>) bus.getStatistics()
+            .get("subscribers")).get("flaky");
+        assertEquals(1L, stats.get("failures"));
+        assertEquals("boom 1", stats.get("lastError"));
+    }
+
+    @Test
+    void testRejectsCapacityThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new GameEventBus(12));
+    }
+}
@@ -0,0 +1,131 @@
+package com.atraparalagato.impl.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la rueda de tiempo con una rueda pequeña: 4 casillas de 5 ms
+ * y 2 niveles, es decir, 20 ms en el nivel 0, 80 ms en el nivel 1 y los
+ * temporizadores más lejanos aparcados.
+ */
+class TimingWheelTest {
+
+    private static final long TICK_MILLIS = 5;
+
+    /** Momento de vencimiento de cada clave, en nanos. */
+    private Map<String, Long> expiredAt;
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        expiredAt = new ConcurrentHashMap<>();
+    }
+
+    private TimingWheel<String> newWheel(CountDownLatch latch) {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MILLIS, 4, 2, keys -> {
+            long now = System.nanoTime();
+            for (String key : keys) {
+                expiredAt.put(key, now);
+                latch.countDown();
+            }
+        });
+        start = System.nanoTime();
+        return wheel;
+    }
+
+    private long elapsedMillis(String key) {
+        return TimeUnit.NANOSECONDS.toMillis(expiredAt.get(key) - start);
+    }
+
+    @Test
+    void testTimersCascadeAcrossLevels() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        TimingWheel<String> wheel = newWheel(latch);
+
+        wheel.schedule("level0", 10);
+        wheel.schedule("level1", 50);
+        wheel.schedule("level1-late", 75);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS), "all timers should expire");
+        // Nunca antes de su plazo (menos el tick en curso) y en orden
+        assertTrue(elapsedMillis("level0") >= 10 - TICK_MILLIS);
+        assertTrue(elapsedMillis("level1") >= 50 - TICK_MILLIS);
+        assertTrue(elapsedMillis("level1-late") >= 75 - TICK_MILLIS);
+        assertTrue(expiredAt.get("level0") <= expiredAt.get("level1"));
+        assertTrue(expiredAt.get("level1") <= expiredAt.get("level1-late"));
+        assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    void testParkedTimerBeyondRangeExpiresOnTime() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        TimingWheel<String> wheel = newWheel(latch);
+
+        // 200 ms son 40 ticks, más que los 16 que cubren los dos niveles
+        wheel.schedule("parked", 200);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS), "parked timer should expire");
+        assertTrue(elapsedMillis("parked") >= 200 - TICK_MILLIS,
+            "expired after " + elapsedMillis("parked") + " ms");
+        assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    void testCancelledTimerNeverExpires() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        TimingWheel<String> wheel = newWheel(latch);
+
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 20);
+        wheel.schedule("kept", 60);
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled), "second cancel should fail");
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("kept"), List.copyOf(expiredAt.keySet()));
+        assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    void testCancelAfterExpiryReturnsFalse() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        TimingWheel<String> wheel = newWheel(latch);
+
+        TimingWheel.Timeout<String> timeout = wheel.schedule("expired", 10);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+
+        assertFalse(wheel.cancel(timeout));
+        assertEquals(0, wheel.pendingCount());
+        assertEquals(0L, wheel.getStatistics().get("cancelled"));
+    }
+
+    @Test
+    void testConsumerFailureIsReportedAndWheelKeepsTicking() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MILLIS, 4, 2, keys -> {
+            if (keys.contains("bad")) {
+                throw new IllegalStateException("bad timer");
+            }
+            latch.countDown();
+        });
+
+        wheel.schedule("bad", 10);
+        wheel.schedule("good", 60);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS), "later timers still expire");
+        assertEquals(1L, wheel.getStatistics().get("failures"));
+        assertEquals("bad timer", wheel.getStatistics().get("lastError"));
+    }
+
+    @Test
+    void testRejectsWheelSizeThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(5, 6, 2, keys -> { }));
+    }
+}